@@ -0,0 +1,571 @@
+package com.bookmap.rithmicmonitor.bookmap;
+
+import com.bookmap.rithmicmonitor.AsyncLog;
+import com.bookmap.rithmicmonitor.ChartMonitor;
+import com.bookmap.rithmicmonitor.PanelSettings;
+import velox.api.layer1.Layer1ApiAdminAdapter;
+import velox.api.layer1.Layer1ApiFinishable;
+import velox.api.layer1.Layer1ApiProvider;
+import velox.api.layer1.annotations.Layer1ApiVersion;
+import velox.api.layer1.annotations.Layer1ApiVersionValue;
+import velox.api.layer1.annotations.Layer1Attachable;
+import velox.api.layer1.annotations.Layer1StrategyName;
+import velox.api.layer1.common.ListenableHelper;
+import velox.api.layer1.messages.Layer1ApiSoundAlertMessage;
+
+import javax.swing.*;
+import java.awt.*;
+import java.time.DayOfWeek;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Layer1Attachable
+@Layer1StrategyName("Simple Telegram Notifier")
+@Layer1ApiVersion(Layer1ApiVersionValue.VERSION2)
+public class SimpleTelegramNotifier implements
+        Layer1ApiAdminAdapter,
+        Layer1ApiFinishable,
+        velox.api.layer1.Layer1CustomPanelsGetter,
+        velox.api.layer1.Layer1ApiDataListener,
+        velox.api.layer1.Layer1ApiInstrumentAdapter,
+        ChartMonitor.Listener {
+
+    private static final AsyncLog log = AsyncLog.get();
+    // The usage banner is the same for every chart, so only the first one prints it
+    private static final AtomicBoolean bannerShown = new AtomicBoolean();
+    
+    private final Layer1ApiProvider provider;
+    // Settings, schedule and alert delivery are shared with every other chart's monitor
+    private final ChartMonitor chart;
+    
+    private JTextField botTokenField;
+    private JTextField chatIdField;
+    private JTextField timeoutField;
+    private JTextField periodicField;
+    private JTextField rateDropField;
+    private JTextField startTimeField;
+    private JTextField endTimeField;
+    private JComboBox<String> startDayComboBox;
+    private JComboBox<String> endDayComboBox;
+    private JCheckBox timeRangeEnabledCheckBox;
+    private JLabel statusLabel;
+    private JLabel timeRangeStatusLabel;
+    private StatusDashboard dashboard;
+    // Built on first request and handed out again after that
+    private velox.gui.StrategyPanel[] panels;
+    
+    public SimpleTelegramNotifier(Layer1ApiProvider provider) {
+        long started = System.nanoTime();
+        this.provider = provider;
+        // Alerts from the "bookmap" sink show as Bookmap's own popup alert
+        this.chart = ChartMonitor.open(this, this::showInAppAlert);
+        ListenableHelper.addListeners(provider, this);
+        chart.startupPhase("notifier", System.nanoTime() - started);
+    }
+    
+    private void showInAppAlert(String text) {
+        provider.sendUserMessage(Layer1ApiSoundAlertMessage.builder()
+                .setSource(SimpleTelegramNotifier.class)
+                .setTextInfo(text)
+                .setShowPopup(true)
+                .setRepeatCount(1)
+                .build());
+    }
+    
+    @Override
+    public void onUserMessage(Object data) {
+        if (data instanceof velox.api.layer1.messages.UserMessageLayersChainCreatedTargeted) {
+            velox.api.layer1.messages.UserMessageLayersChainCreatedTargeted message = 
+                (velox.api.layer1.messages.UserMessageLayersChainCreatedTargeted) data;
+            if (message.targetClass == getClass() && bannerShown.compareAndSet(false, true)) {
+                log.info("=== Simple Telegram Notifier Started ===");
+                log.info("To set Telegram config: setTelegramConfig(botToken, chatId)");
+                log.info("To test: testTelegram()");
+                log.info("To send message: sendMessage(\"your message\")");
+                log.info("To start monitoring: startMonitoring()");
+                log.info("To stop monitoring: stopMonitoring()");
+                log.info("To check time range status: getTimeRangeStatus()");
+                log.info("To check if time range is active: isTimeRangeActive()");
+                log.info("=========================================");
+            }
+        }
+    }
+    
+    @Override
+    public void onConnectionLost(velox.api.layer1.data.DisconnectionReason reason, String message) {
+        chart.onConnectionLost(String.valueOf(reason), message);
+    }
+    
+    @Override
+    public void onConnectionRestored() {
+        chart.onConnectionRestored();
+    }
+    
+    @Override
+    public void onLoginFailed(velox.api.layer1.data.LoginFailedReason reason, String message) {
+        chart.onLoginFailed(String.valueOf(reason), message);
+    }
+    
+    @Override
+    public void onLoginSuccessful() {
+        chart.onConnectionRestored();
+    }
+    
+    @Override
+    public void onSystemTextMessage(String message, velox.api.layer1.data.SystemTextMessageType messageType) {
+        log.info("💬 System message ({}): {}", messageType, message);
+    }
+    
+    @Override
+    public void onInstrumentAdded(String alias, velox.api.layer1.data.InstrumentInfo instrumentInfo) {
+        chart.onInstrumentAdded(alias);
+    }
+    
+    @Override
+    public void onInstrumentRemoved(String alias) {
+        chart.onInstrumentRemoved(alias);
+    }
+    
+    @Override
+    public void onInstrumentNotFound(String symbol, String exchange, String type) {
+        chart.onInstrumentNotFound(symbol, exchange, type);
+    }
+    
+    @Override
+    public void onInstrumentAlreadySubscribed(String symbol, String exchange, String type) {
+        log.info("Instrument already subscribed: {}", symbol + " " + exchange + " " + type);
+    }
+    
+    @Override
+    public void onDepth(String alias, boolean isBid, int price, int size) {
+        chart.onDepth(alias, isBid, price, size);
+    }
+    
+    @Override
+    public void onMarketMode(String alias, velox.api.layer1.data.MarketMode mode) {
+        chart.onMarketMode(alias);
+    }
+    
+    @Override
+    public void onTrade(String alias, double price, int size, velox.api.layer1.data.TradeInfo tradeInfo) {
+        chart.onTrade(alias, price, size);
+    }
+    
+    public void startMonitoring() {
+        chart.start();
+    }
+    
+    public void stopMonitoring() {
+        chart.stop();
+    }
+    
+    // Called by the dashboard on every frame, on the EDT; the labels follow state changes within a frame
+    private void refreshStatusLabels() {
+        if (chart.isRunning()) {
+            setLabel(statusLabel, "Status: Monitoring Active", Color.GREEN);
+        } else {
+            setLabel(statusLabel, "Status: Not Monitoring", Color.RED);
+        }
+        if (!chart.settings().timeRangeEnabled()) {
+            setLabel(timeRangeStatusLabel, "Time Range Status: Not Active", Color.GRAY);
+        } else if (chart.isInTimeRange()) {
+            setLabel(timeRangeStatusLabel, "Time Range Status: IN RANGE", Color.GREEN);
+        } else {
+            setLabel(timeRangeStatusLabel, "Time Range Status: OUT OF RANGE", Color.RED);
+        }
+    }
+    
+    private static void setLabel(JLabel label, String text, Color color) {
+        if (!text.equals(label.getText())) {
+            label.setText(text);
+            label.setForeground(color);
+        }
+    }
+    
+    private void updateStartTime() {
+        String newTime = startTimeField.getText().trim();
+        if (PanelSettings.isValidTime(newTime)) {
+            applied(chart.updateSettings(c -> c.withTimes(newTime, c.endTime())));
+        } else {
+            startTimeField.setText(chart.settings().startTime()); // Revert to previous valid value
+            JOptionPane.showMessageDialog(null, "Invalid time format. Please use HH:mm (e.g., 09:30)", 
+                "Invalid Time Format", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+    
+    private void updateEndTime() {
+        String newTime = endTimeField.getText().trim();
+        if (PanelSettings.isValidTime(newTime)) {
+            applied(chart.updateSettings(c -> c.withTimes(c.startTime(), newTime)));
+        } else {
+            endTimeField.setText(chart.settings().endTime()); // Revert to previous valid value
+            JOptionPane.showMessageDialog(null, "Invalid time format. Please use HH:mm (e.g., 17:30)", 
+                "Invalid Time Format", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+    
+    @Override
+    public velox.gui.StrategyPanel[] getCustomGuiFor(String indicatorName, String indicatorFullName) {
+        if (panels == null) {
+            long started = System.nanoTime();
+            panels = buildPanels();
+            chart.startupPhase("panel", System.nanoTime() - started);
+        }
+        return panels;
+    }
+    
+    private velox.gui.StrategyPanel[] buildPanels() {
+        JPanel panel = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(5, 5, 5, 5);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        PanelSettings current = chart.settings();
+        
+        // Bot Token
+        gbc.gridx = 0; gbc.gridy = 0;
+        panel.add(new JLabel("Bot Token:"), gbc);
+        
+        gbc.gridx = 1; gbc.gridy = 0;
+        gbc.weightx = 1.0;
+        botTokenField = new JTextField(15);
+        botTokenField.setText(current.botToken()); // Set saved value
+        panel.add(botTokenField, gbc);
+        
+        // Chat ID
+        gbc.gridx = 0; gbc.gridy = 1;
+        gbc.weightx = 0.0;
+        panel.add(new JLabel("Chat ID:"), gbc);
+        
+        gbc.gridx = 1; gbc.gridy = 1;
+        gbc.weightx = 1.0;
+        chatIdField = new JTextField(15);
+        chatIdField.setText(current.chatId()); // Set saved value
+        panel.add(chatIdField, gbc);
+        
+        // Timeout
+        gbc.gridx = 0; gbc.gridy = 2;
+        gbc.weightx = 0.0;
+        panel.add(new JLabel("Timeout:"), gbc);
+        
+        gbc.gridx = 1; gbc.gridy = 2;
+        gbc.weightx = 1.0;
+        timeoutField = new JTextField(String.valueOf(current.timeoutSeconds()), 8);
+        panel.add(timeoutField, gbc);
+        
+        // Periodic
+        gbc.gridx = 0; gbc.gridy = 3;
+        gbc.weightx = 0.0;
+        panel.add(new JLabel("Periodic:"), gbc);
+        
+        gbc.gridx = 1; gbc.gridy = 3;
+        gbc.weightx = 1.0;
+        periodicField = new JTextField(String.valueOf(current.periodicSeconds()), 8);
+        panel.add(periodicField, gbc);
+        
+        // Rate Drop
+        gbc.gridx = 0; gbc.gridy = 4;
+        gbc.weightx = 0.0;
+        panel.add(new JLabel("Rate Drop %:"), gbc);
+        
+        gbc.gridx = 1; gbc.gridy = 4;
+        gbc.weightx = 1.0;
+        rateDropField = new JTextField(String.valueOf(current.rateDropPercent()), 8);
+        rateDropField.setToolTipText("Alert when an instrument's update rate falls below this % of its baseline (0 = off)");
+        panel.add(rateDropField, gbc);
+        
+        // Time Range
+        gbc.gridx = 0; gbc.gridy = 5;
+        gbc.weightx = 0.0;
+        panel.add(new JLabel("Time Range:"), gbc);
+        
+        gbc.gridx = 1; gbc.gridy = 5;
+        gbc.weightx = 1.0;
+        timeRangeEnabledCheckBox = new JCheckBox("Enable Time Range Monitoring");
+        timeRangeEnabledCheckBox.setSelected(current.timeRangeEnabled());
+        timeRangeEnabledCheckBox.addActionListener(e -> {
+            boolean enabled = timeRangeEnabledCheckBox.isSelected();
+            applied(chart.updateSettings(c -> c.withTimeRangeEnabled(enabled)));
+        });
+        panel.add(timeRangeEnabledCheckBox, gbc);
+        
+        // Time Range Settings - Separate Panel with GridLayout
+        JPanel timeRangePanel = new JPanel(new GridLayout(3, 2, 10, 5));
+        timeRangePanel.setBorder(BorderFactory.createTitledBorder("Time Range Settings"));
+        
+        String[] daysOfWeek = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday"};
+        
+        // Column Headers
+        timeRangePanel.add(new JLabel("Start Time:", SwingConstants.CENTER));
+        timeRangePanel.add(new JLabel("End Time:", SwingConstants.CENTER));
+        
+        // Start Day
+        startDayComboBox = new JComboBox<>(daysOfWeek);
+        startDayComboBox.setSelectedIndex(current.startDayOfWeek().getValue() - 1);
+        startDayComboBox.addActionListener(e -> {
+            DayOfWeek day = DayOfWeek.of(startDayComboBox.getSelectedIndex() + 1);
+            applied(chart.updateSettings(c -> c.withDays(day, c.endDayOfWeek())));
+        });
+        timeRangePanel.add(startDayComboBox);
+        
+        // End Day
+        endDayComboBox = new JComboBox<>(daysOfWeek);
+        endDayComboBox.setSelectedIndex(current.endDayOfWeek().getValue() - 1);
+        endDayComboBox.addActionListener(e -> {
+            DayOfWeek day = DayOfWeek.of(endDayComboBox.getSelectedIndex() + 1);
+            applied(chart.updateSettings(c -> c.withDays(c.startDayOfWeek(), day)));
+        });
+        timeRangePanel.add(endDayComboBox);
+        
+        // Start Time
+        startTimeField = new JTextField(current.startTime(), 8);
+        startTimeField.setToolTipText("Enter start time in HH:mm format (e.g., 09:30)");
+        startTimeField.addActionListener(e -> {
+            updateStartTime();
+        });
+        startTimeField.addFocusListener(new java.awt.event.FocusAdapter() {
+            @Override
+            public void focusLost(java.awt.event.FocusEvent e) {
+                updateStartTime();
+            }
+        });
+        timeRangePanel.add(startTimeField);
+        
+        // End Time
+        endTimeField = new JTextField(current.endTime(), 8);
+        endTimeField.setToolTipText("Enter end time in HH:mm format (e.g., 17:30)");
+        endTimeField.addActionListener(e -> {
+            updateEndTime();
+        });
+        endTimeField.addFocusListener(new java.awt.event.FocusAdapter() {
+            @Override
+            public void focusLost(java.awt.event.FocusEvent e) {
+                updateEndTime();
+            }
+        });
+        timeRangePanel.add(endTimeField);
+        
+        // Add the time range panel to the main panel
+        gbc.gridx = 0; gbc.gridy = 6;
+        gbc.gridwidth = 2;
+        gbc.weightx = 1.0;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        panel.add(timeRangePanel, gbc);
+        
+        // Live per-instrument table, repainted by one timer at a fixed frame rate
+        dashboard = new StatusDashboard(chart.status(), this::refreshStatusLabels);
+        gbc.gridx = 0; gbc.gridy = 7;
+        gbc.gridwidth = 2;
+        gbc.weightx = 1.0;
+        gbc.fill = GridBagConstraints.BOTH;
+        panel.add(dashboard.component(), gbc);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        
+        // Status Display
+        gbc.gridx = 0; gbc.gridy = 10;
+        gbc.gridwidth = 2;
+        gbc.weightx = 0.0;
+        statusLabel = new JLabel("Status: Not Monitoring", SwingConstants.CENTER);
+        statusLabel.setForeground(Color.RED);
+        statusLabel.setFont(new Font("Arial", Font.BOLD, 12));
+        panel.add(statusLabel, gbc);
+        
+        // Time Range Status Display
+        gbc.gridx = 0; gbc.gridy = 11;
+        gbc.gridwidth = 2;
+        gbc.weightx = 0.0;
+        timeRangeStatusLabel = new JLabel("Time Range Status: Not Active", SwingConstants.CENTER);
+        timeRangeStatusLabel.setForeground(Color.GRAY);
+        timeRangeStatusLabel.setFont(new Font("Arial", Font.BOLD, 12));
+        panel.add(timeRangeStatusLabel, gbc);
+        
+        // Show the current state now and keep it current from the dashboard's frames
+        dashboard.start();
+        
+        // Buttons in Column
+        JPanel buttonPanel = new JPanel(new GridLayout(0, 1, 5, 5));
+        buttonPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
+        
+        JButton testButton = new JButton("Test");
+        testButton.addActionListener(e -> saveConfig().thenRun(this::testTelegram));
+        buttonPanel.add(testButton);
+        
+        JButton sendButton = new JButton("Send Message");
+        sendButton.addActionListener(e -> {
+            CompletableFuture<Boolean> saved = saveConfig();
+            String message = JOptionPane.showInputDialog(panel, "Enter message to send:");
+            if (message != null && !message.trim().isEmpty()) {
+                saved.thenRun(() -> sendMessage(message.trim()));
+            }
+        });
+        buttonPanel.add(sendButton);
+        
+        JButton startButton = new JButton("Start Monitor");
+        startButton.addActionListener(e -> saveConfig().thenRun(this::startMonitoring));
+        buttonPanel.add(startButton);
+        
+        JButton stopButton = new JButton("Stop Monitor");
+        stopButton.addActionListener(e -> saveConfig().thenRun(this::stopMonitoring));
+        buttonPanel.add(stopButton);
+        
+        gbc.gridx = 0; gbc.gridy = 12;
+        gbc.gridwidth = 2;
+        gbc.weightx = 0.0;
+        panel.add(buttonPanel, gbc);
+        
+        velox.gui.StrategyPanel strategyPanel = new velox.gui.StrategyPanel("Telegram Settings", true);
+        strategyPanel.add(panel);
+        return new velox.gui.StrategyPanel[] { strategyPanel };
+    }
+    
+    public void setTelegramConfig(String botToken, String chatId) {
+        applied(chart.updateSettings(c -> c.withTelegram(botToken, chatId))).thenAccept(ok -> {
+            if (ok) {
+                log.info("Telegram config set - Bot: {}...", botToken.substring(0, Math.min(10, botToken.length())));
+                log.info("Chat ID: {}", chatId);
+            }
+        });
+    }
+    
+    public void setTimeout(int seconds) {
+        applied(chart.updateSettings(c -> c.withTimeoutSeconds(seconds))).thenAccept(ok -> {
+            if (ok) {
+                log.info("Timeout set to: {} seconds", seconds);
+            }
+        });
+    }
+    
+    @Override
+    public void onSettingsChanged(PanelSettings settings) {
+        updateFields(settings);
+    }
+    
+    @Override
+    public void onTimeRangeChanged(boolean inRange) {
+        // Shown by the dashboard's next frame
+    }
+    
+    private void updateFields(PanelSettings current) {
+        if (botTokenField == null) {
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            setTextIfChanged(botTokenField, current.botToken());
+            setTextIfChanged(chatIdField, current.chatId());
+            setTextIfChanged(timeoutField, String.valueOf(current.timeoutSeconds()));
+            setTextIfChanged(periodicField, String.valueOf(current.periodicSeconds()));
+            setTextIfChanged(rateDropField, String.valueOf(current.rateDropPercent()));
+            setTextIfChanged(startTimeField, current.startTime());
+            setTextIfChanged(endTimeField, current.endTime());
+            if (timeRangeEnabledCheckBox.isSelected() != current.timeRangeEnabled()) {
+                timeRangeEnabledCheckBox.setSelected(current.timeRangeEnabled());
+            }
+            if (startDayComboBox.getSelectedIndex() != current.startDayOfWeek().getValue() - 1) {
+                startDayComboBox.setSelectedIndex(current.startDayOfWeek().getValue() - 1);
+            }
+            if (endDayComboBox.getSelectedIndex() != current.endDayOfWeek().getValue() - 1) {
+                endDayComboBox.setSelectedIndex(current.endDayOfWeek().getValue() - 1);
+            }
+        });
+    }
+    
+    private static void setTextIfChanged(JTextField field, String text) {
+        if (!field.getText().trim().equals(text)) {
+            field.setText(text);
+        }
+    }
+    
+    private CompletableFuture<Boolean> saveConfig() {
+        int timeoutSeconds = parseField(timeoutField, 30);
+        int periodicSeconds = parseField(periodicField, 0);
+        int rateDropPercent = parseField(rateDropField, 0);
+        String startTime = startTimeField.getText().trim();
+        String endTime = endTimeField.getText().trim();
+        
+        // Validate time format
+        if (!PanelSettings.isValidTime(startTime) || !PanelSettings.isValidTime(endTime)) {
+            startTime = "09:00";
+            endTime = "17:00";
+            startTimeField.setText(startTime);
+            endTimeField.setText(endTime);
+            log.warn("⚠️ Invalid time format, reset to default: {} - {}", startTime, endTime);
+        }
+        
+        PanelSettings next = new PanelSettings(
+                botTokenField.getText().trim(),
+                chatIdField.getText().trim(),
+                timeoutSeconds,
+                periodicSeconds,
+                rateDropPercent,
+                timeRangeEnabledCheckBox.isSelected(),
+                DayOfWeek.of(startDayComboBox.getSelectedIndex() + 1),
+                DayOfWeek.of(endDayComboBox.getSelectedIndex() + 1),
+                startTime,
+                endTime);
+        return applied(chart.saveSettings(next));
+    }
+    
+    /**
+     * Settings change on an engine thread, never the EDT. Completes with false,
+     * after showing why and restoring the fields, if the engine refused the change.
+     */
+    private CompletableFuture<Boolean> applied(CompletableFuture<Void> change) {
+        return change.handle((done, e) -> {
+            if (e == null) {
+                return true;
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            showSettingsError(String.valueOf(cause.getMessage()));
+            updateFields(chart.settings());
+            return false;
+        });
+    }
+    
+    private void showSettingsError(String message) {
+        log.error("❌ Settings not saved: {}", message);
+        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, message,
+            "Invalid Settings", JOptionPane.ERROR_MESSAGE));
+    }
+    
+    private static int parseField(JTextField field, int fallback) {
+        try {
+            return Integer.parseInt(field.getText().trim());
+        } catch (NumberFormatException ex) {
+            field.setText(String.valueOf(fallback));
+            return fallback;
+        }
+    }
+    
+    public void testTelegram() {
+        sendMessage("Test message from Simple Telegram Notifier");
+    }
+    
+    public boolean isTimeRangeActive() {
+        return chart.settings().timeRangeEnabled() && chart.isInTimeRange();
+    }
+    
+    public String getTimeRangeStatus() {
+        if (!chart.settings().timeRangeEnabled()) {
+            return "Time Range: Disabled";
+        }
+        String windows = chart.describeTimeRange();
+        return chart.isInTimeRange() ? 
+            "Time Range: IN RANGE (" + windows + ")" :
+            "Time Range: OUT OF RANGE (" + windows + ")";
+    }
+    
+    public void sendMessage(String message) {
+        chart.send(message);
+    }
+    
+    @Override
+    public void finish() {
+        stopMonitoring();
+        if (dashboard != null) {
+            StatusDashboard stopping = dashboard;
+            SwingUtilities.invokeLater(stopping::stop);
+        }
+        ListenableHelper.removeListeners(provider, this);
+        chart.close();
+    }
+}
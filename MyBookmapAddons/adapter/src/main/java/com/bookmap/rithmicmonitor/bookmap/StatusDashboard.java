@@ -0,0 +1,298 @@
+package com.bookmap.rithmicmonitor.bookmap;
+
+import com.bookmap.rithmicmonitor.AlertType;
+import com.bookmap.rithmicmonitor.FeedStatus;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Live table of every alias a chart's {@link FeedStatus} reports: last-seen age,
+ * event rate, state and last alert.
+ *
+ * Nothing is pushed to the EDT when the feed changes. One Swing timer ticks
+ * at {@link #FRAME_MS}, appends rows for new aliases and marks only the rows
+ * in view as updated; the table then asks the model for just the cells it
+ * paints, and the model reads them straight from the status view. A
+ * frame therefore costs the same with ten aliases or a thousand, and nothing
+ * at all while the panel is hidden. The same tick runs {@code onFrame}, which
+ * the notifier uses for its status labels.
+ */
+final class StatusDashboard {
+
+    static final int FRAME_MS = 250;
+    /** A row's rate is recomputed once this much time has passed since its last sample. */
+    static final long RATE_WINDOW_MS = 1000;
+
+    private static final DateTimeFormatter ALERT_TIME = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final Color LIVE = new Color(0, 150, 0);
+    private static final Color DEGRADED = new Color(230, 140, 0);
+
+    private final Model model;
+    private final JTable table;
+    private final JScrollPane scrollPane;
+    private final Runnable onFrame;
+    private final Timer timer;
+
+    StatusDashboard(FeedStatus status, Runnable onFrame) {
+        this.model = new Model(status);
+        this.onFrame = onFrame;
+        this.table = new JTable(model);
+        table.setFillsViewportHeight(true);
+        table.setRowSelectionAllowed(false);
+        table.getTableHeader().setReorderingAllowed(false);
+        table.getColumnModel().getColumn(Model.STATE).setCellRenderer(new StateRenderer());
+        this.scrollPane = new JScrollPane(table);
+        scrollPane.setPreferredSize(new Dimension(420, 160));
+        scrollPane.setBorder(BorderFactory.createTitledBorder("Instruments"));
+        this.timer = new Timer(FRAME_MS, e -> frame());
+        timer.setCoalesce(true);
+    }
+
+    JComponent component() {
+        return scrollPane;
+    }
+
+    void start() {
+        frame();
+        timer.start();
+    }
+
+    void stop() {
+        timer.stop();
+    }
+
+    private void frame() {
+        if (!scrollPane.isShowing()) {
+            return;
+        }
+        onFrame.run();
+        model.addNewRows();
+        int rows = model.getRowCount();
+        if (rows == 0) {
+            return;
+        }
+        Rectangle visible = table.getVisibleRect();
+        int first = table.rowAtPoint(visible.getLocation());
+        int last = table.rowAtPoint(new Point(visible.x, visible.y + visible.height - 1));
+        model.fireTableRowsUpdated(first < 0 ? 0 : first, last < 0 ? rows - 1 : last);
+    }
+
+    /** Rows are the status view's rows; values are computed on demand. EDT only. */
+    static final class Model extends AbstractTableModel {
+
+        static final int ALIAS = 0;
+        static final int LAST_SEEN = 1;
+        static final int RATE = 2;
+        static final int STATE = 3;
+        static final int LAST_ALERT = 4;
+        private static final String[] COLUMNS = {"Alias", "Last seen", "Rate /s", "State", "Last alert"};
+
+        private final FeedStatus status;
+        private int rows;
+        // per-row rate sample, taken lazily when the row is painted
+        private long[] sampledCount = new long[0];
+        private long[] sampledAt = new long[0];
+        private double[] rate = new double[0];
+
+        Model(FeedStatus status) {
+            this.status = status;
+        }
+
+        void addNewRows() {
+            int size = status.size();
+            if (size <= rows) {
+                return;
+            }
+            if (size > rate.length) {
+                int capacity = Math.max(size, rate.length * 2);
+                sampledCount = Arrays.copyOf(sampledCount, capacity);
+                sampledAt = Arrays.copyOf(sampledAt, capacity);
+                rate = Arrays.copyOf(rate, capacity);
+            }
+            int first = rows;
+            rows = size;
+            fireTableRowsInserted(first, size - 1);
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int slot, int column) {
+            long now = status.now();
+            switch (column) {
+                case ALIAS:
+                    return status.alias(slot);
+                case LAST_SEEN:
+                    long seen = status.lastSeen(slot);
+                    return seen == FeedStatus.NEVER ? "never" : age(now - seen);
+                case RATE:
+                    return String.format("%.1f", rate(slot, now));
+                case STATE:
+                    return state(slot, now);
+                case LAST_ALERT:
+                    return lastAlert(slot);
+                default:
+                    return "";
+            }
+        }
+
+        private double rate(int slot, long now) {
+            long count = status.eventCount(slot);
+            if (sampledAt[slot] == 0) {
+                sampledAt[slot] = now;
+                sampledCount[slot] = count;
+            } else if (now - sampledAt[slot] >= RATE_WINDOW_MS) {
+                rate[slot] = (count - sampledCount[slot]) * 1000.0 / (now - sampledAt[slot]);
+                sampledAt[slot] = now;
+                sampledCount[slot] = count;
+            }
+            return rate[slot];
+        }
+
+        String state(int slot, long now) {
+            if (status.isRemoved(slot)) {
+                return "Removed";
+            }
+            if (!status.isRunning()) {
+                return "Stopped";
+            }
+            if (status.isDisconnected()) {
+                return "Disconnected";
+            }
+            long seen = status.lastSeen(slot);
+            if (seen != FeedStatus.NEVER && now - seen >= status.timeoutMs(slot)) {
+                return "Silent";
+            }
+            AlertType alert = status.alertType(slot);
+            if (alert != null) {
+                switch (alert) {
+                    case RATE_DEGRADED:
+                        return "Degraded";
+                    case BOOK_CROSSED:
+                        return "Crossed";
+                    case BOOK_FROZEN:
+                        return "Frozen";
+                    case BOOK_WIDE:
+                        return "Wide spread";
+                    case VOLUME_BURST:
+                        return "Volume burst";
+                    case VOLUME_DROUGHT:
+                        return "Volume drought";
+                    default:
+                        break;
+                }
+            }
+            return seen == FeedStatus.NEVER ? "Waiting" : "Live";
+        }
+
+        private String lastAlert(int slot) {
+            AlertType alert = status.alertType(slot);
+            if (alert == null) {
+                return "";
+            }
+            String what;
+            switch (alert) {
+                case GAP_START:
+                    what = "No data";
+                    break;
+                case GAP_SUPPRESSED:
+                    what = "No data (off hours)";
+                    break;
+                case GAP_END:
+                    what = "Resumed";
+                    break;
+                case RATE_DEGRADED:
+                    what = "Rate low";
+                    break;
+                case RATE_RECOVERED:
+                    what = "Rate recovered";
+                    break;
+                case BOOK_CROSSED:
+                    what = "Book crossed";
+                    break;
+                case BOOK_FROZEN:
+                    what = "Book frozen";
+                    break;
+                case BOOK_WIDE:
+                    what = "Spread wide";
+                    break;
+                case BOOK_OK:
+                    what = "Book normal";
+                    break;
+                case VOLUME_BURST:
+                    what = "Volume burst";
+                    break;
+                case VOLUME_DROUGHT:
+                    what = "Volume drought";
+                    break;
+                case VOLUME_NORMAL:
+                    what = "Volume normal";
+                    break;
+                default:
+                    return "";
+            }
+            return what + " at " + ALERT_TIME.format(Instant.ofEpochMilli(status.alertTime(slot)).atZone(ZoneId.systemDefault()));
+        }
+
+        static String age(long ms) {
+            if (ms < 10_000) {
+                return String.format("%.1f s", ms / 1000.0);
+            }
+            if (ms < 120_000) {
+                return ms / 1000 + " s";
+            }
+            if (ms < 7_200_000) {
+                return ms / 60_000 + " min";
+            }
+            return ms / 3_600_000 + " h";
+        }
+    }
+
+    private static final class StateRenderer extends DefaultTableCellRenderer {
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                boolean hasFocus, int row, int column) {
+            super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+            switch (String.valueOf(value)) {
+                case "Live":
+                    setForeground(LIVE);
+                    break;
+                case "Silent":
+                case "Disconnected":
+                case "Crossed":
+                case "Frozen":
+                    setForeground(Color.RED);
+                    break;
+                case "Degraded":
+                case "Wide spread":
+                case "Volume burst":
+                case "Volume drought":
+                    setForeground(DEGRADED);
+                    break;
+                default:
+                    setForeground(Color.GRAY);
+            }
+            return this;
+        }
+    }
+}
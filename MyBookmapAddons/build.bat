@@ -24,7 +24,7 @@ if errorlevel 1 (
 
 echo.
 echo Build successful!
-echo JAR file created at: build\libs\bm-rithmic-connection-monitor.jar
+echo JAR file created at: adapter\build\libs\simple-telegram-notifier.jar
 echo.
 echo To install in Bookmap:
 echo 1. Copy the JAR file to a convenient location
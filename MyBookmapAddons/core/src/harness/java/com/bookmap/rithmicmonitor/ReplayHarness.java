@@ -0,0 +1,337 @@
+package com.bookmap.rithmicmonitor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Replays synthetic or recorded feeds through a {@link FeedMonitor} on
+ * virtual time and reports how it did.
+ *
+ * The monitor runs on a manual clock and a {@link VirtualScheduler}, and its
+ * alert digests go to an in-memory stand-in for Telegram instead of the
+ * network, so an hour of feed replays in about a second and every run of a
+ * scenario gives the same result. The report shows detection latency (from
+ * the last event before a gap to the alert reaching the stand-in), outages
+ * that were missed, false "No data" alerts outside any outage, and throughput
+ * in events per wall-clock second including the monitor's own ticks.
+ * Scenarios marked adaptive run with learned per-alias timeouts, and only
+ * count alerts after their learning period.
+ *
+ * <pre>
+ * gradle replay                                       # built-in scenarios
+ * gradle replay -PreplayArgs="--recorded feed.csv"    # lines of epochMillis,alias[,depth|trade|mode]
+ * </pre>
+ */
+final class ReplayHarness {
+
+    /** An outage of one alias, or of every alias when {@code alias} is -1. */
+    record Outage(int alias, long startMs, long lengthMs) {
+
+        boolean covers(int index, long offsetMs) {
+            return (alias < 0 || alias == index) && offsetMs >= startMs && offsetMs < startMs + lengthMs;
+        }
+    }
+
+    record Scenario(String name, int aliases, double eventsPerSecond, long durationMs, List<Outage> outages,
+                    boolean adaptive, long measureFromMs) {
+
+        Scenario(String name, int aliases, double eventsPerSecond, long durationMs, List<Outage> outages) {
+            this(name, aliases, eventsPerSecond, durationMs, outages, false, 0);
+        }
+    }
+
+    record Alert(long time, String text) {
+    }
+
+    /** Virtual start time: Monday 2026-01-05 14:00 UTC. */
+    static final long START = 1_767_621_600_000L;
+    static final int TIMEOUT_SECONDS = 30;
+    static final int PERIODIC_SECONDS = 60;
+
+    private static final long MINUTE = 60_000;
+    private static final long HOUR = 60 * MINUTE;
+    private static final int INDEX_BITS = 20;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+    private final CoarseClock clock = CoarseClock.manual(START);
+    private final VirtualScheduler scheduler = new VirtualScheduler(clock);
+    private final List<Alert> telegram = new ArrayList<>();
+    private final FeedMonitor monitor;
+
+    ReplayHarness(boolean adaptive) {
+        NotifierConfig config = NotifierConfig.defaults().withPanel("", "", TIMEOUT_SECONDS, PERIODIC_SECONDS, 0,
+                false, DayOfWeek.MONDAY, DayOfWeek.FRIDAY, "09:00", "17:00").toBuilder()
+                .adaptiveTimeout(adaptive).minTimeoutSeconds(5).maxTimeoutSeconds(600).build();
+        AlertAggregator alerts = new AlertAggregator(scheduler, (text, repeatKey) -> telegram.add(new Alert(clock.millis(), text)),
+                config.alertWindowMs());
+        monitor = new FeedMonitor(scheduler, clock, alerts, OutageJournal.disabled(), new FeedMonitor.Host() {
+            @Override
+            public NotifierConfig config() {
+                return config;
+            }
+
+            @Override
+            public boolean isWithinTimeRange() {
+                return true;
+            }
+        });
+    }
+
+    public static void main(String[] args) throws IOException {
+        AsyncLog.get().setConsole(false);
+        AsyncLog.get().setLevel(AsyncLog.Level.ERROR);
+
+        if (args.length == 2 && args[0].equals("--recorded")) {
+            new ReplayHarness(false).replayRecorded(Path.of(args[1]));
+            return;
+        }
+        System.out.printf("%-18s %8s %7s %6s %6s %9s %9s %9s %12s %8s%n", "scenario", "events", "alerts",
+                "missed", "false", "lat.min", "lat.avg", "lat.max", "events/s", "speedup");
+        for (Scenario scenario : scenarios()) {
+            new ReplayHarness(scenario.adaptive()).replay(scenario, 42);
+        }
+    }
+
+    static List<Scenario> scenarios() {
+        return List.of(
+                new Scenario("steady", 20, 50, HOUR, List.of()),
+                new Scenario("gateway-drop", 20, 50, HOUR, List.of(new Outage(-1, 20 * MINUTE, 3 * MINUTE))),
+                new Scenario("one-instrument", 20, 50, HOUR, List.of(new Outage(7, 30 * MINUTE, 2 * MINUTE))),
+                new Scenario("flapping", 20, 50, HOUR, flapping()),
+                new Scenario("thin-overnight", 5, 0.05, 2 * HOUR, List.of()),
+                new Scenario("many-instruments", 1000, 5, HOUR, List.of(new Outage(-1, 40 * MINUTE, 5 * MINUTE))),
+                // a day to learn, then the same thin session and gateway drop as above
+                new Scenario("thin-adaptive", 5, 0.05, 26 * HOUR, List.of(), true, 24 * HOUR),
+                new Scenario("gateway-adaptive", 20, 50, HOUR, List.of(new Outage(-1, 20 * MINUTE, 3 * MINUTE)), true, 10 * MINUTE));
+    }
+
+    /** Gaps of 25 s every 5 minutes, each just under the timeout. */
+    private static List<Outage> flapping() {
+        List<Outage> outages = new ArrayList<>();
+        for (long at = 5 * MINUTE; at < HOUR; at += 5 * MINUTE) {
+            outages.add(new Outage(-1, at, 25_000));
+        }
+        return outages;
+    }
+
+    void replay(Scenario scenario, long seed) {
+        Random random = new Random(seed);
+        int n = scenario.aliases();
+        String[] names = new String[n];
+        long[] lastEvent = new long[n];
+        double meanGapMs = 1000 / scenario.eventsPerSecond();
+        // Min-heap of (offset from START << INDEX_BITS | alias), so the next event is always on top
+        long[] heap = new long[n];
+        for (int i = 0; i < n; i++) {
+            names[i] = "INSTR" + i + "@SIM";
+            heap[i] = (long) (-Math.log(1 - random.nextDouble()) * meanGapMs) << INDEX_BITS | i;
+        }
+        Arrays.sort(heap);
+        // Expected outage start per alias and outage, to measure detection from
+        long[][] stoppedAt = new long[scenario.outages().size()][n];
+
+        long end = START + scenario.durationMs();
+        long events = 0;
+        monitor.start();
+        long wallStart = System.nanoTime();
+        while (true) {
+            int i = (int) (heap[0] & INDEX_MASK);
+            long t = START + (heap[0] >>> INDEX_BITS);
+            if (t >= end) {
+                break;
+            }
+            scheduler.advanceTo(t);
+            boolean down = false;
+            for (int o = 0; o < scenario.outages().size(); o++) {
+                if (scenario.outages().get(o).covers(i, t - START)) {
+                    down = true;
+                    if (stoppedAt[o][i] == 0) {
+                        stoppedAt[o][i] = lastEvent[i] == 0 ? t : lastEvent[i];
+                    }
+                }
+            }
+            if (!down) {
+                monitor.onData(names[i]);
+                lastEvent[i] = t;
+                events++;
+            }
+            long nextOffset = t - START + 1 + (long) (-Math.log(1 - random.nextDouble()) * meanGapMs);
+            replaceTop(heap, nextOffset << INDEX_BITS | i);
+        }
+        scheduler.advanceTo(end);
+        monitor.stop();
+        scheduler.advanceTo(end + MINUTE);
+        long wallNanos = System.nanoTime() - wallStart;
+
+        report(scenario, names, stoppedAt, events, wallNanos);
+    }
+
+    private static void replaceTop(long[] heap, long value) {
+        int at = 0;
+        while (true) {
+            int child = 2 * at + 1;
+            if (child >= heap.length) {
+                break;
+            }
+            if (child + 1 < heap.length && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= value) {
+                break;
+            }
+            heap[at] = heap[child];
+            at = child;
+        }
+        heap[at] = value;
+    }
+
+    private void report(Scenario scenario, String[] names, long[][] stoppedAt, long events, long wallNanos) {
+        long latencySum = 0;
+        long latencyMin = Long.MAX_VALUE;
+        long latencyMax = 0;
+        int detected = 0;
+        int missed = 0;
+        int falseAlerts = 0;
+
+        for (int o = 0; o < scenario.outages().size(); o++) {
+            Outage outage = scenario.outages().get(o);
+            for (int i = 0; i < names.length; i++) {
+                if (stoppedAt[o][i] == 0 || outage.lengthMs() <= TIMEOUT_SECONDS * 1000L) {
+                    continue;
+                }
+                long alertAt = firstSilenceAlert(names[i], START + outage.startMs(), START + outage.startMs() + outage.lengthMs());
+                if (alertAt < 0) {
+                    missed++;
+                    continue;
+                }
+                long latency = alertAt - stoppedAt[o][i];
+                latencySum += latency;
+                latencyMin = Math.min(latencyMin, latency);
+                latencyMax = Math.max(latencyMax, latency);
+                detected++;
+            }
+        }
+        int alerts = 0;
+        for (Alert alert : telegram) {
+            if (alert.time() < START + scenario.measureFromMs()) {
+                continue;
+            }
+            alerts++;
+            for (String alias : silentAliases(alert.text())) {
+                int index = indexOf(names, alias);
+                if (index >= 0 && !inOutage(scenario, index, alert.time())) {
+                    falseAlerts++;
+                }
+            }
+        }
+
+        double wallSeconds = wallNanos / 1e9;
+        System.out.printf("%-18s %8d %7d %6d %6d %9s %9s %9s %12.0f %7.0fx%n", scenario.name(), events, alerts,
+                missed, falseAlerts,
+                detected == 0 ? "-" : seconds(latencyMin),
+                detected == 0 ? "-" : seconds(latencySum / detected),
+                detected == 0 ? "-" : seconds(latencyMax),
+                events / wallSeconds, scenario.durationMs() / 1000.0 / wallSeconds);
+    }
+
+    /** An alert is expected from the moment the feed stops until a little after it resumes. */
+    private static boolean inOutage(Scenario scenario, int index, long time) {
+        for (Outage outage : scenario.outages()) {
+            long from = START + outage.startMs();
+            long to = from + outage.lengthMs() + FeedMonitor.TICK_MS + 2 * NotifierConfig.defaults().alertWindowMs();
+            if ((outage.alias() < 0 || outage.alias() == index) && time >= from && time <= to) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long firstSilenceAlert(String alias, long from, long to) {
+        for (Alert alert : telegram) {
+            if (alert.time() >= from && alert.time() <= to + 2 * NotifierConfig.defaults().alertWindowMs()
+                    && silentAliases(alert.text()).contains(alias)) {
+                return alert.time();
+            }
+        }
+        return -1;
+    }
+
+    /** Aliases named by the "No data for A, B after N seconds" lines of a digest. */
+    static List<String> silentAliases(String digest) {
+        List<String> aliases = new ArrayList<>();
+        for (String line : digest.split("\n")) {
+            if (line.startsWith("No data for ")) {
+                int after = line.lastIndexOf(" after ");
+                aliases.addAll(List.of(line.substring("No data for ".length(), after).split(", ")));
+            }
+        }
+        return aliases;
+    }
+
+    private static int indexOf(String[] names, String alias) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(alias)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String seconds(long millis) {
+        return String.format("%.1fs", millis / 1000.0);
+    }
+
+    /** Replays {@code epochMillis,alias[,depth|trade|mode]} lines, which must be in time order. */
+    void replayRecorded(Path file) throws IOException {
+        long events = 0;
+        long first = -1;
+        long last = -1;
+        long wallStart = System.nanoTime();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                if (fields.length < 2 || !Character.isDigit(fields[0].charAt(0))) {
+                    continue;
+                }
+                long t = Long.parseLong(fields[0].trim());
+                if (first < 0) {
+                    first = t;
+                    clock.set(t);
+                    monitor.start();
+                }
+                scheduler.advanceTo(t);
+                String alias = fields[1].trim();
+                if (fields.length > 2 && fields[2].trim().equals("mode")) {
+                    monitor.touch(alias);
+                } else {
+                    monitor.onData(alias);
+                }
+                last = t;
+                events++;
+            }
+        }
+        if (first < 0) {
+            System.out.println("No events in " + file);
+            return;
+        }
+        scheduler.advanceTo(last + TIMEOUT_SECONDS * 1000L);
+        monitor.stop();
+        scheduler.advanceTo(last + TIMEOUT_SECONDS * 1000L + MINUTE);
+        double wallSeconds = (System.nanoTime() - wallStart) / 1e9;
+
+        for (Alert alert : telegram) {
+            System.out.printf("+%8.1fs  %s%n", (alert.time() - first) / 1000.0, alert.text().replace("\n", " | "));
+        }
+        System.out.printf("%d events over %.0fs, %d alerts, %.0f events/s, %.0fx real time%n", events,
+                (last - first) / 1000.0, telegram.size(), events / wallSeconds, (last - first) / 1000.0 / wallSeconds);
+    }
+}
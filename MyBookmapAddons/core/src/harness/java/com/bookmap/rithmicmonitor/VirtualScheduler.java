@@ -0,0 +1,173 @@
+package com.bookmap.rithmicmonitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link ScheduledExecutorService} that runs on a manual {@link CoarseClock}
+ * instead of wall time.
+ *
+ * Nothing runs until the driver calls {@link #advanceTo(long)}, which executes
+ * every task due by then in time order, setting the clock to each task's due
+ * time first. Periodic tasks keep their fixed rate in virtual time. Not thread
+ * safe: scheduling and advancing must happen on the driver thread, which is
+ * also where every task runs.
+ */
+final class VirtualScheduler extends AbstractExecutorService implements ScheduledExecutorService {
+
+    private final CoarseClock clock;
+    private final PriorityQueue<Task<?>> queue = new PriorityQueue<>();
+    private long sequence;
+    private boolean shutdown;
+
+    private final class Task<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+        private final long sequenceNumber = sequence++;
+        // > 0 fixed rate, < 0 fixed delay, 0 one-shot
+        private final long periodMs;
+        private long time;
+
+        Task(Callable<V> callable, long time) {
+            super(callable);
+            this.time = time;
+            this.periodMs = 0;
+        }
+
+        Task(Runnable runnable, long time, long periodMs) {
+            super(runnable, null);
+            this.time = time;
+            this.periodMs = periodMs;
+        }
+
+        @Override
+        public boolean isPeriodic() {
+            return periodMs != 0;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(time - clock.millis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof Task<?> task) {
+                int byTime = Long.compare(time, task.time);
+                return byTime != 0 ? byTime : Long.compare(sequenceNumber, task.sequenceNumber);
+            }
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+
+        @Override
+        public void run() {
+            if (!isPeriodic()) {
+                super.run();
+            } else if (runAndReset() && !shutdown) {
+                time = periodMs > 0 ? time + periodMs : clock.millis() - periodMs;
+                queue.add(this);
+            }
+        }
+    }
+
+    VirtualScheduler(CoarseClock clock) {
+        this.clock = clock;
+    }
+
+    long now() {
+        return clock.millis();
+    }
+
+    /** Runs every task due up to {@code time}, then leaves the clock at {@code time}. */
+    void advanceTo(long time) {
+        Task<?> task;
+        while ((task = queue.peek()) != null && task.time <= time) {
+            queue.poll();
+            if (task.isCancelled()) {
+                continue;
+            }
+            if (task.time > clock.millis()) {
+                clock.set(task.time);
+            }
+            task.run();
+        }
+        if (time > clock.millis()) {
+            clock.set(time);
+        }
+    }
+
+    int pendingTasks() {
+        queue.removeIf(Task::isCancelled);
+        return queue.size();
+    }
+
+    private <V> Task<V> enqueue(Task<V> task) {
+        if (shutdown) {
+            task.cancel(false);
+        } else {
+            queue.add(task);
+        }
+        return task;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        schedule(command, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        return enqueue(new Task<>(Executors.callable(command), clock.millis() + unit.toMillis(delay)));
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        return enqueue(new Task<>(callable, clock.millis() + unit.toMillis(delay)));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        return enqueue(new Task<>(command, clock.millis() + unit.toMillis(initialDelay), Math.max(1, unit.toMillis(period))));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        return enqueue(new Task<>(command, clock.millis() + unit.toMillis(initialDelay), -Math.max(1, unit.toMillis(delay))));
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        List<Runnable> pending = new ArrayList<>(queue);
+        queue.clear();
+        return pending;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+        return true;
+    }
+}
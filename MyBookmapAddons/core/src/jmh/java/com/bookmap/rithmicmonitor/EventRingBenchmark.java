@@ -0,0 +1,151 @@
+package com.bookmap.rithmicmonitor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Per-event cost on Bookmap's data thread once the callbacks only publish
+ * into the shared {@link FeedEvents} ring: resolving the alias, reading the
+ * clock, claiming a sequence and copying the event in. {@code publish} runs
+ * against the ring's two consumers, spinning so the ring never fills;
+ * {@code publishContended} does the same from four threads at once, as
+ * charts on separate data threads would; {@code publishDropped} runs against
+ * a consumer that never catches up, so every event takes the drop path.
+ * Compare with {@link ListenerBenchmark}, which does the same work inline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventRingBenchmark {
+
+    private static final EventRing.Handler IGNORE = new EventRing.Handler() {
+        @Override
+        public void onDepth(int source, int slot, boolean isBid, int price, int size, long time) {
+        }
+
+        @Override
+        public void onTrade(int source, int slot, double price, int size, long time) {
+        }
+
+        @Override
+        public void onMarketMode(int source, int slot, long time) {
+        }
+    };
+
+    @State(Scope.Benchmark)
+    public static class Feed {
+        @Param({"1", "256"})
+        int aliases;
+
+        CoarseClock clock;
+        LivenessTracker liveness;
+        String[] names;
+        int mask;
+
+        @Setup
+        public void setUp() {
+            clock = new CoarseClock(10);
+            liveness = new LivenessTracker(clock);
+            names = new String[aliases];
+            for (int i = 0; i < aliases; i++) {
+                names[i] = "INSTR" + i + "@RITHMIC";
+                liveness.touch(names[i]);
+            }
+            mask = Integer.highestOneBit(aliases) - 1;
+        }
+
+        @TearDown
+        public void tearDown() {
+            clock.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Drained {
+        EventRing ring;
+
+        @Setup
+        public void setUp() {
+            ring = new EventRing(FeedEvents.CAPACITY, EventRing.WaitStrategy.SPIN, "bench-drained", IGNORE, IGNORE);
+        }
+
+        @TearDown
+        public void tearDown() {
+            ring.close(FeedEvents.CLOSE_TIMEOUT_MS);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Stalled {
+        EventRing ring;
+        volatile boolean released;
+
+        @Setup
+        public void setUp() {
+            EventRing.Handler stuck = new EventRing.Handler() {
+                @Override
+                public void onDepth(int source, int slot, boolean isBid, int price, int size, long time) {
+                    while (!released) {
+                        LockSupport.parkNanos(1_000_000);
+                    }
+                }
+
+                @Override
+                public void onTrade(int source, int slot, double price, int size, long time) {
+                }
+
+                @Override
+                public void onMarketMode(int source, int slot, long time) {
+                }
+            };
+            ring = new EventRing(1024, EventRing.WaitStrategy.PARK, "bench-stalled", stuck);
+        }
+
+        @TearDown
+        public void tearDown() {
+            released = true;
+            ring.close(FeedEvents.CLOSE_TIMEOUT_MS);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private static final AtomicInteger SOURCES = new AtomicInteger();
+
+        final int source = SOURCES.getAndIncrement() & (EventRing.MAX_SOURCES - 1);
+        int next;
+    }
+
+    @Benchmark
+    public boolean publish(Feed feed, Drained drained, Cursor cursor) {
+        int i = cursor.next++;
+        return drained.ring.publishDepth(0, feed.liveness.slotOf(feed.names[i & feed.mask]), (i & 1) == 0,
+                10_000 + (i & 15), i & 7, feed.clock.millis());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean publishContended(Feed feed, Drained drained, Cursor cursor) {
+        int i = cursor.next++;
+        return drained.ring.publishDepth(cursor.source, feed.liveness.slotOf(feed.names[i & feed.mask]), (i & 1) == 0,
+                10_000 + (i & 15), i & 7, feed.clock.millis());
+    }
+
+    @Benchmark
+    public boolean publishDropped(Feed feed, Stalled stalled, Cursor cursor) {
+        int i = cursor.next++;
+        return stalled.ring.publishDepth(0, feed.liveness.slotOf(feed.names[i & feed.mask]), (i & 1) == 0,
+                10_000 + (i & 15), i & 7, feed.clock.millis());
+    }
+}
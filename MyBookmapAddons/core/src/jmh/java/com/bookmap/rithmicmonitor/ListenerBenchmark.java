@@ -0,0 +1,121 @@
+package com.bookmap.rithmicmonitor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the work {@code onDepth}, {@code onTrade} and {@code onMarketMode}
+ * do on Bookmap's data thread, single-threaded and with several feed threads
+ * updating the same tracker.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ListenerBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Feed {
+        @Param({"1", "16", "256"})
+        int aliases;
+
+        CoarseClock clock;
+        LivenessTracker liveness;
+        EventRateStats rateStats;
+        OrderBook[] books;
+        VolumeWindows volume;
+        String[] names;
+        int mask;
+
+        @Setup
+        public void setUp() {
+            clock = new CoarseClock(10);
+            liveness = new LivenessTracker(clock);
+            rateStats = new EventRateStats(new EventRateStats.Listener() {
+                @Override
+                public void onRateDegraded(int slot, double rate, double baseline) {
+                }
+
+                @Override
+                public void onRateRecovered(int slot, double rate, double baseline) {
+                }
+            }, 10, 600, 0, 1.0);
+            volume = new VolumeWindows(new VolumeWindows.Listener() {
+                @Override
+                public void onVolumeBurst(int slot, double rate, double baseline) {
+                }
+
+                @Override
+                public void onVolumeDrought(int slot, double rate, double baseline) {
+                }
+
+                @Override
+                public void onVolumeNormal(int slot, double rate, double baseline) {
+                }
+            }, 0, 0);
+            names = new String[aliases];
+            books = new OrderBook[aliases];
+            for (int i = 0; i < aliases; i++) {
+                names[i] = "INSTR" + i + "@RITHMIC";
+                liveness.touch(names[i]);
+                books[i] = new OrderBook();
+            }
+            mask = Integer.highestOneBit(aliases) - 1;
+        }
+
+        @TearDown
+        public void tearDown() {
+            clock.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public void onDepth(Feed feed, Cursor cursor) {
+        feed.rateStats.record(feed.liveness.touch(feed.names[cursor.next++ & feed.mask]), feed.clock.millis());
+    }
+
+    /** Levels 16 ticks either side of the top, a quarter of them removals, so the best level keeps moving. */
+    @Benchmark
+    public void onDepthWithBook(Feed feed, Cursor cursor) {
+        int i = cursor.next++;
+        int slot = feed.liveness.touch(feed.names[i & feed.mask]);
+        long now = feed.clock.millis();
+        feed.rateStats.record(slot, now);
+        boolean isBid = (i & 1) == 0;
+        int offset = (i >>> 1) & 15;
+        feed.books[slot].onDepth(isBid, isBid ? 10_000 - offset : 10_001 + offset, (i >>> 5) & 3, now);
+    }
+
+    @Benchmark
+    public void onTrade(Feed feed, Cursor cursor) {
+        int i = cursor.next++;
+        int slot = feed.liveness.touch(feed.names[i & feed.mask]);
+        feed.rateStats.record(slot, feed.clock.millis());
+        feed.books[slot].onTrade(10_000 + (i & 3));
+        feed.volume.record(slot, 1 + (i & 7));
+    }
+
+    @Benchmark
+    public void onMarketMode(Feed feed, Cursor cursor) {
+        feed.liveness.touch(feed.names[cursor.next++ & feed.mask]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void onDepthContended(Feed feed, Cursor cursor) {
+        feed.rateStats.record(feed.liveness.touch(feed.names[cursor.next++ & feed.mask]), feed.clock.millis());
+    }
+}
@@ -0,0 +1,49 @@
+package com.bookmap.rithmicmonitor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.net.http.HttpRequest;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning an alert into a Telegram request: form-encoding the body
+ * and building the {@link HttpRequest} the sender thread posts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class MessageEncodingBenchmark {
+
+    @Param({"1", "20"})
+    int aliasesInDigest;
+
+    String text;
+
+    @Setup
+    public void setUp() {
+        StringJoiner aliases = new StringJoiner(", ");
+        for (int i = 0; i < aliasesInDigest; i++) {
+            aliases.add("ESZ4 " + i + "@RITHMIC");
+        }
+        text = "⚠️ No data for " + aliases + " after 30 seconds";
+    }
+
+    @Benchmark
+    public String formBody() {
+        return TelegramSender.formBody("123456789", text);
+    }
+
+    @Benchmark
+    public HttpRequest buildRequest() {
+        return TelegramSender.buildRequest(TelegramSender.TELEGRAM_API,
+                "123456789:ABCdefGHIjklMNOpqrsTUVwxyz", "123456789", text);
+    }
+}
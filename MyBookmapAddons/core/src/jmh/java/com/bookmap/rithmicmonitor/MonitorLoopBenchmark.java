@@ -0,0 +1,83 @@
+package com.bookmap.rithmicmonitor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one {@code checkDataTimeout} pass on the monitor thread with 10,
+ * 1,000 and 100,000 aliases, on a manual clock so results do not depend on
+ * wall time. {@code fullScan} is the old "any alias recent" sweep in its worst
+ * case, when nothing is recent and every alias is visited; {@code wheelTick}
+ * advances the timing wheel by one 100 ms tick while every alias keeps
+ * receiving data once every 10 s.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class MonitorLoopBenchmark {
+
+    private static final long TICK_MS = 100;
+    private static final long TIMEOUT_MS = 30_000;
+    private static final long REFRESH_TICKS = 100;
+
+    @Param({"10", "1000", "100000"})
+    int aliases;
+
+    CoarseClock clock;
+    LivenessTracker liveness;
+    TimeoutWheel wheel;
+    String[] names;
+    long now;
+    int refreshCursor;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        now = 1_000_000_000L;
+        clock = CoarseClock.manual(now);
+        liveness = new LivenessTracker(clock);
+        wheel = new TimeoutWheel(liveness, new TimeoutWheel.Listener() {
+            @Override
+            public void onSilent(int slot, long lastSeen, long at) {
+            }
+
+            @Override
+            public void onRecovered(int slot, long silentForMs, long at) {
+            }
+        }, TICK_MS, 512, 1000);
+        names = new String[aliases];
+        for (int i = 0; i < aliases; i++) {
+            names[i] = "INSTR" + i + "@RITHMIC";
+            liveness.touch(names[i]);
+        }
+        wheel.advance(now, TIMEOUT_MS);
+    }
+
+    @Benchmark
+    public boolean fullScan() {
+        return liveness.anyRecent(clock.millis() + 2 * TIMEOUT_MS, TIMEOUT_MS);
+    }
+
+    @Benchmark
+    public int wheelTick() {
+        now += TICK_MS;
+        clock.set(now);
+        int perTick = (int) Math.max(1, aliases / REFRESH_TICKS);
+        for (int i = 0; i < perTick; i++) {
+            liveness.touch(names[refreshCursor]);
+            if (++refreshCursor == aliases) {
+                refreshCursor = 0;
+            }
+        }
+        wheel.advance(now, TIMEOUT_MS);
+        return wheel.silentCount();
+    }
+}
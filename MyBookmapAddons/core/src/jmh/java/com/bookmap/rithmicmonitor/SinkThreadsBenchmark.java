@@ -0,0 +1,138 @@
+package com.bookmap.rithmicmonitor;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Alert delivery to a slow endpoint, on platform threads and on the
+ * runtime's {@link SinkThreads#preferred()} ones. Every sink is a
+ * {@link WebhookSink} behind its own {@link SinkChannel}, posting to a local
+ * server that answers after {@code delayMs}; one operation raises an alert on
+ * every sink and waits until all of them are delivered. After each iteration
+ * the platform threads serving the sinks (channel workers, their delivery
+ * calls and HTTP client threads) are printed next to the JVM's live thread
+ * count.
+ *
+ * {@code preferred} is virtual only on Java 21, so run with
+ * {@code -PjmhJvm=/path/to/jdk-21/bin/java}; on 17 both rows measure the same.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class SinkThreadsBenchmark {
+
+    static final String ALERT = "⚠️ No data for ESZ5@RITHMIC after 30 seconds";
+
+    @Param({"platform", "preferred"})
+    String threads;
+
+    @Param({"3", "100"})
+    int sinks;
+
+    @Param({"50"})
+    int delayMs;
+
+    HttpServer server;
+    ExecutorService endpoint;
+    SinkThreads sinkThreads;
+    SinkChannel[] channels;
+    final AtomicLong sent = new AtomicLong();
+    long expected;
+
+    @Setup
+    public void setUp() throws IOException {
+        endpoint = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "slow-endpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(endpoint);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+
+        URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/alerts");
+        sinkThreads = threads.equals("platform") ? SinkThreads.platform() : SinkThreads.preferred();
+        SinkChannel.Listener listener = new SinkChannel.Listener() {
+            @Override
+            public void onSent(String sink, String text, long latencyNanos) {
+                sent.incrementAndGet();
+            }
+        };
+        channels = new SinkChannel[sinks];
+        for (int i = 0; i < sinks; i++) {
+            channels[i] = new SinkChannel(new WebhookSink(uri, 5_000, sinkThreads), AlertOutbox.inMemory(64 * 1024),
+                    new CircuitBreaker(3, 5_000, 60_000), listener, sinkThreads);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void countThreads() {
+        int serving = 0;
+        // Lists platform threads only; virtual ones are not included
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            String name = thread.getName();
+            if (name.startsWith("SimpleTelegramNotifier-sink-") || name.startsWith("SimpleTelegramNotifier-deliver-")
+                    || name.startsWith("HttpClient-")) {
+                serving++;
+            }
+        }
+        System.out.printf("%n%s (%s) threads, %d sinks: %d platform threads serving the sinks, %d live in the JVM%n",
+                threads, sinkThreads.isVirtual() ? "virtual" : "platform", sinks, serving,
+                ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+
+    @TearDown
+    public void tearDown() {
+        // Stop them all first, so each one's idle wait runs out in parallel
+        for (SinkChannel channel : channels) {
+            channel.retire();
+        }
+        for (SinkChannel channel : channels) {
+            channel.close();
+        }
+        server.stop(0);
+        endpoint.shutdownNow();
+    }
+
+    @Benchmark
+    public long deliverToAll() {
+        long target = expected += sinks;
+        for (SinkChannel channel : channels) {
+            channel.offer(ALERT);
+        }
+        while (sent.get() < target) {
+            LockSupport.parkNanos(100_000);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,132 @@
+package com.bookmap.rithmicmonitor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Merges alerts raised within a short window into one digest message.
+ *
+ * The first alert of a window schedules a flush {@code windowMs} later; every
+ * alert raised until then is folded into the same digest, e.g.
+ * "No data for ES, NQ, CL after 30 seconds". When a gateway drops and all
+ * instruments go quiet together, Telegram sees one message per incident
+ * instead of one per instrument.
+ *
+ * Urgent alerts, such as an explicit disconnect, skip the window: they are
+ * sent at once together with anything pending. Every chart reports the same
+ * disconnect, so a repeat of an urgent text within one window is dropped.
+ *
+ * A digest made only of periodic reminders goes out with a repeat key naming
+ * the silent aliases it covers, so a reminder still waiting in a sink's
+ * {@link AlertOutbox} is replaced by the next one for the same aliases. Every
+ * other digest carries new information and has no key.
+ */
+final class AlertAggregator {
+
+    private final ScheduledExecutorService scheduler;
+    // Takes the digest and its repeat key, or null
+    private final BiConsumer<String, String> sink;
+    private volatile long windowMs;
+
+    private final Map<Long, Set<String>> silentBySeconds = new LinkedHashMap<>();
+    private final Set<String> recovered = new LinkedHashSet<>();
+    private final Set<String> messages = new LinkedHashSet<>();
+    // Periodic reminders: the silent aliases, joined, to the seconds they have been silent
+    private final Map<String, Long> reminders = new LinkedHashMap<>();
+    private final Map<String, Long> recentUrgent = new LinkedHashMap<>();
+    private boolean flushScheduled;
+
+    AlertAggregator(ScheduledExecutorService scheduler, BiConsumer<String, String> sink, long windowMs) {
+        this.scheduler = scheduler;
+        this.sink = sink;
+        this.windowMs = windowMs;
+    }
+
+    void setWindowMs(long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    synchronized void silent(String alias, long seconds) {
+        silentBySeconds.computeIfAbsent(seconds, s -> new LinkedHashSet<>()).add(alias);
+        recovered.remove(alias);
+        scheduleFlush();
+    }
+
+    synchronized void recovered(String alias) {
+        // A silence and its recovery inside one window cancel out
+        for (Set<String> aliases : silentBySeconds.values()) {
+            if (aliases.remove(alias)) {
+                silentBySeconds.values().removeIf(Set::isEmpty);
+                return;
+            }
+        }
+        recovered.add(alias);
+        scheduleFlush();
+    }
+
+    /** Free-form alert; identical texts within one window are sent once. */
+    synchronized void message(String text) {
+        messages.add(text);
+        scheduleFlush();
+    }
+
+    /** Periodic "still no data" reminder for {@code aliases}; only the latest one per window is kept. */
+    synchronized void reminder(String aliases, long seconds) {
+        reminders.put(aliases, seconds);
+        scheduleFlush();
+    }
+
+    /** Sends {@code text} now, with anything pending, unless the same text was sent within the window. */
+    synchronized void urgent(String text, long now) {
+        recentUrgent.values().removeIf(sentAt -> now - sentAt >= windowMs);
+        if (recentUrgent.putIfAbsent(text, now) != null) {
+            return;
+        }
+        messages.add(text);
+        flush();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled) {
+            return;
+        }
+        flushScheduled = true;
+        if (windowMs <= 0) {
+            flush();
+        } else {
+            scheduler.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    synchronized void flush() {
+        flushScheduled = false;
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<Long, Set<String>> entry : silentBySeconds.entrySet()) {
+            lines.add("No data for " + String.join(", ", entry.getValue()) + " after " + entry.getKey() + " seconds");
+        }
+        if (!recovered.isEmpty()) {
+            lines.add("Data resumed for " + String.join(", ", recovered));
+        }
+        lines.addAll(messages);
+        String repeatKey = lines.isEmpty() && !reminders.isEmpty()
+                ? "reminder:" + String.join("|", reminders.keySet()) : null;
+        for (Map.Entry<String, Long> entry : reminders.entrySet()) {
+            lines.add("No data for " + entry.getKey() + " after " + entry.getValue() + " seconds");
+        }
+        silentBySeconds.clear();
+        recovered.clear();
+        messages.clear();
+        reminders.clear();
+
+        if (!lines.isEmpty()) {
+            sink.accept(String.join("\n", lines), repeatKey);
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.bookmap.rithmicmonitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Store-and-forward queue of the alerts waiting for one sink.
+ *
+ * Alerts are kept as variable-length records in a ring of fixed size. For a
+ * sink that goes over the network the ring is a memory-mapped file, so alerts
+ * raised while the network is down (which is also when the feed drops) are
+ * still there after Bookmap restarts and go out in order once the sink works
+ * again. As in the {@link OutageJournal}, appending only copies bytes into the
+ * mapping, so the thread raising the alert never waits on the disk. When the
+ * ring is full the oldest alerts are dropped to make room.
+ *
+ * An alert may carry a repeat key naming what it reports, like the periodic
+ * reminder for one set of silent aliases. A new alert with the same key as a
+ * pending one, such as "No data for ES after 120 seconds" after the one for
+ * 90, replaces it and counts it as a repeat, so a long outage flushes as one
+ * summary instead of a burst of stale reminders. Alerts without a key are
+ * never replaced. The key is stored with the record, so this holds across a
+ * restart as well.
+ *
+ * One consumer at a time takes the oldest alert with {@link #poll()} and then
+ * either {@link #ack(long)}s it or {@link #release(long)}s it to be retried.
+ */
+final class AlertOutbox implements AutoCloseable {
+
+    static final int MAGIC = 0x53544e4f; // "STNO"
+    static final int VERSION = 2;
+    static final String SUFFIX = ".outbox";
+    static final int HEADER_BYTES = 64;
+    static final int MAX_TEXT_CHARS = 4096;
+    static final int MAX_KEY_BYTES = 1024;
+
+    // header layout
+    private static final int MAGIC_AT = 0;
+    private static final int VERSION_AT = 4;
+    private static final int HEAD_AT = 8;
+    private static final int TAIL_AT = 16;
+
+    // record layout, records are 8-byte aligned and never wrap
+    private static final int LENGTH = 0; // text bytes, or WRAP for the unused end of the ring
+    private static final int FLAGS = 4;
+    private static final int REPEATS = 8;
+    private static final int KEY_LENGTH = 12; // repeat key bytes, stored after the text; 0 for none
+    private static final int TIME = 16;
+    private static final int TEXT = 24;
+    private static final int WRAP = -1;
+    private static final int SUPERSEDED = 1;
+
+    private static final AsyncLog log = AsyncLog.get();
+
+    /** An alert handed out by {@link #poll()}; {@code repeats} earlier versions of it were replaced. */
+    record Pending(long position, long time, int repeats, String text) {
+    }
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private final boolean durable;
+    // Positions only grow; a record lives at HEADER_BYTES + position % capacity
+    private long head;
+    private long tail;
+    private int pending;
+    private long inFlight = -1;
+    private final Map<String, Long> lastByKey = new HashMap<>();
+    // The consumer parks rather than waits on the monitor, which would pin a virtual thread's carrier
+    private volatile Thread waiter;
+
+    private AlertOutbox(ByteBuffer buffer, boolean durable) {
+        this.buffer = buffer;
+        this.capacity = (buffer.capacity() - HEADER_BYTES) & ~7;
+        this.durable = durable;
+    }
+
+    /** An outbox that lives only as long as this process. */
+    static AlertOutbox inMemory(int capacityBytes) {
+        AlertOutbox outbox = new AlertOutbox(ByteBuffer.allocate(HEADER_BYTES + capacityBytes), false);
+        outbox.reset();
+        return outbox;
+    }
+
+    /** Maps {@code file}, recovering the alerts it holds; falls back to memory if the file cannot be used. */
+    static AlertOutbox open(File file, int capacityBytes) {
+        long size = HEADER_BYTES + capacityBytes;
+        long existing = file.length();
+        MappedByteBuffer mapped;
+        try {
+            File directory = file.getParentFile();
+            if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Cannot create " + directory);
+            }
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ Outbox {} kept in memory only: {}", file, e.getMessage());
+            return inMemory(capacityBytes);
+        }
+        AlertOutbox outbox = new AlertOutbox(mapped, true);
+        if (existing != size || !outbox.recover()) {
+            if (existing > 0) {
+                log.warn("⚠️ Outbox {} was unreadable and has been reset", file);
+            }
+            outbox.reset();
+        }
+        return outbox;
+    }
+
+    boolean durable() {
+        return durable;
+    }
+
+    /** Alerts waiting to be delivered. */
+    synchronized int size() {
+        return pending;
+    }
+
+    /**
+     * Queues {@code text}, raised at {@code now}, replacing the pending alert
+     * with the same {@code repeatKey} if there is one; a null key replaces
+     * nothing. Returns how many of the oldest alerts were dropped to make room.
+     */
+    synchronized int append(String text, String repeatKey, long now) {
+        if (text.length() > MAX_TEXT_CHARS) {
+            text = text.substring(0, MAX_TEXT_CHARS);
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        byte[] keyBytes = repeatKey == null ? new byte[0] : repeatKey.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > MAX_KEY_BYTES) {
+            keyBytes = new byte[0];
+            repeatKey = null;
+        }
+        int size = sizeOf(bytes.length, keyBytes.length);
+        int at = (int) (tail % capacity);
+        int skip = at + size > capacity ? capacity - at : 0;
+        int dropped = 0;
+        while (head < tail && capacity - (tail - head) < skip + size) {
+            dropped += dropHead();
+        }
+        if (skip > 0) {
+            if (head == tail) {
+                head += skip;
+                buffer.putLong(HEAD_AT, head);
+            } else {
+                buffer.putInt(HEADER_BYTES + at + LENGTH, WRAP);
+            }
+            tail += skip;
+            at = 0;
+        }
+
+        int repeats = 0;
+        Long previous = repeatKey == null ? null : lastByKey.get(repeatKey);
+        if (previous != null && previous >= head && previous != inFlight) {
+            int p = offset(previous);
+            if ((buffer.getInt(p + FLAGS) & SUPERSEDED) == 0) {
+                buffer.putInt(p + FLAGS, SUPERSEDED);
+                repeats = buffer.getInt(p + REPEATS) + 1;
+                pending--;
+            }
+        }
+
+        int p = HEADER_BYTES + at;
+        buffer.putInt(p + FLAGS, 0);
+        buffer.putInt(p + REPEATS, repeats);
+        buffer.putInt(p + KEY_LENGTH, keyBytes.length);
+        buffer.putLong(p + TIME, now);
+        buffer.put(p + TEXT, bytes);
+        buffer.put(p + TEXT + bytes.length, keyBytes);
+        buffer.putInt(p + LENGTH, bytes.length);
+        if (repeatKey != null) {
+            lastByKey.put(repeatKey, tail);
+        }
+        tail += size;
+        pending++;
+        // Tail last: after a crash the header only ever covers complete records
+        buffer.putLong(TAIL_AT, tail);
+        wake();
+        return dropped;
+    }
+
+    /** Takes the oldest alert, or returns null if there is none or another one is in flight. */
+    synchronized Pending poll() {
+        if (inFlight >= 0) {
+            return null;
+        }
+        while (head < tail) {
+            int p = offset(head);
+            int length = buffer.getInt(p + LENGTH);
+            if (length == WRAP) {
+                head += capacity - (p - HEADER_BYTES);
+                continue;
+            }
+            if ((buffer.getInt(p + FLAGS) & SUPERSEDED) != 0) {
+                head += recordBytes(p, length);
+                continue;
+            }
+            buffer.putLong(HEAD_AT, head);
+            inFlight = head;
+            return new Pending(head, buffer.getLong(p + TIME), buffer.getInt(p + REPEATS), textAt(p, length));
+        }
+        buffer.putLong(HEAD_AT, head);
+        return null;
+    }
+
+    /** Removes a polled alert for good: it was delivered, refused or expired. */
+    synchronized void ack(long position) {
+        if (inFlight == position) {
+            inFlight = -1;
+        }
+        if (head == position) {
+            int p = offset(position);
+            head += recordBytes(p, buffer.getInt(p + LENGTH));
+            pending--;
+            buffer.putLong(HEAD_AT, head);
+        }
+        if (lastByKey.size() > 1024) {
+            lastByKey.values().removeIf(at -> at < head);
+        }
+        wake();
+    }
+
+    /** Puts a polled alert back to be delivered again. */
+    synchronized void release(long position) {
+        if (inFlight == position) {
+            inFlight = -1;
+            wake();
+        }
+    }
+
+    /** Waits up to {@code timeoutMs} for an alert to be appended or released. */
+    void await(long timeoutMs) throws InterruptedException {
+        waiter = Thread.currentThread();
+        LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(timeoutMs));
+        waiter = null;
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    private void wake() {
+        Thread thread = waiter;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private int dropHead() {
+        int p = offset(head);
+        int length = buffer.getInt(p + LENGTH);
+        if (length == WRAP) {
+            head += capacity - (p - HEADER_BYTES);
+            return 0;
+        }
+        head += recordBytes(p, length);
+        buffer.putLong(HEAD_AT, head);
+        if ((buffer.getInt(p + FLAGS) & SUPERSEDED) != 0) {
+            return 0;
+        }
+        pending--;
+        return 1;
+    }
+
+    private boolean recover() {
+        int version = buffer.getInt(VERSION_AT);
+        if (buffer.getInt(MAGIC_AT) != MAGIC || version < 1 || version > VERSION) {
+            return false;
+        }
+        long from = buffer.getLong(HEAD_AT);
+        long to = buffer.getLong(TAIL_AT);
+        if (from < 0 || to < from || to - from > capacity) {
+            return false;
+        }
+        int count = 0;
+        long position = from;
+        while (position < to) {
+            int p = offset(position);
+            int length = buffer.getInt(p + LENGTH);
+            if (length == WRAP) {
+                position += capacity - (p - HEADER_BYTES);
+                continue;
+            }
+            if (version == 1) {
+                // Version 1 records had no repeat key; the field was padding
+                buffer.putInt(p + KEY_LENGTH, 0);
+            }
+            int keyLength = buffer.getInt(p + KEY_LENGTH);
+            if (length < 0 || length > MAX_TEXT_CHARS * 3 || keyLength < 0 || keyLength > MAX_KEY_BYTES
+                    || position + recordBytes(p, length) > to || p - HEADER_BYTES + recordBytes(p, length) > capacity) {
+                return false;
+            }
+            if ((buffer.getInt(p + FLAGS) & SUPERSEDED) == 0) {
+                if (keyLength > 0) {
+                    lastByKey.put(stringAt(p + TEXT + length, keyLength), position);
+                }
+                count++;
+            }
+            position += recordBytes(p, length);
+        }
+        if (position != to) {
+            lastByKey.clear();
+            return false;
+        }
+        buffer.putInt(VERSION_AT, VERSION);
+        head = from;
+        tail = to;
+        pending = count;
+        return true;
+    }
+
+    private void reset() {
+        head = 0;
+        tail = 0;
+        pending = 0;
+        lastByKey.clear();
+        buffer.putInt(MAGIC_AT, MAGIC);
+        buffer.putInt(VERSION_AT, VERSION);
+        buffer.putLong(HEAD_AT, 0);
+        buffer.putLong(TAIL_AT, 0);
+    }
+
+    private int offset(long position) {
+        return HEADER_BYTES + (int) (position % capacity);
+    }
+
+    private String textAt(int p, int length) {
+        return stringAt(p + TEXT, length);
+    }
+
+    private String stringAt(int at, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(at, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Size of the record at {@code p}, which holds {@code textBytes} of text. */
+    private int recordBytes(int p, int textBytes) {
+        return sizeOf(textBytes, buffer.getInt(p + KEY_LENGTH));
+    }
+
+    private static int sizeOf(int textBytes, int keyBytes) {
+        return (TEXT + textBytes + keyBytes + 7) & ~7;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (buffer instanceof MappedByteBuffer mapped) {
+            mapped.force();
+        }
+    }
+}
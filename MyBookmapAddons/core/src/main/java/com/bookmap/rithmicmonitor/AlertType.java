@@ -0,0 +1,43 @@
+package com.bookmap.rithmicmonitor;
+
+/**
+ * The alerts a chart's monitor raises for one alias, as shown by
+ * {@link FeedStatus#alertType(int)}. Each one is written to the
+ * {@link OutageJournal} under the record type it wraps.
+ */
+public enum AlertType {
+    /** The alias went silent for longer than its timeout. */
+    GAP_START(OutageJournal.GAP_START),
+    /** The alias went silent outside the trading schedule; nothing was sent. */
+    GAP_SUPPRESSED(OutageJournal.GAP_SUPPRESSED),
+    /** Data resumed after a silence. */
+    GAP_END(OutageJournal.GAP_END),
+    RATE_DEGRADED(OutageJournal.RATE_DEGRADED),
+    RATE_RECOVERED(OutageJournal.RATE_RECOVERED),
+    BOOK_CROSSED(OutageJournal.BOOK_CROSSED),
+    BOOK_FROZEN(OutageJournal.BOOK_FROZEN),
+    BOOK_WIDE(OutageJournal.BOOK_WIDE),
+    BOOK_OK(OutageJournal.BOOK_OK),
+    VOLUME_BURST(OutageJournal.VOLUME_BURST),
+    VOLUME_DROUGHT(OutageJournal.VOLUME_DROUGHT),
+    VOLUME_NORMAL(OutageJournal.VOLUME_NORMAL);
+
+    private static final AlertType[] BY_JOURNAL_TYPE = new AlertType[OutageJournal.VOLUME_NORMAL + 1];
+
+    static {
+        for (AlertType type : values()) {
+            BY_JOURNAL_TYPE[type.journalType] = type;
+        }
+    }
+
+    private final int journalType;
+
+    AlertType(int journalType) {
+        this.journalType = journalType;
+    }
+
+    /** The alert recorded under journal {@code type}, or null if it is not one. */
+    static AlertType ofJournalType(int type) {
+        return type >= 0 && type < BY_JOURNAL_TYPE.length ? BY_JOURNAL_TYPE[type] : null;
+    }
+}
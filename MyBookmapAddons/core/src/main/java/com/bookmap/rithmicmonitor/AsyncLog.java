@@ -0,0 +1,345 @@
+package com.bookmap.rithmicmonitor;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Leveled, asynchronous logger shared by every notifier in the JVM.
+ *
+ * A log call checks the level, claims a slot in a preallocated ring buffer
+ * and stores the template, its arguments and a timestamp there; it never
+ * formats, locks or allocates. A daemon thread drains the ring, expands the
+ * {@code {}} placeholders, and writes lines to a rolling file in the user's
+ * home directory (and, if enabled, the console). If the ring is full the
+ * record is dropped and counted rather than blocking the caller. A call below
+ * the configured level returns after one volatile read, so DEBUG output is
+ * free when disabled.
+ *
+ * The thread runs from the first {@link #start()} to the last {@link #stop()},
+ * which writes out what is queued and closes the file, so nothing is left
+ * behind when Bookmap unloads the addon. While idle it parks until a record
+ * is published; records logged while it is stopped wait in the ring.
+ *
+ * Only {@link #get()} and the logging calls are public, for the addon.
+ */
+public final class AsyncLog {
+
+    enum Level { DEBUG, INFO, WARN, ERROR }
+
+    private static final int CAPACITY = 4096;
+    private static final int MASK = CAPACITY - 1;
+    private static final long MAX_FILE_BYTES = 5L * 1024 * 1024;
+    // Rolled files .1 to .5 kept next to the active one, the oldest being overwritten
+    private static final int ROLLED_FILES = 5;
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    // argument kinds, two bits per argument in call order
+    private static final int OBJ = 1;
+    private static final int LONG = 2;
+
+    private static final Level[] LEVELS = Level.values();
+    private static final AsyncLog INSTANCE = new AsyncLog(
+            new File(System.getProperty("user.home"), "SimpleTelegramNotifier.log"));
+
+    public static AsyncLog get() {
+        return INSTANCE;
+    }
+
+    private final File file;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLongArray published = new AtomicLongArray(CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long consumed;
+    private volatile int minLevel = Level.INFO.ordinal();
+    private volatile boolean toConsole = false;
+    // Set by the writer thread just before it parks, so producers know to unpark it
+    private volatile boolean sleeping;
+    private volatile boolean running;
+    private volatile Thread drainer;
+    private int users;
+
+    private final long[] times = new long[CAPACITY];
+    private final byte[] levels = new byte[CAPACITY];
+    private final String[] templates = new String[CAPACITY];
+    private final Object[] threads = new Object[CAPACITY];
+    private final Object[] objects = new Object[CAPACITY * 2];
+    private final long[] longs = new long[CAPACITY * 2];
+    private final int[] kinds = new int[CAPACITY];
+
+    // writer thread only
+    private final StringBuilder line = new StringBuilder(256);
+    private BufferedWriter writer;
+    private long fileBytes;
+    private long reportedDrops;
+
+    AsyncLog(File file) {
+        this.file = file;
+        for (int i = 0; i < CAPACITY; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /** Starts the writer thread for the first user. */
+    synchronized void start() {
+        if (users++ > 0) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::drainLoop, "SimpleTelegramNotifier-log");
+        thread.setDaemon(true);
+        drainer = thread;
+        thread.start();
+    }
+
+    /** Drops one user; the last one writes out what is queued, closes the file and ends the thread. */
+    synchronized void stop() {
+        if (users == 0 || --users > 0) {
+            return;
+        }
+        Thread thread = drainer;
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drainer = null;
+    }
+
+    void setLevel(Level level) {
+        minLevel = level.ordinal();
+    }
+
+    void setConsole(boolean enabled) {
+        toConsole = enabled;
+    }
+
+    boolean isEnabled(Level level) {
+        return level.ordinal() >= minLevel;
+    }
+
+    boolean isDebugEnabled() {
+        return Level.DEBUG.ordinal() >= minLevel;
+    }
+
+    public void debug(String message) { publish(Level.DEBUG, message, null, null, 0, 0, 0); }
+    public void debug(String template, Object a) { publish(Level.DEBUG, template, a, null, 0, 0, OBJ); }
+    public void debug(String template, long x) { publish(Level.DEBUG, template, null, null, x, 0, LONG); }
+    public void debug(String template, Object a, Object b) { publish(Level.DEBUG, template, a, b, 0, 0, OBJ | OBJ << 2); }
+    public void debug(String template, Object a, long x) { publish(Level.DEBUG, template, a, null, x, 0, OBJ | LONG << 2); }
+    public void debug(String template, long x, long y) { publish(Level.DEBUG, template, null, null, x, y, LONG | LONG << 2); }
+    public void debug(String template, long x, Object a) { publish(Level.DEBUG, template, a, null, x, 0, LONG | OBJ << 2); }
+
+    public void info(String message) { publish(Level.INFO, message, null, null, 0, 0, 0); }
+    public void info(String template, Object a) { publish(Level.INFO, template, a, null, 0, 0, OBJ); }
+    public void info(String template, long x) { publish(Level.INFO, template, null, null, x, 0, LONG); }
+    public void info(String template, Object a, Object b) { publish(Level.INFO, template, a, b, 0, 0, OBJ | OBJ << 2); }
+    public void info(String template, Object a, long x) { publish(Level.INFO, template, a, null, x, 0, OBJ | LONG << 2); }
+    public void info(String template, long x, long y) { publish(Level.INFO, template, null, null, x, y, LONG | LONG << 2); }
+    public void info(String template, long x, Object a) { publish(Level.INFO, template, a, null, x, 0, LONG | OBJ << 2); }
+
+    public void warn(String message) { publish(Level.WARN, message, null, null, 0, 0, 0); }
+    public void warn(String template, Object a) { publish(Level.WARN, template, a, null, 0, 0, OBJ); }
+    public void warn(String template, long x) { publish(Level.WARN, template, null, null, x, 0, LONG); }
+    public void warn(String template, Object a, Object b) { publish(Level.WARN, template, a, b, 0, 0, OBJ | OBJ << 2); }
+    public void warn(String template, Object a, long x) { publish(Level.WARN, template, a, null, x, 0, OBJ | LONG << 2); }
+    public void warn(String template, long x, long y) { publish(Level.WARN, template, null, null, x, y, LONG | LONG << 2); }
+    public void warn(String template, long x, Object a) { publish(Level.WARN, template, a, null, x, 0, LONG | OBJ << 2); }
+
+    public void error(String message) { publish(Level.ERROR, message, null, null, 0, 0, 0); }
+    public void error(String template, Object a) { publish(Level.ERROR, template, a, null, 0, 0, OBJ); }
+    public void error(String template, long x) { publish(Level.ERROR, template, null, null, x, 0, LONG); }
+    public void error(String template, Object a, Object b) { publish(Level.ERROR, template, a, b, 0, 0, OBJ | OBJ << 2); }
+    public void error(String template, Object a, long x) { publish(Level.ERROR, template, a, null, x, 0, OBJ | LONG << 2); }
+    public void error(String template, long x, long y) { publish(Level.ERROR, template, null, null, x, y, LONG | LONG << 2); }
+    public void error(String template, long x, Object a) { publish(Level.ERROR, template, a, null, x, 0, LONG | OBJ << 2); }
+
+    long droppedCount() {
+        return dropped.get();
+    }
+
+    private void publish(Level level, String template, Object a, Object b, long x, long y, int argKinds) {
+        if (level.ordinal() < minLevel) {
+            return;
+        }
+        long seq;
+        do {
+            seq = claimed.get();
+            if (seq - consumed >= CAPACITY) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!claimed.compareAndSet(seq, seq + 1));
+
+        int i = (int) (seq & MASK);
+        times[i] = System.currentTimeMillis();
+        levels[i] = (byte) level.ordinal();
+        templates[i] = template;
+        threads[i] = Thread.currentThread().getName();
+        objects[2 * i] = a;
+        objects[2 * i + 1] = b;
+        longs[2 * i] = x;
+        longs[2 * i + 1] = y;
+        kinds[i] = argKinds;
+        // A full store, so it cannot pass the read of sleeping below
+        published.set(i, seq);
+        if (sleeping) {
+            Thread thread = drainer;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    /** Waits up to {@code timeoutMs} for everything logged so far to be written. */
+    void flush(long timeoutMs) {
+        long target = claimed.get();
+        if (drainer == null) {
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (consumed < target && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private void drainLoop() {
+        while (true) {
+            long next = consumed;
+            int drained = 0;
+            while (published.get((int) (next & MASK)) == next) {
+                write(next);
+                next++;
+                consumed = next;
+                drained++;
+            }
+            if (drained > 0) {
+                reportDrops();
+                continue;
+            }
+            // Caught up: flush once, rather than after every small batch
+            flushWriter();
+            if (!running) {
+                break;
+            }
+            sleeping = true;
+            // Checked again after announcing the sleep: a record published since either shows up here or unparks us
+            if (published.get((int) (next & MASK)) != next && running) {
+                LockSupport.park(this);
+            }
+            sleeping = false;
+        }
+        closeWriter();
+    }
+
+    private void write(long seq) {
+        int i = (int) (seq & MASK);
+        line.setLength(0);
+        TIMESTAMP.formatTo(Instant.ofEpochMilli(times[i]), line);
+        line.append(' ').append(LEVELS[levels[i]]).append(" [").append(threads[i]).append("] ");
+        format(templates[i], i);
+        objects[2 * i] = null;
+        objects[2 * i + 1] = null;
+        emit(levels[i]);
+    }
+
+    private void format(String template, int i) {
+        int argKinds = kinds[i];
+        int nextObject = 0;
+        int nextLong = 0;
+        int from = 0;
+        int at;
+        while (argKinds != 0 && (at = template.indexOf("{}", from)) >= 0) {
+            line.append(template, from, at);
+            if ((argKinds & 3) == OBJ) {
+                line.append(objects[2 * i + nextObject++]);
+            } else {
+                line.append(longs[2 * i + nextLong++]);
+            }
+            argKinds >>>= 2;
+            from = at + 2;
+        }
+        line.append(template, from, template.length());
+    }
+
+    private void reportDrops() {
+        long total = dropped.get();
+        if (total != reportedDrops) {
+            line.setLength(0);
+            TIMESTAMP.formatTo(Instant.now(), line);
+            line.append(" WARN [").append(Thread.currentThread().getName()).append("] log ring full, ").append(total - reportedDrops).append(" records dropped");
+            reportedDrops = total;
+            emit((byte) Level.WARN.ordinal());
+        }
+    }
+
+    private void emit(byte level) {
+        if (toConsole) {
+            (level >= Level.WARN.ordinal() ? System.err : System.out).println(line);
+        }
+        try {
+            if (writer == null || fileBytes >= MAX_FILE_BYTES) {
+                roll();
+            }
+            writer.append(line).append(System.lineSeparator());
+            fileBytes += line.length() + 1;
+        } catch (IOException e) {
+            writer = null;
+        }
+    }
+
+    private void flushWriter() {
+        if (writer != null) {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                writer = null;
+            }
+        }
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                // Nothing left to report it to
+            }
+            writer = null;
+        }
+    }
+
+    private void roll() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+        if (file.exists() && file.length() >= MAX_FILE_BYTES) {
+            for (int n = ROLLED_FILES - 1; n >= 1; n--) {
+                File older = new File(file.getPath() + "." + n);
+                if (older.exists()) {
+                    Files.move(older.toPath(), new File(file.getPath() + "." + (n + 1)).toPath(),
+                            StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file.toPath(), new File(file.getPath() + ".1").toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileBytes = file.length();
+    }
+}
@@ -0,0 +1,144 @@
+package com.bookmap.rithmicmonitor;
+
+import java.util.Arrays;
+
+/**
+ * One {@link OrderBook} per alias slot, and the checks that catch a book
+ * which still updates but can no longer be right.
+ *
+ * A feed that misses an update can keep streaming depth while its top of
+ * book is wrong. Three faults are reported, each only once it has lasted:
+ * <ul>
+ *   <li>crossed: the best bid at or above the best ask for {@link #CROSSED_MS};</li>
+ *   <li>frozen: at least {@link #FROZEN_TRADES} trades printed outside a top
+ *       of book that has not changed for {@link #FROZEN_MS};</li>
+ *   <li>wide: a spread over {@code maxSpreadTicks} for {@link #WIDE_MS}.</li>
+ * </ul>
+ * A slot reports its most serious fault, and recovers once none is left.
+ * Books are created by the data threads; the checks run on the monitor
+ * thread.
+ */
+final class BookWatch {
+
+    interface Listener {
+        /** {@code type} is {@link OutageJournal#BOOK_CROSSED}, {@link OutageJournal#BOOK_FROZEN} or {@link OutageJournal#BOOK_WIDE}. */
+        void onBookFault(int slot, int type, OrderBook book, long now);
+
+        void onBookRecovered(int slot, OrderBook book, long now);
+    }
+
+    static final long CROSSED_MS = 3_000;
+    static final long FROZEN_MS = 10_000;
+    static final int FROZEN_TRADES = 3;
+    static final long WIDE_MS = 5_000;
+
+    private final Listener listener;
+    private volatile OrderBook[] books = new OrderBook[0];
+
+    // monitor thread only
+    private long[] crossedSince = new long[0];
+    private long[] wideSince = new long[0];
+    private int[] faults = new int[0];
+
+    BookWatch(Listener listener) {
+        this.listener = listener;
+    }
+
+    /** The book of {@code slot}, created on first use. */
+    OrderBook book(int slot) {
+        OrderBook[] current = books;
+        OrderBook book = slot < current.length ? current[slot] : null;
+        return book != null ? book : create(slot);
+    }
+
+    private synchronized OrderBook create(int slot) {
+        OrderBook[] current = books;
+        if (slot < current.length && current[slot] != null) {
+            return current[slot];
+        }
+        OrderBook[] grown = slot < current.length ? current.clone() : Arrays.copyOf(current, Math.max(slot + 1, current.length * 2));
+        grown[slot] = new OrderBook();
+        books = grown;
+        return grown[slot];
+    }
+
+    /** Empties the book of {@code slot}, if it has one, before its next update. */
+    void clear(int slot) {
+        OrderBook[] current = books;
+        if (slot < current.length && current[slot] != null) {
+            current[slot].requestClear();
+        }
+    }
+
+    /** Forgets faults and how long conditions have lasted. Monitor thread only. */
+    void reset() {
+        Arrays.fill(crossedSince, 0);
+        Arrays.fill(wideSince, 0);
+        Arrays.fill(faults, 0);
+    }
+
+    /** The fault currently reported for {@code slot}, or 0. Monitor thread only. */
+    int fault(int slot) {
+        return slot < faults.length ? faults[slot] : 0;
+    }
+
+    /** Checks the book of {@code slot}; {@code maxSpreadTicks} 0 disables the spread check. Monitor thread only. */
+    void check(int slot, long now, int maxSpreadTicks) {
+        OrderBook[] current = books;
+        OrderBook book = slot < current.length ? current[slot] : null;
+        if (book == null) {
+            return;
+        }
+        ensureCapacity(slot + 1);
+        int bid = book.bestBid();
+        int ask = book.bestAsk();
+        int type = 0;
+        if (bid == OrderBook.NONE || ask == OrderBook.NONE) {
+            crossedSince[slot] = 0;
+            wideSince[slot] = 0;
+        } else {
+            if (bid >= ask) {
+                if (crossedSince[slot] == 0) {
+                    crossedSince[slot] = now;
+                }
+                if (now - crossedSince[slot] >= CROSSED_MS) {
+                    type = OutageJournal.BOOK_CROSSED;
+                }
+            } else {
+                crossedSince[slot] = 0;
+            }
+            if (type == 0 && book.tradesThrough() >= FROZEN_TRADES && now - book.topChangedAt() >= FROZEN_MS) {
+                type = OutageJournal.BOOK_FROZEN;
+            }
+            if (maxSpreadTicks > 0 && (long) ask - bid > maxSpreadTicks) {
+                if (wideSince[slot] == 0) {
+                    wideSince[slot] = now;
+                }
+                if (type == 0 && now - wideSince[slot] >= WIDE_MS) {
+                    type = OutageJournal.BOOK_WIDE;
+                }
+            } else {
+                wideSince[slot] = 0;
+            }
+        }
+        if (type == faults[slot]) {
+            return;
+        }
+        faults[slot] = type;
+        if (type != 0) {
+            listener.onBookFault(slot, type, book, now);
+        } else {
+            listener.onBookRecovered(slot, book, now);
+        }
+    }
+
+    private void ensureCapacity(int slots) {
+        if (slots <= faults.length) {
+            return;
+        }
+        int capacity = Math.max(slots, faults.length * 2);
+        crossedSince = Arrays.copyOf(crossedSince, capacity);
+        wideSince = Arrays.copyOf(wideSince, capacity);
+        faults = Arrays.copyOf(faults, capacity);
+    }
+}
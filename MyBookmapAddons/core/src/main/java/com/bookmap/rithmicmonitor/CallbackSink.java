@@ -0,0 +1,51 @@
+package com.bookmap.rithmicmonitor;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * A sink backed by callbacks that come and go, such as Bookmap's in-app alert
+ * of each open notifier. Each alert goes to the first registered target only,
+ * so a workspace with several charts shows one popup, not one per chart.
+ */
+final class CallbackSink implements NotificationSink {
+
+    private final String name;
+    private final long timeoutMs;
+    private final List<Consumer<String>> targets = new CopyOnWriteArrayList<>();
+
+    CallbackSink(String name, long timeoutMs) {
+        this.name = name;
+        this.timeoutMs = timeoutMs;
+    }
+
+    void addTarget(Consumer<String> target) {
+        targets.add(target);
+    }
+
+    void removeTarget(Consumer<String> target) {
+        targets.remove(target);
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public long timeoutMs() {
+        return timeoutMs;
+    }
+
+    @Override
+    public void deliver(String text) throws IOException {
+        Iterator<Consumer<String>> first = targets.iterator();
+        if (!first.hasNext()) {
+            throw new Rejected("No " + name + " target registered");
+        }
+        first.next().accept(text);
+    }
+}
@@ -0,0 +1,277 @@
+package com.bookmap.rithmicmonitor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Monitoring for one chart, and everything an addon needs from this package.
+ *
+ * {@link #open} acquires the {@link SharedEngine} and builds the chart's
+ * {@link FeedMonitor}, and the first {@link #start()} its {@link FeedPipeline};
+ * {@link #close()} releases them. The data callbacks go to the pipeline and
+ * return at once, the provider's connection and instrument events go to the
+ * monitor, and the shared settings are read and changed as
+ * {@link PanelSettings}. The engine, its event ring and the monitor's state
+ * stay private to this package.
+ */
+public final class ChartMonitor implements AutoCloseable {
+
+    public interface Listener {
+        /** Called after new settings have been published, whichever chart changed them. */
+        void onSettingsChanged(PanelSettings settings);
+
+        /** Called when the schedule switches in or out of range. */
+        void onTimeRangeChanged(boolean inRange);
+    }
+
+    private final SharedEngine engine;
+    private final FeedMonitor monitor;
+    // Built by the first start(), so an idle chart runs no clock or event threads
+    private volatile FeedPipeline pipeline;
+    private final SharedEngine.Listener engineListener;
+    private final Consumer<String> inAppAlerts;
+    private final FeedStatus status;
+
+    private ChartMonitor(Listener listener, Consumer<String> inAppAlerts) {
+        this.engine = SharedEngine.acquire();
+        this.monitor = new FeedMonitor(engine.scheduler(), engine.clock(), engine.alerts(), engine.journal(), engine);
+        this.inAppAlerts = inAppAlerts;
+        this.status = new Status(monitor, engine.clock());
+        this.engineListener = new SharedEngine.Listener() {
+            @Override
+            public void onConfigChanged(NotifierConfig config) {
+                monitor.setDropFraction(config.rateDropPercent() / 100.0);
+                monitor.setVolumeThresholds(config.volumeBurstMultiple(), config.volumeDroughtPercent() / 100.0);
+                listener.onSettingsChanged(PanelSettings.of(config));
+            }
+
+            @Override
+            public void onTimeRangeChanged(boolean inRange) {
+                listener.onTimeRangeChanged(inRange);
+            }
+        };
+        engine.addListener(engineListener);
+        engine.metrics().register(monitor);
+        engine.addInAppAlertTarget(inAppAlerts);
+    }
+
+    /**
+     * Starts monitoring a chart, not yet running.
+     *
+     * @param inAppAlerts shows the alerts of the {@code bookmap} sink inside the host application
+     */
+    public static ChartMonitor open(Listener listener, Consumer<String> inAppAlerts) {
+        return new ChartMonitor(listener, inAppAlerts);
+    }
+
+    /** Ignored until monitoring was first started. */
+    public void onDepth(String alias, boolean isBid, int price, int size) {
+        FeedPipeline current = pipeline;
+        if (current != null) {
+            current.onDepth(alias, isBid, price, size);
+        }
+    }
+
+    public void onTrade(String alias, double price, int size) {
+        FeedPipeline current = pipeline;
+        if (current != null) {
+            current.onTrade(alias, price, size);
+        }
+    }
+
+    public void onMarketMode(String alias) {
+        FeedPipeline current = pipeline;
+        if (current != null) {
+            current.onMarketMode(alias);
+        }
+    }
+
+    public void onConnectionLost(String reason, String message) {
+        monitor.onConnectionLost(reason, message);
+    }
+
+    public void onConnectionRestored() {
+        monitor.onConnectionRestored();
+    }
+
+    public void onLoginFailed(String reason, String message) {
+        monitor.onLoginFailed(reason, message);
+    }
+
+    public void onInstrumentAdded(String alias) {
+        monitor.onInstrumentAdded(alias);
+    }
+
+    public void onInstrumentRemoved(String alias) {
+        monitor.onInstrumentRemoved(alias);
+    }
+
+    public void onInstrumentNotFound(String symbol, String exchange, String type) {
+        monitor.onInstrumentNotFound(symbol, exchange, type);
+    }
+
+    /**
+     * Returns false if monitoring was already running. The first call starts
+     * the shared clock and event threads if no other chart has yet.
+     */
+    public boolean start() {
+        synchronized (this) {
+            if (pipeline == null) {
+                pipeline = new FeedPipeline(monitor, engine.clock(), engine.startFeed());
+            }
+        }
+        return monitor.start();
+    }
+
+    /** Returns false if monitoring was already stopped. */
+    public boolean stop() {
+        return monitor.stop();
+    }
+
+    public boolean isRunning() {
+        return monitor.isRunning();
+    }
+
+    /** This chart's aliases, for a status display. */
+    public FeedStatus status() {
+        return status;
+    }
+
+    /** The settings shared by every chart. */
+    public PanelSettings settings() {
+        return PanelSettings.of(engine.config());
+    }
+
+    /**
+     * Applies a change to the shared settings without saving it. The change
+     * runs on an engine thread, so the caller never waits for it.
+     *
+     * @return completes once the change is published, or with an
+     *         {@link IllegalArgumentException} if the changed settings are invalid
+     */
+    public CompletableFuture<Void> updateSettings(UnaryOperator<PanelSettings> change) {
+        return engine.changeConfig(() -> engine.updateConfig(c -> change.apply(PanelSettings.of(c)).applyTo(c)));
+    }
+
+    /**
+     * Publishes {@code settings} to every chart and writes them to the
+     * properties file, on an engine thread.
+     *
+     * @return completes once they are saved, or with an {@link IllegalArgumentException}
+     *         if they are invalid; nothing is published then
+     */
+    public CompletableFuture<Void> saveSettings(PanelSettings settings) {
+        return engine.changeConfig(() -> engine.saveConfig(settings.applyTo(engine.config())));
+    }
+
+    /** True while the trading schedule is in range; false whenever the time range is disabled. */
+    public boolean isInTimeRange() {
+        return engine.isInTimeRange();
+    }
+
+    /** The schedule's windows, or the panel's range until the schedule has been compiled. */
+    public String describeTimeRange() {
+        WeeklySchedule current = engine.schedule();
+        if (current != null) {
+            return SharedEngine.describeSchedule(current);
+        }
+        NotifierConfig settings = engine.config();
+        return settings.startDayOfWeek() + " to " + settings.endDayOfWeek() + ", Time: " + settings.startTime()
+                + " - " + settings.endTime();
+    }
+
+    /** Hands {@code message} to every configured sink. */
+    public void send(String message) {
+        engine.send(message);
+    }
+
+    /** Reports how long a startup step of the addon took, next to the engine's own. */
+    public void startupPhase(String phase, long nanos) {
+        engine.metrics().startupPhase(phase, nanos);
+    }
+
+    /**
+     * Stops monitoring and releases the engine. No data callback may follow,
+     * so remove this chart from the provider first.
+     */
+    @Override
+    public void close() {
+        monitor.stop();
+        engine.removeListener(engineListener);
+        engine.metrics().unregister(monitor);
+        engine.removeInAppAlertTarget(inAppAlerts);
+        synchronized (this) {
+            if (pipeline != null) {
+                pipeline.close();
+            }
+        }
+        engine.release();
+    }
+
+    private static final class Status implements FeedStatus {
+
+        private final FeedMonitor monitor;
+        private final CoarseClock clock;
+
+        Status(FeedMonitor monitor, CoarseClock clock) {
+            this.monitor = monitor;
+            this.clock = clock;
+        }
+
+        @Override
+        public int size() {
+            return monitor.liveness().size();
+        }
+
+        @Override
+        public String alias(int row) {
+            return monitor.liveness().aliasAt(row);
+        }
+
+        @Override
+        public long lastSeen(int row) {
+            return monitor.liveness().lastSeen(row);
+        }
+
+        @Override
+        public long eventCount(int row) {
+            return monitor.eventCount(row);
+        }
+
+        @Override
+        public long timeoutMs(int row) {
+            return monitor.timeoutMs(row);
+        }
+
+        @Override
+        public boolean isRemoved(int row) {
+            return monitor.slotStatus().isRemoved(row);
+        }
+
+        @Override
+        public AlertType alertType(int row) {
+            return AlertType.ofJournalType(monitor.slotStatus().alertType(row));
+        }
+
+        @Override
+        public long alertTime(int row) {
+            return monitor.slotStatus().alertTime(row);
+        }
+
+        @Override
+        public boolean isRunning() {
+            return monitor.isRunning();
+        }
+
+        @Override
+        public boolean isDisconnected() {
+            return monitor.isDisconnected();
+        }
+
+        @Override
+        public long now() {
+            return clock.millis();
+        }
+    }
+}
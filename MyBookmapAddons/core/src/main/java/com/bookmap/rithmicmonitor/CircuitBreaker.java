@@ -0,0 +1,64 @@
+package com.bookmap.rithmicmonitor;
+
+/**
+ * Stops hammering a sink that keeps failing.
+ *
+ * After {@code failureThreshold} failures in a row the breaker opens and no
+ * delivery is attempted for {@code initialOpenMs}. Then one probe is let
+ * through (half-open): success closes the breaker, failure opens it again for
+ * twice as long, up to {@code maxOpenMs}. Used by one channel thread only;
+ * the state is volatile so metrics can read it.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long initialOpenMs;
+    private final long maxOpenMs;
+    private volatile State state = State.CLOSED;
+    private int failures;
+    private long openMs;
+    private long retryAt;
+
+    CircuitBreaker(int failureThreshold, long initialOpenMs, long maxOpenMs) {
+        this.failureThreshold = failureThreshold;
+        this.initialOpenMs = initialOpenMs;
+        this.maxOpenMs = maxOpenMs;
+        this.openMs = initialOpenMs;
+    }
+
+    State state() {
+        return state;
+    }
+
+    /** Millis to wait before the next attempt is allowed; 0 to go ahead. */
+    long waitMs(long now) {
+        if (state == State.OPEN) {
+            if (now < retryAt) {
+                return retryAt - now;
+            }
+            state = State.HALF_OPEN;
+        }
+        return 0;
+    }
+
+    void onSuccess() {
+        failures = 0;
+        openMs = initialOpenMs;
+        state = State.CLOSED;
+    }
+
+    /** Returns the millis the breaker is now open for, or 0 if it stays closed. */
+    long onFailure(long now) {
+        if (state == State.HALF_OPEN) {
+            openMs = Math.min(openMs * 2, maxOpenMs);
+        } else if (++failures < failureThreshold) {
+            return 0;
+        }
+        failures = 0;
+        state = State.OPEN;
+        retryAt = now + openMs;
+        return openMs;
+    }
+}
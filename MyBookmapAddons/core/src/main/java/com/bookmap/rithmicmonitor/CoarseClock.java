@@ -0,0 +1,87 @@
+package com.bookmap.rithmicmonitor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Millisecond clock that is refreshed by a background daemon thread, so
+ * readers pay a single volatile load instead of a {@code System.currentTimeMillis()}
+ * call. Precision is bounded by the configured resolution.
+ *
+ * An {@link #onDemand} clock has no thread until {@link #start()}; until then
+ * each read asks the system clock, so it is exact, just not as cheap.
+ */
+final class CoarseClock implements AutoCloseable {
+
+    // nowMillis before the ticker has run
+    private static final long NOT_TICKING = Long.MIN_VALUE;
+
+    private final long resolutionNanos;
+    private final boolean manual;
+    private volatile long nowMillis;
+    private volatile boolean running;
+    // guarded by this
+    private Thread ticker;
+    private boolean closed;
+
+    CoarseClock(long resolutionMs) {
+        this(TimeUnit.MILLISECONDS.toNanos(Math.max(1, resolutionMs)), NOT_TICKING, false);
+        start();
+    }
+
+    private CoarseClock(long resolutionNanos, long startMillis, boolean manual) {
+        this.resolutionNanos = resolutionNanos;
+        this.nowMillis = startMillis;
+        this.manual = manual;
+    }
+
+    /** A clock that only moves when {@link #set(long)} is called, for benchmarks. */
+    static CoarseClock manual(long startMillis) {
+        return new CoarseClock(0, startMillis, true);
+    }
+
+    /** A clock whose thread only starts with the first {@link #start()}. */
+    static CoarseClock onDemand(long resolutionMs) {
+        return new CoarseClock(TimeUnit.MILLISECONDS.toNanos(Math.max(1, resolutionMs)), NOT_TICKING, false);
+    }
+
+    long millis() {
+        long now = nowMillis;
+        return now != NOT_TICKING ? now : System.currentTimeMillis();
+    }
+
+    void set(long millis) {
+        if (!manual) {
+            throw new IllegalStateException("Only a manual clock can be set");
+        }
+        nowMillis = millis;
+    }
+
+    /** Starts the thread; does nothing if it runs already, the clock is closed or manual. */
+    synchronized void start() {
+        if (manual || closed || ticker != null) {
+            return;
+        }
+        running = true;
+        nowMillis = System.currentTimeMillis();
+        ticker = new Thread(this::tick, "SimpleTelegramNotifier-clock");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    private void tick() {
+        while (running) {
+            nowMillis = System.currentTimeMillis();
+            LockSupport.parkNanos(resolutionNanos);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        running = false;
+        if (ticker != null) {
+            LockSupport.unpark(ticker);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.bookmap.rithmicmonitor;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Loads, atomically saves and watches the notifier's properties file.
+ *
+ * A save writes a temporary file next to the target and moves it over the
+ * old one, so a crash or a concurrent reader never sees a half-written file.
+ * {@link #watch()} starts a daemon thread that reloads the file when it is
+ * edited by hand and hands the new snapshot to the listener. Events are
+ * debounced, and a reload equal to the last snapshot saved or loaded here is
+ * ignored, which also swallows the events caused by our own saves.
+ */
+final class ConfigStore implements AutoCloseable {
+
+    private static final AsyncLog log = AsyncLog.get();
+    private static final long DEBOUNCE_MS = 250;
+
+    private final Path path;
+    private final Consumer<NotifierConfig> listener;
+    private volatile NotifierConfig lastKnown;
+    private volatile WatchService watcher;
+
+    ConfigStore(File file, Consumer<NotifierConfig> listener) {
+        this.path = file.toPath().toAbsolutePath();
+        this.listener = listener;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    /**
+     * Reads the file, or returns {@code null} if it is missing or unreadable.
+     * Invalid settings in it fall back to their defaults one by one.
+     */
+    NotifierConfig load() {
+        if (!Files.exists(path)) {
+            log.info("No saved configuration found");
+            return null;
+        }
+        try {
+            Properties props = new Properties();
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                props.load(reader);
+            }
+            NotifierConfig config = NotifierConfig.fromProperties(props);
+            lastKnown = config;
+            return config;
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("❌ Error loading configuration: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    void save(NotifierConfig config) throws IOException {
+        Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                config.toProperties().store(writer, "Simple Telegram Notifier Configuration");
+            }
+            lastKnown = config;
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** Starts reloading the file on changes; does nothing if already watching. */
+    synchronized void watch() {
+        if (watcher != null) {
+            return;
+        }
+        try {
+            WatchService service = path.getFileSystem().newWatchService();
+            path.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            watcher = service;
+        } catch (IOException e) {
+            log.warn("⚠️ Configuration hot reload unavailable: {}", e.getMessage());
+            return;
+        }
+        Thread thread = new Thread(this::watchLoop, "SimpleTelegramNotifier-config");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void watchLoop() {
+        WatchService service = watcher;
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = touchesFile(key);
+                // Editors and our own saves fire several events; wait for them to settle
+                while (changed && (key = service.poll(DEBOUNCE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    touchesFile(key);
+                }
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private boolean touchesFile(WatchKey key) {
+        boolean touches = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || path.getFileName().equals(event.context())) {
+                touches = true;
+            }
+        }
+        key.reset();
+        return touches;
+    }
+
+    private void reload() {
+        NotifierConfig previous = lastKnown;
+        NotifierConfig next = load();
+        if (next != null && !next.equals(previous)) {
+            log.info("🔄 Configuration reloaded from: {}", path);
+            listener.accept(next);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (watcher != null) {
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                // already closed
+            }
+            watcher = null;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.bookmap.rithmicmonitor;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-alias event rates and inter-arrival histograms, used to spot a feed
+ * that degrades to a trickle before it goes fully silent.
+ *
+ * The data thread only bumps primitive counters: an event count, the time of
+ * the previous event and one of {@link #BUCKETS} log2 buckets of the gap since
+ * it, all inside a padded per-slot block. Each alias is delivered by a single
+ * Bookmap data thread, so counters use ordered stores rather than CAS.
+ *
+ * Once a second the monitor thread calls {@link #sample(long)}, which turns
+ * count deltas into a fast EWMA rate and a slow baseline. An alias is degraded
+ * when the fast rate drops below {@code dropFraction} of its baseline, and
+ * recovers once it climbs back above {@link #recoveryFraction(double)} of it.
+ * The baseline is frozen while degraded so it does not learn the trickle.
+ */
+final class EventRateStats {
+
+    interface Listener {
+        void onRateDegraded(int slot, double rate, double baseline);
+
+        void onRateRecovered(int slot, double rate, double baseline);
+    }
+
+    /** Gap buckets: [0,1) ms, [1,2), [2,4), ... the last one is open-ended. */
+    static final int BUCKETS = 16;
+
+    private static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int COUNT = 0;
+    private static final int LAST = 1;
+    private static final int HIST = 2;
+    // count, last event time and histogram, rounded up to whole cache lines
+    private static final int STRIDE = 24;
+
+    private final Listener listener;
+    private final double fastAlpha;
+    private final double slowAlpha;
+    private final long warmupSamples;
+    private volatile double dropFraction;
+    private volatile double minBaseline;
+    private volatile AtomicLongArray[] chunks = new AtomicLongArray[0];
+
+    // monitor thread only
+    private long[] lastCount = new long[0];
+    private long[] samples = new long[0];
+    private double[] fastRate = new double[0];
+    private double[] baseline = new double[0];
+    private boolean[] degraded = new boolean[0];
+    private long lastSampleMs;
+
+    /**
+     * @param fastSeconds   time constant of the fast rate
+     * @param slowSeconds   time constant of the baseline
+     * @param dropFraction  degraded below this fraction of baseline; 0 disables alerts
+     * @param minBaseline   baselines below this many events/s are too thin to judge
+     */
+    EventRateStats(Listener listener, double fastSeconds, double slowSeconds, double dropFraction, double minBaseline) {
+        this.listener = listener;
+        this.fastAlpha = 1 - Math.exp(-1 / fastSeconds);
+        this.slowAlpha = 1 - Math.exp(-1 / slowSeconds);
+        this.warmupSamples = (long) slowSeconds;
+        this.dropFraction = dropFraction;
+        this.minBaseline = minBaseline;
+    }
+
+    void setDropFraction(double dropFraction) {
+        this.dropFraction = dropFraction;
+    }
+
+    void setMinBaseline(double minBaseline) {
+        this.minBaseline = minBaseline;
+    }
+
+    /**
+     * Records one event for {@code slot} at {@code now} and returns the gap
+     * since the previous one, or -1 for the first. Allocation-free once the
+     * slot's chunk exists.
+     */
+    long record(int slot, long now) {
+        AtomicLongArray[] current = chunks;
+        int chunk = slot >>> CHUNK_SHIFT;
+        AtomicLongArray block = chunk < current.length ? current[chunk] : grow(chunk);
+        int base = (slot & CHUNK_MASK) * STRIDE;
+
+        long previous = block.get(base + LAST);
+        long gap = -1;
+        if (previous != 0) {
+            gap = now - previous;
+            int bucket = bucketOf(gap);
+            block.lazySet(base + HIST + bucket, block.get(base + HIST + bucket) + 1);
+        }
+        block.lazySet(base + LAST, now);
+        block.lazySet(base + COUNT, block.get(base + COUNT) + 1);
+        return gap;
+    }
+
+    static int bucketOf(long gapMs) {
+        if (gapMs <= 0) {
+            return 0;
+        }
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(gapMs));
+    }
+
+    private synchronized AtomicLongArray grow(int chunk) {
+        AtomicLongArray[] current = chunks;
+        if (chunk < current.length) {
+            return current[chunk];
+        }
+        AtomicLongArray[] grown = Arrays.copyOf(current, chunk + 1);
+        for (int i = current.length; i <= chunk; i++) {
+            grown[i] = new AtomicLongArray(CHUNK_SIZE * STRIDE);
+        }
+        chunks = grown;
+        return grown[chunk];
+    }
+
+    long count(int slot) {
+        AtomicLongArray[] current = chunks;
+        int chunk = slot >>> CHUNK_SHIFT;
+        return chunk < current.length ? current[chunk].get((slot & CHUNK_MASK) * STRIDE + COUNT) : 0;
+    }
+
+    /** Copies the inter-arrival histogram of {@code slot} into {@code into}, which must hold {@link #BUCKETS} entries. */
+    void histogram(int slot, long[] into) {
+        AtomicLongArray[] current = chunks;
+        int chunk = slot >>> CHUNK_SHIFT;
+        if (chunk >= current.length) {
+            Arrays.fill(into, 0, BUCKETS, 0);
+            return;
+        }
+        int base = (slot & CHUNK_MASK) * STRIDE + HIST;
+        for (int b = 0; b < BUCKETS; b++) {
+            into[b] = current[chunk].get(base + b);
+        }
+    }
+
+    /** Latest fast rate in events/s, as of the last {@link #sample(long)}. Monitor thread only. */
+    double rate(int slot) {
+        return slot < fastRate.length ? fastRate[slot] : 0;
+    }
+
+    double baseline(int slot) {
+        return slot < baseline.length ? baseline[slot] : 0;
+    }
+
+    boolean isDegraded(int slot) {
+        return slot < degraded.length && degraded[slot];
+    }
+
+    /** Forgets rates and degraded flags; counters keep running. Monitor thread only. */
+    void resetRates() {
+        Arrays.fill(samples, 0);
+        Arrays.fill(fastRate, 0);
+        Arrays.fill(baseline, 0);
+        Arrays.fill(degraded, false);
+        lastSampleMs = 0;
+    }
+
+    /** Updates the rates of {@code aliases} slots from their counters. Monitor thread only. */
+    void sample(int aliases, long now) {
+        ensureSampleCapacity(aliases);
+        double elapsed = lastSampleMs == 0 ? 0 : (now - lastSampleMs) / 1000.0;
+        lastSampleMs = now;
+        double fraction = dropFraction;
+        double floor = minBaseline;
+
+        for (int slot = 0; slot < aliases; slot++) {
+            long count = count(slot);
+            long delta = count - lastCount[slot];
+            lastCount[slot] = count;
+            // the first sample of a slot only primes its counter
+            if (elapsed <= 0 || samples[slot]++ == 0) {
+                continue;
+            }
+            double instant = delta / elapsed;
+            if (samples[slot] == 2) {
+                fastRate[slot] = instant;
+                baseline[slot] = instant;
+                continue;
+            }
+            fastRate[slot] += fastAlpha * (instant - fastRate[slot]);
+            if (!degraded[slot]) {
+                baseline[slot] += slowAlpha * (instant - baseline[slot]);
+            }
+
+            if (fraction <= 0 || samples[slot] < warmupSamples || baseline[slot] < floor) {
+                continue;
+            }
+            if (!degraded[slot] && fastRate[slot] < fraction * baseline[slot]) {
+                degraded[slot] = true;
+                listener.onRateDegraded(slot, fastRate[slot], baseline[slot]);
+            } else if (degraded[slot] && fastRate[slot] >= recoveryFraction(fraction) * baseline[slot]) {
+                degraded[slot] = false;
+                listener.onRateRecovered(slot, fastRate[slot], baseline[slot]);
+            }
+        }
+    }
+
+    /**
+     * Fraction of the baseline a rate that fell under {@code fraction} of it
+     * must climb back to: twice {@code fraction}, for hysteresis, but never
+     * more than halfway to the baseline itself. Above a fraction of 0.5, twice
+     * it would be at or over the frozen baseline, which a feed back to normal
+     * only reaches about half the time.
+     */
+    static double recoveryFraction(double fraction) {
+        return Math.min(2 * fraction, (1 + fraction) / 2);
+    }
+
+    private void ensureSampleCapacity(int aliases) {
+        if (aliases <= lastCount.length) {
+            return;
+        }
+        int capacity = Math.max(aliases, lastCount.length * 2);
+        lastCount = Arrays.copyOf(lastCount, capacity);
+        samples = Arrays.copyOf(samples, capacity);
+        fastRate = Arrays.copyOf(fastRate, capacity);
+        baseline = Arrays.copyOf(baseline, capacity);
+        degraded = Arrays.copyOf(degraded, capacity);
+    }
+}
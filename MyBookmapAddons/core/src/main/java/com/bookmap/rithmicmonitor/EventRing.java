@@ -0,0 +1,283 @@
+package com.bookmap.rithmicmonitor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Preallocated ring of market data events, published by any number of
+ * threads and read by one or more consumers, each of which sees every event.
+ *
+ * An event is four longs in one flat array: time, type, source and slot,
+ * price and size, so publishing copies primitives and allocates nothing. The
+ * source tells consumers which of the publishers' monitors an event belongs
+ * to. A publisher claims a sequence with one CAS, writes the event and then
+ * marks its entry with that sequence using an ordered store; each consumer
+ * reads entries in order up to the first one not yet marked and releases its
+ * own sequence once it has handled the batch. When the slowest consumer is a
+ * full ring behind, new events are dropped and counted rather than waited
+ * for, so Bookmap's data threads are never held up by the monitor.
+ *
+ * Sequences and the drop count sit on their own cache lines. Idle consumers
+ * wait according to a {@link WaitStrategy} that can be changed at any time.
+ */
+final class EventRing {
+
+    /** What consumers do while the ring is empty. */
+    enum WaitStrategy {
+        /** Busy-spin: lowest latency, a whole core per consumer. */
+        SPIN,
+        /** Spin briefly, then yield to other threads. */
+        YIELD,
+        /** Spin and yield briefly, then sleep {@link #PARK_NANOS} at a time. */
+        PARK;
+
+        /** The strategy named {@code name}, ignoring case, or PARK. */
+        static WaitStrategy parse(String name) {
+            for (WaitStrategy strategy : values()) {
+                if (strategy.name().equalsIgnoreCase(name.trim())) {
+                    return strategy;
+                }
+            }
+            return PARK;
+        }
+    }
+
+    /** One processing stage; called on its consumer's thread, in publish order. */
+    interface Handler {
+        void onDepth(int source, int slot, boolean isBid, int price, int size, long time);
+
+        void onTrade(int source, int slot, double price, int size, long time);
+
+        void onMarketMode(int source, int slot, long time);
+    }
+
+    static final long PARK_NANOS = 1_000_000;
+    static final int SPIN_TRIES = 100;
+    static final int YIELD_TRIES = 100;
+    /** Sources are numbered from 0 up to this, exclusive. */
+    static final int MAX_SOURCES = 1 << 16;
+
+    private static final int DEPTH = 1;
+    private static final int TRADE = 2;
+    private static final int MARKET_MODE = 3;
+    private static final long BID = 1L << 8;
+
+    // event layout
+    private static final int STRIDE = 4;
+    private static final int TIME = 0;
+    private static final int HEADER = 1; // slot << 32 | source << 16 | bid flag | type
+    private static final int PRICE = 2;
+    private static final int SIZE = 3;
+
+    // counter layout, one cache line each
+    private static final int PAD = 8;
+    private static final int CLAIMED = 0;
+    private static final int DROPPED = PAD;
+    private static final int CONSUMED = 2 * PAD; // then one per consumer
+
+    private static final AsyncLog log = AsyncLog.get();
+
+    private final long[] events;
+    // The sequence last written to each entry, so consumers can tell it is complete
+    private final AtomicLongArray written;
+    private final int mask;
+    private final Handler[] handlers;
+    private final AtomicLongArray counters;
+    private final Thread[] consumers;
+    private volatile WaitStrategy waitStrategy;
+    private volatile boolean running = true;
+    // Slowest consumer as last seen by a publisher; only ever behind the real one
+    private volatile long gate;
+
+    /**
+     * @param capacity  events held, rounded up to a power of two
+     * @param name      prefix of the consumer thread names
+     * @param handlers  one consumer thread is started for each
+     */
+    EventRing(int capacity, WaitStrategy waitStrategy, String name, Handler... handlers) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.events = new long[size * STRIDE];
+        this.written = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            written.set(i, -1);
+        }
+        this.mask = size - 1;
+        this.handlers = handlers.clone();
+        this.counters = new AtomicLongArray(CONSUMED + handlers.length * PAD);
+        this.waitStrategy = waitStrategy;
+        this.consumers = new Thread[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            int consumer = i;
+            consumers[i] = new Thread(() -> consume(consumer), name + "-" + i);
+            consumers[i].setDaemon(true);
+            consumers[i].start();
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    void setWaitStrategy(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    /** Any thread; returns false if the event was dropped. */
+    boolean publishDepth(int source, int slot, boolean isBid, int price, int size, long time) {
+        return publish(time, header(source, slot) | (isBid ? BID : 0) | DEPTH, price, size);
+    }
+
+    /** Any thread; returns false if the event was dropped. */
+    boolean publishTrade(int source, int slot, double price, int size, long time) {
+        return publish(time, header(source, slot) | TRADE, Double.doubleToRawLongBits(price), size);
+    }
+
+    /** Any thread; returns false if the event was dropped. */
+    boolean publishMarketMode(int source, int slot, long time) {
+        return publish(time, header(source, slot) | MARKET_MODE, 0, 0);
+    }
+
+    private static long header(int source, int slot) {
+        return (long) slot << 32 | (long) source << 16;
+    }
+
+    private boolean publish(long time, long header, long price, long size) {
+        long sequence;
+        do {
+            sequence = counters.get(CLAIMED);
+            if (sequence - gate > mask) {
+                long slowest = slowestConsumer(sequence);
+                gate = slowest;
+                if (sequence - slowest > mask) {
+                    counters.getAndIncrement(DROPPED);
+                    return false;
+                }
+            }
+        } while (!counters.compareAndSet(CLAIMED, sequence, sequence + 1));
+        int entry = (int) (sequence & mask);
+        int at = entry * STRIDE;
+        events[at + TIME] = time;
+        events[at + HEADER] = header;
+        events[at + PRICE] = price;
+        events[at + SIZE] = size;
+        // Release: a consumer that sees the entry marked with its sequence sees the event
+        written.lazySet(entry, sequence);
+        return true;
+    }
+
+    private long slowestConsumer(long slowest) {
+        for (int i = 0; i < handlers.length; i++) {
+            slowest = Math.min(slowest, counters.get(CONSUMED + i * PAD));
+        }
+        return slowest;
+    }
+
+    /** The sequence the next published event will get; safe to call from any thread. */
+    long claimed() {
+        return counters.get(CLAIMED);
+    }
+
+    /**
+     * Waits up to {@code timeoutMs} until every consumer has handled the
+     * events before {@code sequence}; returns whether they have.
+     */
+    boolean awaitHandled(long sequence, long timeoutMs) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (slowestConsumer(sequence) < sequence) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return true;
+    }
+
+    /** Events dropped because the ring was full; safe to call from any thread. */
+    long droppedCount() {
+        return counters.get(DROPPED);
+    }
+
+    /** Events published and not yet handled by the slowest consumer; safe to call from any thread. */
+    long depth() {
+        long published = counters.get(CLAIMED);
+        long slowest = published;
+        for (int i = 0; i < handlers.length; i++) {
+            slowest = Math.min(slowest, counters.get(CONSUMED + i * PAD));
+        }
+        return published - slowest;
+    }
+
+    private void consume(int consumer) {
+        Handler handler = handlers[consumer];
+        int index = CONSUMED + consumer * PAD;
+        long sequence = counters.get(index);
+        int idle = 0;
+        while (true) {
+            long claimed = counters.get(CLAIMED);
+            // Release space at least four times per lap, so a long backlog does not make the publishers drop
+            long end = Math.min(claimed, sequence + (mask + 1) / 4);
+            long start = sequence;
+            for (; sequence < end; sequence++) {
+                int entry = (int) (sequence & mask);
+                if (written.get(entry) != sequence) {
+                    break; // Claimed, but its publisher is still writing it
+                }
+                int at = entry * STRIDE;
+                long header = events[at + HEADER];
+                int source = (int) (header >>> 16) & (MAX_SOURCES - 1);
+                int slot = (int) (header >>> 32);
+                long time = events[at + TIME];
+                try {
+                    switch ((int) header & 0xff) {
+                        case DEPTH:
+                            handler.onDepth(source, slot, (header & BID) != 0, (int) events[at + PRICE], (int) events[at + SIZE], time);
+                            break;
+                        case TRADE:
+                            handler.onTrade(source, slot, Double.longBitsToDouble(events[at + PRICE]), (int) events[at + SIZE], time);
+                            break;
+                        default:
+                            handler.onMarketMode(source, slot, time);
+                    }
+                } catch (RuntimeException e) {
+                    log.error("❌ {} failed on an event: {}", Thread.currentThread().getName(), e);
+                }
+            }
+            if (sequence == start) {
+                if (!running && claimed == sequence) {
+                    return;
+                }
+                idle = Math.min(idle + 1, SPIN_TRIES + YIELD_TRIES + 1);
+                idle(idle);
+                continue;
+            }
+            idle = 0;
+            counters.lazySet(index, sequence);
+        }
+    }
+
+    private void idle(int tries) {
+        WaitStrategy strategy = waitStrategy;
+        if (strategy == WaitStrategy.SPIN || tries <= SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (strategy == WaitStrategy.YIELD || tries <= SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    /** Stops the consumers once they have handled every published event, waiting up to {@code timeoutMs} for them. */
+    void close(long timeoutMs) {
+        running = false;
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        for (Thread consumer : consumers) {
+            try {
+                consumer.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
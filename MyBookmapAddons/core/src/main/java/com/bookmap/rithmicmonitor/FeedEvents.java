@@ -0,0 +1,146 @@
+package com.bookmap.rithmicmonitor;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * The one {@link EventRing} and consumer set behind every chart's
+ * {@link FeedPipeline}.
+ *
+ * Each pipeline registers its {@link FeedMonitor} as a source and tags the
+ * events it publishes with the source number. Two consumer threads run the
+ * stages of whichever monitor an event belongs to: monitoring (last seen,
+ * event rates and gaps) and market analytics (order book and traded volume).
+ * Each stage owns its per-slot state, so the stages need no locks between
+ * them, and a slow book check can never delay the silence detection. A
+ * workspace with a dozen charts therefore runs two consumer threads rather
+ * than two per chart, and they poll one ring instead of a dozen.
+ *
+ * A source number is reused only once every event published under it has
+ * been handled, so a new chart never sees a closed chart's events.
+ */
+final class FeedEvents implements AutoCloseable {
+
+    /** 32 bytes per event, 4 MB shared by all charts. */
+    static final int CAPACITY = 1 << 17;
+    static final long CLOSE_TIMEOUT_MS = 1_000;
+
+    private static final AsyncLog log = AsyncLog.get();
+
+    private final EventRing ring;
+    // Indexed by source; copied on every change, read by the consumers for every event
+    private volatile FeedMonitor[] sources = new FeedMonitor[0];
+    private final ArrayDeque<Integer> free = new ArrayDeque<>();
+    private int nextSource;
+
+    FeedEvents(EventRing.WaitStrategy waitStrategy) {
+        EventRing.Handler monitoring = new EventRing.Handler() {
+            @Override
+            public void onDepth(int source, int slot, boolean isBid, int price, int size, long time) {
+                FeedMonitor monitor = monitor(source);
+                if (monitor != null) {
+                    monitor.seen(slot, time);
+                }
+            }
+
+            @Override
+            public void onTrade(int source, int slot, double price, int size, long time) {
+                FeedMonitor monitor = monitor(source);
+                if (monitor != null) {
+                    monitor.seen(slot, time);
+                }
+            }
+
+            @Override
+            public void onMarketMode(int source, int slot, long time) {
+                FeedMonitor monitor = monitor(source);
+                if (monitor != null) {
+                    monitor.liveness().touch(slot, time);
+                }
+            }
+        };
+        EventRing.Handler analytics = new EventRing.Handler() {
+            @Override
+            public void onDepth(int source, int slot, boolean isBid, int price, int size, long time) {
+                FeedMonitor monitor = monitor(source);
+                if (monitor != null) {
+                    monitor.applyDepth(slot, isBid, price, size, time);
+                }
+            }
+
+            @Override
+            public void onTrade(int source, int slot, double price, int size, long time) {
+                FeedMonitor monitor = monitor(source);
+                if (monitor != null) {
+                    monitor.applyTrade(slot, price, size);
+                }
+            }
+
+            @Override
+            public void onMarketMode(int source, int slot, long time) {
+            }
+        };
+        this.ring = new EventRing(CAPACITY, waitStrategy, "SimpleTelegramNotifier-events", monitoring, analytics);
+    }
+
+    private FeedMonitor monitor(int source) {
+        FeedMonitor[] current = sources;
+        return source < current.length ? current[source] : null;
+    }
+
+    EventRing ring() {
+        return ring;
+    }
+
+    /** Routes events published under the returned source number to {@code monitor}. */
+    synchronized int register(FeedMonitor monitor) {
+        Integer reused = free.poll();
+        int source = reused != null ? reused : nextSource++;
+        if (source >= EventRing.MAX_SOURCES) {
+            throw new IllegalStateException("More than " + EventRing.MAX_SOURCES + " charts on one event ring");
+        }
+        FeedMonitor[] grown = Arrays.copyOf(sources, Math.max(sources.length, source + 1));
+        grown[source] = monitor;
+        sources = grown;
+        return source;
+    }
+
+    /**
+     * Waits up to {@code timeoutMs} for the events already published under
+     * {@code source} to be handled, then stops routing it.
+     */
+    void unregister(int source, long timeoutMs) {
+        boolean drained = ring.awaitHandled(ring.claimed(), timeoutMs);
+        synchronized (this) {
+            FeedMonitor[] shrunk = sources.clone();
+            shrunk[source] = null;
+            sources = shrunk;
+            if (drained) {
+                free.push(source);
+            } else {
+                // Events of this source may still be in the ring, so its number is not handed out again
+                log.warn("⚠️ Event ring still busy after {} ms, source {} retired", timeoutMs, source);
+            }
+        }
+    }
+
+    void setWaitStrategy(EventRing.WaitStrategy waitStrategy) {
+        ring.setWaitStrategy(waitStrategy);
+    }
+
+    /** Events dropped because the ring was full, over all charts. */
+    long droppedCount() {
+        return ring.droppedCount();
+    }
+
+    /** Events published and not yet handled, over all charts. */
+    long depth() {
+        return ring.depth();
+    }
+
+    /** Stops the consumers after they have handled what was already published. */
+    @Override
+    public void close() {
+        ring.close(CLOSE_TIMEOUT_MS);
+    }
+}
@@ -0,0 +1,628 @@
+package com.bookmap.rithmicmonitor;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.BitSet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Silence, recovery and feed-rate monitoring for the instruments of one
+ * layers chain, independent of Bookmap and Swing.
+ *
+ * The data callbacks only call {@link #onData(String)} or {@link #touch(String)},
+ * or hand the same work to a {@link FeedPipeline} through the per-slot
+ * {@link #seen(int, long)}, {@link #applyDepth} and {@link #applyTrade};
+ * everything else runs as tasks on the given scheduler, which must be single
+ * threaded. All time comes from the given {@link CoarseClock}, so with a
+ * manual clock and a scheduler that runs on it the whole monitor runs on
+ * virtual time.
+ *
+ * Connection and instrument status reported by the provider is handled as
+ * well. An explicit disconnect or failed login is alerted at once, without
+ * waiting for the digest window; the silence timeout remains the fallback
+ * for feeds that die without saying so. While the provider reports the
+ * connection down, per-alias silence is journaled but not alerted, since the
+ * disconnect alert already covers it. Removed instruments stop being watched.
+ * An alias that goes silent outside the trading schedule is journaled only;
+ * if it is still silent when the schedule opens, it is alerted then.
+ *
+ * With {@code adaptiveTimeout} on, every alias gets its own timeout, learned
+ * from a {@link GapSketch} of its inter-arrival gaps at the current hour of
+ * day: {@link #TIMEOUT_MARGIN} times the {@link #TIMEOUT_QUANTILE} gap,
+ * clamped to the configured minimum and maximum. An alias falls back to its
+ * gaps over all hours, then to {@code timeoutSeconds}, until it has
+ * {@link #MIN_SAMPLES} gaps to learn from.
+ *
+ * Depth and trades also keep a small {@link OrderBook} per alias, checked
+ * once a second by a {@link BookWatch} for a crossed, frozen or implausibly
+ * wide top of book, and trades add to {@link VolumeWindows} that report
+ * bursts and droughts of traded volume.
+ */
+final class FeedMonitor implements TimeoutWheel.Listener, EventRateStats.Listener, BookWatch.Listener,
+        VolumeWindows.Listener {
+
+    /** What the monitor needs from its surroundings. */
+    interface Host {
+        NotifierConfig config();
+
+        /** False while alerts are suppressed by the trading schedule. */
+        boolean isWithinTimeRange();
+    }
+
+    static final long TICK_MS = 100;
+    static final double TIMEOUT_QUANTILE = 0.999;
+    static final double TIMEOUT_MARGIN = 1.5;
+    static final int MIN_SAMPLES = 500;
+
+    private static final AsyncLog log = AsyncLog.get();
+
+    private final ScheduledExecutorService scheduler;
+    private final CoarseClock clock;
+    private final AlertAggregator alerts;
+    private final OutageJournal journal;
+    private final Host host;
+    private final LivenessTracker liveness;
+    // 100 ms ticks x 512 buckets: silence is reported within one tick of each alias' own deadline
+    private final TimeoutWheel timeoutWheel;
+    // 10 s fast rate against a 10 min baseline; baselines under 1 update/s are too thin to judge
+    private final EventRateStats rateStats;
+    private final GapSketch gaps = new GapSketch();
+    private final BookWatch books = new BookWatch(this);
+    private final VolumeWindows volume;
+    // Learned timeouts per slot in ms, 0 = configured; replaced as a whole by the monitor thread
+    private volatile long[] adaptiveTimeouts = new long[0];
+
+    private final MonitorState state = new MonitorState();
+    private final SlotStatus slotStatus = new SlotStatus();
+    // Monitor tasks are created and cancelled on the scheduler thread only
+    private ScheduledFuture<?> timeoutTask;
+    private ScheduledFuture<?> periodicTask;
+    private ScheduledFuture<?> rateTask;
+    private ScheduledFuture<?> adaptiveTask;
+    // Written by the monitor thread only
+    private volatile boolean disconnected;
+    // Slots that went silent outside the time range and were not alerted yet; monitor thread only
+    private final BitSet suppressedSilent = new BitSet();
+
+    FeedMonitor(ScheduledExecutorService scheduler, CoarseClock clock, AlertAggregator alerts, OutageJournal journal, Host host) {
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.alerts = alerts;
+        this.journal = journal;
+        this.host = host;
+        this.liveness = new LivenessTracker(clock);
+        this.timeoutWheel = new TimeoutWheel(liveness, this, TICK_MS, 512, 1000);
+        this.rateStats = new EventRateStats(this, 10, 600, host.config().rateDropPercent() / 100.0, 1.0);
+        this.volume = new VolumeWindows(this, host.config().volumeBurstMultiple(), host.config().volumeDroughtPercent() / 100.0);
+    }
+
+    LivenessTracker liveness() {
+        return liveness;
+    }
+
+    /** A depth or trade update: marks the alias as alive and counts it. */
+    void onData(String alias) {
+        record(alias, clock.millis());
+    }
+
+    /** A depth update: counted like {@link #onData(String)}, and applied to the alias' book. */
+    void onDepth(String alias, boolean isBid, int price, int size) {
+        long now = clock.millis();
+        applyDepth(record(alias, now), isBid, price, size, now);
+    }
+
+    /** A trade: counted like {@link #onData(String)}, checked against the alias' top of book and added to its volume. */
+    void onTrade(String alias, double price, int size) {
+        applyTrade(record(alias, clock.millis()), price, size);
+    }
+
+    private int record(String alias, long now) {
+        int slot = liveness.slotOf(alias);
+        seen(slot, now);
+        return slot;
+    }
+
+    /** Liveness, rate and gap bookkeeping for one depth or trade update. One thread per slot. */
+    void seen(int slot, long time) {
+        liveness.touch(slot, time);
+        long gap = rateStats.record(slot, time);
+        if (gap >= 0) {
+            gaps.record(slot, gap, time);
+        }
+    }
+
+    /** Applies a depth update to the slot's book. One thread per slot. */
+    void applyDepth(int slot, boolean isBid, int price, int size, long time) {
+        books.book(slot).onDepth(isBid, price, size, time);
+    }
+
+    /** Checks a trade against the slot's top of book and adds it to its volume. One thread per slot. */
+    void applyTrade(int slot, double price, int size) {
+        books.book(slot).onTrade(price);
+        volume.record(slot, size);
+    }
+
+    /** Marks the alias as alive without counting an event. */
+    void touch(String alias) {
+        liveness.touch(alias);
+    }
+
+    /** Depth and trade updates counted for {@code slot}; safe to call from any thread. */
+    long eventCount(int slot) {
+        return rateStats.count(slot);
+    }
+
+    GapSketch gaps() {
+        return gaps;
+    }
+
+    BookWatch books() {
+        return books;
+    }
+
+    VolumeWindows volume() {
+        return volume;
+    }
+
+    /** Timeout in effect for {@code slot}: the learned one, or the configured one. */
+    long timeoutMs(int slot) {
+        long[] learned = adaptiveTimeouts;
+        return slot < learned.length && learned[slot] > 0 ? learned[slot] : host.config().timeoutSeconds() * 1000L;
+    }
+
+    MonitorState state() {
+        return state;
+    }
+
+    SlotStatus slotStatus() {
+        return slotStatus;
+    }
+
+    /** True while the provider reports the connection lost or the login failed. */
+    boolean isDisconnected() {
+        return disconnected;
+    }
+
+    void onConnectionLost(String reason, String message) {
+        long now = clock.millis();
+        scheduler.execute(() -> connectionDown(now, OutageJournal.CONNECTION_LOST,
+                "Connection lost: " + describe(reason, message)));
+    }
+
+    void onLoginFailed(String reason, String message) {
+        long now = clock.millis();
+        scheduler.execute(() -> connectionDown(now, OutageJournal.LOGIN_FAILED,
+                "Login failed: " + describe(reason, message)));
+    }
+
+    /** Connection restored or login successful. */
+    void onConnectionRestored() {
+        long now = clock.millis();
+        scheduler.execute(() -> connectionUp(now));
+    }
+
+    /** An instrument was subscribed: its silence timer starts now, even if no data ever arrives. */
+    void onInstrumentAdded(String alias) {
+        int slot = liveness.touch(alias);
+        long now = clock.millis();
+        // Levels left from an earlier subscription would be stale
+        books.clear(slot);
+        scheduler.execute(() -> {
+            slotStatus.setRemoved(slot, false);
+            timeoutWheel.rearm(slot, now, timeoutMs(slot));
+        });
+    }
+
+    /** An instrument was unsubscribed: its silence is expected and no longer alerted. */
+    void onInstrumentRemoved(String alias) {
+        int slot = liveness.slotOf(alias);
+        long now = clock.millis();
+        scheduler.execute(() -> {
+            boolean wasSilent = timeoutWheel.isSilent(slot);
+            timeoutWheel.retire(slot);
+            suppressedSilent.clear(slot);
+            slotStatus.setRemoved(slot, true);
+            journal.append(now, OutageJournal.INSTRUMENT_REMOVED, slot, 0, 0, alias);
+            log.info("➖ Instrument removed: {}", alias);
+            if (wasSilent && timeoutWheel.silentCount() == 0 && state.recovered()) {
+                cancelPeriodicTask();
+            }
+        });
+    }
+
+    void onInstrumentNotFound(String symbol, String exchange, String type) {
+        long now = clock.millis();
+        scheduler.execute(() -> {
+            String text = "Instrument not found: " + symbol + (exchange == null || exchange.isEmpty() ? "" : " on " + exchange);
+            log.warn("🔴 {} ({})", text, type);
+            journal.append(now, OutageJournal.INSTRUMENT_NOT_FOUND, -1, 0, 0, symbol);
+            if (state.isRunning() && host.isWithinTimeRange()) {
+                alerts.urgent(text, now);
+            }
+        });
+    }
+
+    private static String describe(String reason, String message) {
+        return message == null || message.isEmpty() ? reason : reason + " - " + message;
+    }
+
+    private void connectionDown(long now, int type, String text) {
+        journal.append(now, type, -1, 0, 0, text);
+        if (disconnected) {
+            log.info("{} (already disconnected)", text);
+            return;
+        }
+        disconnected = true;
+        log.warn("🔴 {}", text);
+        // Reminders would only repeat the outage; restarted on reconnect if still silent
+        cancelPeriodicTask();
+        if (state.isRunning() && host.isWithinTimeRange()) {
+            alerts.urgent(text, now);
+        }
+    }
+
+    private void connectionUp(long now) {
+        if (!disconnected) {
+            return;
+        }
+        disconnected = false;
+        journal.append(now, OutageJournal.CONNECTION_RESTORED, -1, 0, 0);
+        log.info("✅ Connection restored");
+        if (state.isRunning() && host.isWithinTimeRange()) {
+            alerts.urgent("Connection restored", now);
+        }
+        if (state.timedOutSince() != 0 && timeoutWheel.silentCount() > 0) {
+            startPeriodicTask();
+        }
+    }
+
+    void setDropFraction(double dropFraction) {
+        rateStats.setDropFraction(dropFraction);
+    }
+
+    void setVolumeThresholds(double burstMultiple, double droughtFraction) {
+        volume.setThresholds(burstMultiple, droughtFraction);
+    }
+
+    boolean isRunning() {
+        return state.isRunning();
+    }
+
+    /** Returns false if monitoring was already running. */
+    boolean start() {
+        if (!state.start()) {
+            return false;
+        }
+        journal.append(clock.millis(), OutageJournal.MONITOR_START, -1, 0, 0);
+        scheduler.execute(this::onMonitoringStarted);
+        NotifierConfig current = host.config();
+        log.info("✅ Data monitoring started - timeout: {} seconds, periodic: {} seconds", current.timeoutSeconds(), current.periodicSeconds());
+        return true;
+    }
+
+    /** Returns false if monitoring was already stopped. */
+    boolean stop() {
+        if (!state.stop()) {
+            return false;
+        }
+        journal.append(clock.millis(), OutageJournal.MONITOR_STOP, -1, 0, 0);
+        scheduler.execute(this::cancelMonitorTasks);
+        log.info("⏹️ Data monitoring stopped");
+        return true;
+    }
+
+    private void onMonitoringStarted() {
+        cancelMonitorTasks();
+        timeoutWheel.reset();
+        suppressedSilent.clear();
+        rateStats.resetRates();
+        books.reset();
+        volume.resetWindows();
+        timeoutTask = scheduler.scheduleAtFixedRate(this::checkDataTimeout, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+        rateTask = scheduler.scheduleAtFixedRate(this::sampleFeeds, 1, 1, TimeUnit.SECONDS);
+        adaptiveTask = scheduler.scheduleAtFixedRate(this::updateAdaptiveTimeouts, 0, 1, TimeUnit.MINUTES);
+    }
+
+    private void cancelMonitorTasks() {
+        if (timeoutTask != null) {
+            timeoutTask.cancel(false);
+            timeoutTask = null;
+        }
+        if (rateTask != null) {
+            rateTask.cancel(false);
+            rateTask = null;
+        }
+        if (adaptiveTask != null) {
+            adaptiveTask.cancel(false);
+            adaptiveTask = null;
+        }
+        cancelPeriodicTask();
+    }
+
+    private void cancelPeriodicTask() {
+        if (periodicTask != null) {
+            periodicTask.cancel(false);
+            periodicTask = null;
+        }
+    }
+
+    private void checkDataTimeout() {
+        if (!state.isRunning()) return;
+
+        long now = liveness.now();
+        timeoutWheel.advance(now, host.config().timeoutSeconds() * 1000L);
+        if (!suppressedSilent.isEmpty() && host.isWithinTimeRange()) {
+            alertSuppressed(now);
+        }
+    }
+
+    /** The time range opened: alerts aliases that went silent outside it and still are. */
+    private void alertSuppressed(long now) {
+        for (int slot = suppressedSilent.nextSetBit(0); slot >= 0; slot = suppressedSilent.nextSetBit(slot + 1)) {
+            if (timeoutWheel.isSilent(slot) && !slotStatus.isRemoved(slot)) {
+                alertSilent(slot, liveness.lastSeen(slot), now);
+            }
+        }
+        suppressedSilent.clear();
+    }
+
+    /**
+     * Recomputes every alias' timeout from its gap sketch for the current
+     * hour and hands them to the wheel. Monitor thread only, once a minute.
+     */
+    private void updateAdaptiveTimeouts() {
+        NotifierConfig current = host.config();
+        if (!current.adaptiveTimeout()) {
+            if (adaptiveTimeouts.length > 0) {
+                adaptiveTimeouts = new long[0];
+                timeoutWheel.setTimeouts(adaptiveTimeouts);
+            }
+            return;
+        }
+        long now = clock.millis();
+        ZoneId zone;
+        try {
+            zone = WeeklySchedule.parseZone(current.timeZone());
+        } catch (IllegalArgumentException e) {
+            zone = ZoneId.systemDefault();
+        }
+        gaps.setOffsetMs(zone.getRules().getOffset(Instant.ofEpochMilli(now)).getTotalSeconds() * 1000L);
+        int hour = gaps.hourOf(now);
+        long floor = current.minTimeoutSeconds() * 1000L;
+        long ceiling = Math.max(floor, current.maxTimeoutSeconds() * 1000L);
+
+        long[] learned = new long[liveness.size()];
+        for (int slot = 0; slot < learned.length; slot++) {
+            long gap = 0;
+            if (gaps.samples(slot, hour) >= MIN_SAMPLES) {
+                gap = gaps.quantile(slot, hour, TIMEOUT_QUANTILE);
+            } else if (gaps.samples(slot, -1) >= MIN_SAMPLES) {
+                gap = gaps.quantile(slot, -1, TIMEOUT_QUANTILE);
+            }
+            if (gap > 0) {
+                learned[slot] = Math.min(ceiling, Math.max(floor, (long) (gap * TIMEOUT_MARGIN)));
+            }
+        }
+        adaptiveTimeouts = learned;
+        timeoutWheel.setTimeouts(learned);
+    }
+
+    @Override
+    public void onSilent(int slot, long lastSeen, long now) {
+        String alias = liveness.aliasAt(slot);
+        long timeoutSeconds = timeoutMs(slot) / 1000;
+        log.warn("🔴 No data for {} after {} seconds", alias, timeoutSeconds);
+
+        // Check if we're within the configured time range
+        if (!host.isWithinTimeRange()) {
+            journal.append(now, OutageJournal.GAP_SUPPRESSED, slot, lastSeen, timeoutSeconds, alias);
+            slotStatus.alerted(slot, OutageJournal.GAP_SUPPRESSED, now);
+            suppressedSilent.set(slot);
+            return; // Alerted when the time range opens, if still silent then
+        }
+        alertSilent(slot, lastSeen, now);
+    }
+
+    private void alertSilent(int slot, long lastSeen, long now) {
+        String alias = liveness.aliasAt(slot);
+        long timeoutSeconds = timeoutMs(slot) / 1000;
+        journal.append(now, OutageJournal.GAP_START, slot, lastSeen, timeoutSeconds, alias);
+        slotStatus.alerted(slot, OutageJournal.GAP_START, now);
+        if (!disconnected) {
+            alerts.silent(alias, timeoutSeconds);
+        }
+        if (state.timedOut(now) && !disconnected) {
+            startPeriodicTask();
+        }
+    }
+
+    /** Starts periodic alerts if configured and not running yet. */
+    private void startPeriodicTask() {
+        int periodicSeconds = host.config().periodicSeconds();
+        if (periodicSeconds > 0 && periodicTask == null) {
+            log.info("⏰ Starting periodic alerts every {} seconds", periodicSeconds);
+            // Start periodic alerts after the first periodic interval to avoid duplicate messages
+            periodicTask = scheduler.scheduleAtFixedRate(this::sendPeriodicTimeoutAlert, periodicSeconds, periodicSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void onRecovered(int slot, long silentForMs, long now) {
+        String alias = liveness.aliasAt(slot);
+        log.info("✅ Data received for {} after {} seconds of silence", alias, silentForMs / 1000);
+        suppressedSilent.clear(slot);
+        journal.append(now, OutageJournal.GAP_END, slot, silentForMs, 0, alias);
+        slotStatus.alerted(slot, OutageJournal.GAP_END, now);
+        if (host.isWithinTimeRange()) {
+            alerts.recovered(alias);
+        }
+        if (timeoutWheel.silentCount() == 0 && state.recovered()) {
+            cancelPeriodicTask();
+        }
+    }
+
+    private void sampleFeeds() {
+        if (!state.isRunning()) return;
+
+        long now = liveness.now();
+        int aliases = liveness.size();
+        rateStats.sample(aliases, now);
+        volume.sample(aliases);
+        if (disconnected) {
+            return; // the book of a dead connection is stale, and already alerted
+        }
+        int maxSpreadTicks = host.config().maxSpreadTicks();
+        for (int slot = 0; slot < aliases; slot++) {
+            if (!timeoutWheel.isSilent(slot) && !slotStatus.isRemoved(slot)) {
+                books.check(slot, now, maxSpreadTicks);
+            }
+        }
+    }
+
+    @Override
+    public void onRateDegraded(int slot, double rate, double baseline) {
+        String alias = liveness.aliasAt(slot);
+        String text = String.format("Feed degraded for %s: %.1f updates/s vs %.1f/s baseline", alias, rate, baseline);
+        log.warn("🟠 {}", text);
+        long now = clock.millis();
+        journal.append(now, OutageJournal.RATE_DEGRADED, slot, (long) (rate * 1000), (long) (baseline * 1000), alias);
+        slotStatus.alerted(slot, OutageJournal.RATE_DEGRADED, now);
+        if (host.isWithinTimeRange()) {
+            alerts.message(text);
+        }
+    }
+
+    @Override
+    public void onRateRecovered(int slot, double rate, double baseline) {
+        String alias = liveness.aliasAt(slot);
+        log.info("✅ Feed rate recovered for {}", alias);
+        long now = clock.millis();
+        journal.append(now, OutageJournal.RATE_RECOVERED, slot, (long) (rate * 1000), (long) (baseline * 1000), alias);
+        slotStatus.alerted(slot, OutageJournal.RATE_RECOVERED, now);
+        if (host.isWithinTimeRange()) {
+            alerts.message("Feed rate recovered for " + alias);
+        }
+    }
+
+    @Override
+    public void onBookFault(int slot, int type, OrderBook book, long now) {
+        String alias = liveness.aliasAt(slot);
+        int bid = book.bestBid();
+        int ask = book.bestAsk();
+        String text;
+        if (type == OutageJournal.BOOK_CROSSED) {
+            text = "Book crossed for " + alias + ": best bid " + bid + " at or above best ask " + ask;
+            journal.append(now, type, slot, bid, ask, alias);
+        } else if (type == OutageJournal.BOOK_FROZEN) {
+            long frozenMs = now - book.topChangedAt();
+            text = "Book frozen for " + alias + ": top unchanged for " + frozenMs / 1000 + " seconds while "
+                    + book.tradesThrough() + " trades printed outside it";
+            journal.append(now, type, slot, frozenMs, book.tradesThrough(), alias);
+        } else {
+            text = "Spread for " + alias + " is " + ((long) ask - bid) + " ticks, over the "
+                    + host.config().maxSpreadTicks() + " tick limit";
+            journal.append(now, type, slot, bid, ask, alias);
+        }
+        log.warn("🟠 {}", text);
+        slotStatus.alerted(slot, type, now);
+        if (host.isWithinTimeRange()) {
+            alerts.message(text);
+        }
+    }
+
+    @Override
+    public void onBookRecovered(int slot, OrderBook book, long now) {
+        String alias = liveness.aliasAt(slot);
+        log.info("✅ Book back to normal for {}", alias);
+        journal.append(now, OutageJournal.BOOK_OK, slot, book.bestBid(), book.bestAsk(), alias);
+        slotStatus.alerted(slot, OutageJournal.BOOK_OK, now);
+        if (host.isWithinTimeRange()) {
+            alerts.message("Book back to normal for " + alias);
+        }
+    }
+
+    @Override
+    public void onVolumeBurst(int slot, double rate, double baseline) {
+        volumeAlert(slot, OutageJournal.VOLUME_BURST, rate, baseline, String.format(
+                "Volume burst for %s: %.1f contracts/s vs %.1f/s baseline", liveness.aliasAt(slot), rate, baseline));
+    }
+
+    @Override
+    public void onVolumeDrought(int slot, double rate, double baseline) {
+        volumeAlert(slot, OutageJournal.VOLUME_DROUGHT, rate, baseline, String.format(
+                "Volume drought for %s: %.1f contracts/s vs %.1f/s baseline", liveness.aliasAt(slot), rate, baseline));
+    }
+
+    @Override
+    public void onVolumeNormal(int slot, double rate, double baseline) {
+        volumeAlert(slot, OutageJournal.VOLUME_NORMAL, rate, baseline, "Volume back to normal for " + liveness.aliasAt(slot));
+    }
+
+    private void volumeAlert(int slot, int type, double rate, double baseline, String text) {
+        if (type == OutageJournal.VOLUME_NORMAL) {
+            log.info("✅ {}", text);
+        } else {
+            log.warn("🟠 {}", text);
+        }
+        long now = clock.millis();
+        journal.append(now, type, slot, (long) (rate * 1000), (long) (baseline * 1000), liveness.aliasAt(slot));
+        slotStatus.alerted(slot, type, now);
+        if (host.isWithinTimeRange()) {
+            alerts.message(text);
+        }
+    }
+
+    private void sendPeriodicTimeoutAlert() {
+        long timeoutStartTime = state.timedOutSince();
+        if (timeoutStartTime == 0) {
+            // Stopped or recovered since this run was queued
+            cancelPeriodicTask();
+            return;
+        }
+
+        // Check if we're within the configured time range
+        if (!host.isWithinTimeRange()) {
+            return; // Don't send alerts outside of time range
+        }
+        if (disconnected) {
+            return; // Queued before the connection dropped
+        }
+
+        NotifierConfig current = host.config();
+        if (current.periodicSeconds() <= 0) {
+            // Periodic alerts were switched off by a config change
+            cancelPeriodicTask();
+            return;
+        }
+
+        if (timeoutWheel.silentCount() > 0) {
+            // Calculate how many periodic intervals have passed since timeout started
+            long currentTime = liveness.now();
+            long timeSinceTimeout = currentTime - timeoutStartTime;
+            long periodicIntervalsPassed = timeSinceTimeout / (current.periodicSeconds() * 1000L);
+
+            // Counted from the longest timeout among the silent aliases, as learned ones differ
+            StringBuilder silent = new StringBuilder();
+            long timeoutSeconds = 0;
+            for (int slot = 0; slot < liveness.size(); slot++) {
+                if (timeoutWheel.isSilent(slot)) {
+                    if (silent.length() > 0) silent.append(", ");
+                    silent.append(liveness.aliasAt(slot));
+                    timeoutSeconds = Math.max(timeoutSeconds, timeoutMs(slot) / 1000);
+                }
+            }
+            long totalSeconds = timeoutSeconds + (periodicIntervalsPassed * current.periodicSeconds());
+
+            log.info("📡 Periodic alert: {} seconds total", totalSeconds);
+            journal.append(currentTime, OutageJournal.PERIODIC_ALERT, -1, totalSeconds, timeoutWheel.silentCount());
+            alerts.reminder(silent.toString(), totalSeconds);
+        } else {
+            // Data has returned, stop periodic alerts
+            log.info("✅ Data returned, stopping periodic alerts");
+            state.recovered();
+            cancelPeriodicTask();
+        }
+    }
+}
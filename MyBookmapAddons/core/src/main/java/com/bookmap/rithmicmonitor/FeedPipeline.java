@@ -0,0 +1,70 @@
+package com.bookmap.rithmicmonitor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Takes the work of the data callbacks off Bookmap's data thread.
+ *
+ * A callback only resolves its alias to a slot and publishes a primitive
+ * event, tagged with this chart's source number, into the shared
+ * {@link FeedEvents} ring, whose consumer threads then run the stages of this
+ * chart's {@link FeedMonitor}. When the ring is full events are dropped and
+ * counted, and the data thread carries on.
+ *
+ * A layers chain delivers its callbacks on one thread, which is the only
+ * publisher of this chart's events; charts on other threads publish into the
+ * same ring concurrently.
+ */
+final class FeedPipeline implements AutoCloseable {
+
+    private final LivenessTracker liveness;
+    private final CoarseClock clock;
+    private final FeedEvents events;
+    private final EventRing ring;
+    private final int source;
+    private final AtomicLong dropped = new AtomicLong();
+    // publisher only
+    private long droppedHere;
+
+    FeedPipeline(FeedMonitor monitor, CoarseClock clock, FeedEvents events) {
+        this.liveness = monitor.liveness();
+        this.clock = clock;
+        this.events = events;
+        this.ring = events.ring();
+        this.source = events.register(monitor);
+    }
+
+    void onDepth(String alias, boolean isBid, int price, int size) {
+        if (!ring.publishDepth(source, liveness.slotOf(alias), isBid, price, size, clock.millis())) {
+            dropped.lazySet(++droppedHere);
+        }
+    }
+
+    void onTrade(String alias, double price, int size) {
+        if (!ring.publishTrade(source, liveness.slotOf(alias), price, size, clock.millis())) {
+            dropped.lazySet(++droppedHere);
+        }
+    }
+
+    void onMarketMode(String alias) {
+        if (!ring.publishMarketMode(source, liveness.slotOf(alias), clock.millis())) {
+            dropped.lazySet(++droppedHere);
+        }
+    }
+
+    /** This chart's events dropped because the shared ring was full. */
+    long droppedCount() {
+        return dropped.get();
+    }
+
+    /** Events published by every chart and not yet handled. */
+    long depth() {
+        return events.depth();
+    }
+
+    /** Stops routing this chart's events once what it already published has been handled. */
+    @Override
+    public void close() {
+        events.unregister(source, FeedEvents.CLOSE_TIMEOUT_MS);
+    }
+}
@@ -0,0 +1,47 @@
+package com.bookmap.rithmicmonitor;
+
+/**
+ * Read-only view of one chart's monitor, for a status display.
+ *
+ * Rows are the aliases in the order they were first seen, from 0 to
+ * {@link #size()} - 1; a row keeps its number for the life of the chart.
+ * Every call reads the monitor's live counters without locking, so it is cheap
+ * enough to call for each painted cell and any thread may call it. Values read
+ * one after another may be a moment apart.
+ */
+public interface FeedStatus {
+
+    /** {@link #lastSeen(int)} of an alias with no data yet. */
+    long NEVER = LivenessTracker.NEVER;
+
+    /** Number of aliases seen so far. */
+    int size();
+
+    String alias(int row);
+
+    /** Time of the last event for {@code row}, or {@link #NEVER}. */
+    long lastSeen(int row);
+
+    /** Depth and trade updates counted for {@code row}. */
+    long eventCount(int row);
+
+    /** Silence after which {@code row} is reported: the learned timeout, or the configured one. */
+    long timeoutMs(int row);
+
+    /** True once the alias was unsubscribed. */
+    boolean isRemoved(int row);
+
+    /** The last alert raised for {@code row}, or null if there was none. */
+    AlertType alertType(int row);
+
+    /** Time of the last alert for {@code row}, or 0 if there was none. */
+    long alertTime(int row);
+
+    boolean isRunning();
+
+    /** True while the provider reports the connection lost or the login failed. */
+    boolean isDisconnected();
+
+    /** The monitor's clock, to compare with {@link #lastSeen(int)} and {@link #alertTime(int)}. */
+    long now();
+}
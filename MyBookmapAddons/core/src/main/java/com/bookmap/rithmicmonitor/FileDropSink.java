@@ -0,0 +1,48 @@
+package com.bookmap.rithmicmonitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Writes each alert to its own file in a drop directory for ops tooling to
+ * pick up. Files are named {@code alert-<epochMillis>-<seq>.txt} and are
+ * written under a temporary name first, then moved into place, so a watcher
+ * never reads half an alert.
+ */
+final class FileDropSink implements NotificationSink {
+
+    private final Path directory;
+    private long sequence;
+
+    FileDropSink(File directory) {
+        this.directory = directory.toPath();
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public long timeoutMs() {
+        return 2_000;
+    }
+
+    @Override
+    public void deliver(String text) throws IOException {
+        Files.createDirectories(directory);
+        String name = "alert-" + System.currentTimeMillis() + "-" + (sequence++) + ".txt";
+        Path temp = directory.resolve(name + ".tmp");
+        Files.writeString(temp, text + System.lineSeparator(), StandardCharsets.UTF_8);
+        try {
+            Files.move(temp, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, directory.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.bookmap.rithmicmonitor;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Streaming quantile sketch of inter-arrival gaps per alias and hour of day.
+ *
+ * Each alias owns {@link #HOURS} rows of {@link #BUCKETS} log-scale buckets,
+ * two per power of two from 1 ms up to about 17 minutes, so any quantile is
+ * known to within a factor of 1.5. A row is one {@code int} array of fixed
+ * size (about 4 KB per alias in all), allocated on the alias' first event;
+ * after that recording only bumps two counters. The first gap a row gets on
+ * a new day halves every count in it once the row holds {@link #DECAY_FLOOR}
+ * gaps, so each earlier trading day weighs half as much as the one after it
+ * whether the alias ticks a hundred times an hour or a million, while a thin
+ * row keeps collecting until it has enough to learn from. Days without data
+ * (weekends, holidays) do not age a row. Counts are also halved if a row ever
+ * reaches {@link #ROW_LIMIT}, so they cannot overflow however long Bookmap
+ * runs.
+ *
+ * Like {@link EventRateStats}, each alias is recorded by a single data
+ * thread, so counters use ordered stores rather than CAS; quantiles are read
+ * by the monitor thread.
+ */
+final class GapSketch {
+
+    static final int HOURS = 24;
+    static final int BUCKETS = 40;
+    /** A halved row still holds {@link FeedMonitor#MIN_SAMPLES} gaps. */
+    static final int DECAY_FLOOR = 1024;
+    static final int ROW_LIMIT = 1 << 30;
+
+    private static final int TOTAL = 0;
+    private static final int DAY = 1;
+    // row total, the day the row last decayed, then the buckets
+    private static final int FIRST_BUCKET = 2;
+    private static final int ROW = BUCKETS + FIRST_BUCKET;
+    private static final long HOUR_MS = 3_600_000;
+    private static final long DAY_MS = HOURS * HOUR_MS;
+
+    private volatile AtomicIntegerArray[] rows = new AtomicIntegerArray[0];
+    private volatile long offsetMs;
+
+    /** Offset of the time of day from UTC, e.g. the exchange's zone; refreshed by the monitor. */
+    void setOffsetMs(long offsetMs) {
+        this.offsetMs = offsetMs;
+    }
+
+    int hourOf(long now) {
+        return (int) Math.floorMod(Math.floorDiv(now + offsetMs, HOUR_MS), (long) HOURS);
+    }
+
+    /** Records a gap of {@code gapMs} for {@code slot}, ending at {@code now}. */
+    void record(int slot, long gapMs, long now) {
+        AtomicIntegerArray[] current = rows;
+        AtomicIntegerArray sketch = slot < current.length && current[slot] != null ? current[slot] : grow(slot);
+        int base = hourOf(now) * ROW;
+        int day = (int) Math.floorDiv(now + offsetMs, DAY_MS);
+        if (sketch.get(base + DAY) != day) {
+            sketch.lazySet(base + DAY, day);
+            if (sketch.get(base + TOTAL) >= DECAY_FLOOR) {
+                halve(sketch, base);
+            }
+        }
+        int bucket = base + FIRST_BUCKET + bucketOf(gapMs);
+        sketch.lazySet(bucket, sketch.get(bucket) + 1);
+        sketch.lazySet(base + TOTAL, sketch.get(base + TOTAL) + 1);
+        if (sketch.get(base + TOTAL) >= ROW_LIMIT) {
+            halve(sketch, base);
+        }
+    }
+
+    private static void halve(AtomicIntegerArray sketch, int base) {
+        int total = 0;
+        for (int b = base + FIRST_BUCKET; b < base + ROW; b++) {
+            int halved = sketch.get(b) >> 1;
+            sketch.lazySet(b, halved);
+            total += halved;
+        }
+        sketch.lazySet(base + TOTAL, total);
+    }
+
+    /** Two buckets per power of two: [1,1.5), [1.5,2), [2,3), [3,4), ... in ms; the last one is open-ended. */
+    static int bucketOf(long gapMs) {
+        if (gapMs <= 1) {
+            return 0;
+        }
+        int log = 63 - Long.numberOfLeadingZeros(gapMs);
+        int half = (int) (gapMs >>> Math.max(0, log - 1)) & 1;
+        return Math.min(BUCKETS - 1, 2 * log + half);
+    }
+
+    /** Largest gap that falls in {@code bucket}, in ms. */
+    static long upperBound(int bucket) {
+        int log = bucket >> 1;
+        long base = 1L << log;
+        return (bucket & 1) == 0 ? base + (base >> 1) : 2 * base;
+    }
+
+    private synchronized AtomicIntegerArray grow(int slot) {
+        AtomicIntegerArray[] current = rows;
+        if (slot < current.length && current[slot] != null) {
+            return current[slot];
+        }
+        AtomicIntegerArray[] grown = slot < current.length ? current.clone() : Arrays.copyOf(current, Math.max(slot + 1, current.length * 2));
+        grown[slot] = new AtomicIntegerArray(HOURS * ROW);
+        rows = grown;
+        return grown[slot];
+    }
+
+    /** Gaps recorded in the row of {@code hour}, or in every row when {@code hour} is -1. */
+    int samples(int slot, int hour) {
+        AtomicIntegerArray sketch = sketch(slot);
+        if (sketch == null) {
+            return 0;
+        }
+        if (hour >= 0) {
+            return sketch.get(hour * ROW + TOTAL);
+        }
+        int total = 0;
+        for (int h = 0; h < HOURS; h++) {
+            total += sketch.get(h * ROW + TOTAL);
+        }
+        return total;
+    }
+
+    /**
+     * Upper bound in ms of the {@code q} quantile of gaps in the row of
+     * {@code hour}, or of every row when {@code hour} is -1; 0 if no gaps
+     * were recorded there. Monitor thread only.
+     */
+    long quantile(int slot, int hour, double q) {
+        AtomicIntegerArray sketch = sketch(slot);
+        int total = samples(slot, hour);
+        if (sketch == null || total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            if (hour >= 0) {
+                seen += sketch.get(hour * ROW + FIRST_BUCKET + b);
+            } else {
+                for (int h = 0; h < HOURS; h++) {
+                    seen += sketch.get(h * ROW + FIRST_BUCKET + b);
+                }
+            }
+            if (seen >= rank) {
+                return upperBound(b);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    private AtomicIntegerArray sketch(int slot) {
+        AtomicIntegerArray[] current = rows;
+        return slot < current.length ? current[slot] : null;
+    }
+}
@@ -0,0 +1,101 @@
+package com.bookmap.rithmicmonitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Reads {@link OutageJournal} segments back and prints them as CSV.
+ *
+ * <pre>
+ * java -cp simple-telegram-notifier.jar com.bookmap.rithmicmonitor.JournalExport [--outages] [directory]
+ * </pre>
+ *
+ * Without options every record is printed. {@code --outages} prints one line
+ * per closed data gap: alias, when it went quiet, when data resumed and for
+ * how long. The directory defaults to {@code ~/SimpleTelegramNotifier-journal}.
+ */
+final class JournalExport {
+
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+    private static final String[] TYPES = {
+            "", "HEADER", "MONITOR_START", "MONITOR_STOP", "GAP_START", "GAP_END", "GAP_SUPPRESSED",
+            "PERIODIC_ALERT", "RATE_DEGRADED", "RATE_RECOVERED", "ALERT_SENT", "ALERT_FAILED", "ALERT_DROPPED",
+            "CONNECTION_LOST", "CONNECTION_RESTORED", "LOGIN_FAILED", "INSTRUMENT_NOT_FOUND", "INSTRUMENT_REMOVED",
+            "BOOK_CROSSED", "BOOK_FROZEN", "BOOK_WIDE", "BOOK_OK",
+            "VOLUME_BURST", "VOLUME_DROUGHT", "VOLUME_NORMAL"
+    };
+
+    private JournalExport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean outages = false;
+        File directory = OutageJournal.defaultDirectory();
+        for (String arg : args) {
+            if (arg.equals("--outages")) {
+                outages = true;
+            } else {
+                directory = new File(arg);
+            }
+        }
+        export(directory, outages, System.out);
+    }
+
+    static void export(File directory, boolean outages, PrintStream out) throws IOException {
+        out.println(outages ? "alias,silent_from,resumed_at,silent_ms" : "time,type,text,slot,a,b");
+        for (File file : OutageJournal.segments(directory)) {
+            ByteBuffer buffer = read(file);
+            for (int at = 0; at + OutageJournal.RECORD_BYTES <= buffer.limit(); at += OutageJournal.RECORD_BYTES) {
+                int type = buffer.getInt(at + OutageJournal.TYPE);
+                if (type == 0) {
+                    break;
+                }
+                if (type == OutageJournal.HEADER && buffer.getLong(at + OutageJournal.A) != OutageJournal.MAGIC) {
+                    System.err.println("Skipping " + file + ": not a journal segment");
+                    break;
+                }
+                long time = buffer.getLong(at + OutageJournal.TIME);
+                long a = buffer.getLong(at + OutageJournal.A);
+                long b = buffer.getLong(at + OutageJournal.B);
+                String text = text(buffer, at);
+                if (!outages) {
+                    out.println(TIMESTAMP.format(Instant.ofEpochMilli(time)) + "," + typeName(type) + ","
+                            + csv(text) + "," + buffer.getInt(at + OutageJournal.SLOT) + "," + a + "," + b);
+                } else if (type == OutageJournal.GAP_END) {
+                    out.println(csv(text) + "," + TIMESTAMP.format(Instant.ofEpochMilli(time - a)) + ","
+                            + TIMESTAMP.format(Instant.ofEpochMilli(time)) + "," + a);
+                }
+            }
+        }
+    }
+
+    private static ByteBuffer read(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static String text(ByteBuffer buffer, int at) {
+        int length = Math.min(buffer.get(at + OutageJournal.TEXT) & 0xff, OutageJournal.TEXT_BYTES);
+        byte[] bytes = new byte[length];
+        buffer.get(at + OutageJournal.TEXT + 1, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static String typeName(int type) {
+        return type > 0 && type < TYPES.length ? TYPES[type] : String.valueOf(type);
+    }
+
+    private static String csv(String value) {
+        return value.contains(",") || value.contains("\"") ? "\"" + value.replace("\"", "\"\"") + "\"" : value;
+    }
+}
@@ -0,0 +1,147 @@
+package com.bookmap.rithmicmonitor;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tracks the last time data was seen per instrument alias without allocating
+ * on the listener path.
+ *
+ * Aliases are resolved once to dense integer slots through a copy-on-write
+ * open-addressing index; lookups after that are a probe over an immutable
+ * array. Timestamps live in fixed-size chunks of padded primitive slots (one
+ * cache line each), so two instruments updated from different threads never
+ * share a line, and chunks never move when more aliases are registered.
+ */
+final class LivenessTracker {
+
+    static final long NEVER = 0L;
+
+    private static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    // 8 longs = 64 bytes, so each timestamp owns its own cache line
+    private static final int PAD = 8;
+
+    private static final class Index {
+        final String[] keys;
+        final int[] slots;
+        final int mask;
+
+        Index(int capacity) {
+            keys = new String[capacity];
+            slots = new int[capacity];
+            mask = capacity - 1;
+        }
+    }
+
+    private final CoarseClock clock;
+    private volatile Index index = new Index(64);
+    private volatile AtomicLongArray[] chunks = new AtomicLongArray[0];
+    private volatile String[] aliases = new String[0];
+    private volatile int size;
+
+    LivenessTracker(CoarseClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Records that data was just received for {@code alias} and returns its
+     * slot. Allocation-free once the alias has been seen.
+     */
+    int touch(String alias) {
+        int slot = slotOf(alias);
+        touch(slot, clock.millis());
+        return slot;
+    }
+
+    /** Records that data for an already registered slot was received at {@code time}. */
+    void touch(int slot, long time) {
+        chunks[slot >>> CHUNK_SHIFT].lazySet((slot & CHUNK_MASK) * PAD, time);
+    }
+
+    /** Resolves an alias to its dense slot, registering it on first sight. */
+    int slotOf(String alias) {
+        Index idx = index;
+        int i = alias.hashCode() & idx.mask;
+        String key;
+        while ((key = idx.keys[i]) != null) {
+            if (key == alias || key.equals(alias)) {
+                return idx.slots[i];
+            }
+            i = (i + 1) & idx.mask;
+        }
+        return register(alias);
+    }
+
+    private synchronized int register(String alias) {
+        Index idx = index;
+        int i = alias.hashCode() & idx.mask;
+        String key;
+        while ((key = idx.keys[i]) != null) {
+            if (key.equals(alias)) {
+                return idx.slots[i];
+            }
+            i = (i + 1) & idx.mask;
+        }
+
+        int slot = size;
+        if ((slot & CHUNK_MASK) == 0) {
+            AtomicLongArray[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+            grown[grown.length - 1] = new AtomicLongArray(CHUNK_SIZE * PAD);
+            chunks = grown;
+        }
+        String[] names = Arrays.copyOf(aliases, slot + 1);
+        names[slot] = alias;
+        aliases = names;
+
+        int capacity = idx.keys.length;
+        if ((slot + 1) * 2 > capacity) {
+            capacity <<= 1;
+        }
+        Index next = new Index(capacity);
+        for (int s = 0; s <= slot; s++) {
+            int j = names[s].hashCode() & next.mask;
+            while (next.keys[j] != null) {
+                j = (j + 1) & next.mask;
+            }
+            next.keys[j] = names[s];
+            next.slots[j] = s;
+        }
+        size = slot + 1;
+        index = next;
+        return slot;
+    }
+
+    int size() {
+        return size;
+    }
+
+    String aliasAt(int slot) {
+        return aliases[slot];
+    }
+
+    long lastSeen(int slot) {
+        return chunks[slot >>> CHUNK_SHIFT].get((slot & CHUNK_MASK) * PAD);
+    }
+
+    /** True if any alias has reported data within {@code windowMs} of {@code now}. */
+    boolean anyRecent(long now, long windowMs) {
+        int n = size;
+        for (int slot = 0; slot < n; slot++) {
+            long seen = lastSeen(slot);
+            if (seen != NEVER && now - seen < windowMs) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long now() {
+        return clock.millis();
+    }
+}
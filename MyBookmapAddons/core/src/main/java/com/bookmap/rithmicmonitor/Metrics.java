@@ -0,0 +1,244 @@
+package com.bookmap.rithmicmonitor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Counters and gauges for the metrics endpoint, rendered in the Prometheus
+ * text format.
+ *
+ * Nothing here is on the data path. Per-alias event counts and last-seen
+ * times are read at scrape time from the padded per-slot blocks that
+ * {@link LivenessTracker} and {@link EventRateStats} already keep for each
+ * registered {@link FeedMonitor}, and event drops and backlog from the
+ * shared {@link FeedEvents} ring. Alert counters and the time each delivery
+ * took come from each {@link SinkChannel}, whose counters are {@link LongAdder}s, so the
+ * monitor, channel and caller threads each bump their own cell instead of
+ * contending on one word. Scheduler lag is written by the monitor thread
+ * only.
+ */
+final class Metrics {
+
+    /** Upper bounds of the send duration buckets, in seconds; the last bucket is +Inf. */
+    static final double[] LATENCY_BOUNDS = {0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 300};
+
+    private static final String PREFIX = "telegram_notifier_";
+
+    /** Latency histogram over {@link #LATENCY_BOUNDS}. */
+    static final class Histogram {
+        private final LongAdder[] buckets = new LongAdder[LATENCY_BOUNDS.length + 1];
+        private final LongAdder sumMicros = new LongAdder();
+
+        Histogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long nanos) {
+            sumMicros.add(nanos / 1000);
+            double seconds = nanos / 1e9;
+            int bucket = 0;
+            while (bucket < LATENCY_BOUNDS.length && seconds > LATENCY_BOUNDS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket].increment();
+        }
+    }
+
+    private final CoarseClock clock;
+    private final List<FeedMonitor> monitors = new CopyOnWriteArrayList<>();
+    private volatile FeedEvents events;
+    private volatile Supplier<List<SinkChannel>> sinks = List::of;
+    private volatile long schedulerLagNanos;
+    private volatile long maxSchedulerLagNanos;
+    private final Map<String, Long> startupNanos = new ConcurrentSkipListMap<>();
+
+    Metrics(CoarseClock clock) {
+        this.clock = clock;
+    }
+
+    void register(FeedMonitor monitor) {
+        monitors.add(monitor);
+    }
+
+    void unregister(FeedMonitor monitor) {
+        monitors.remove(monitor);
+    }
+
+    void setEvents(FeedEvents events) {
+        this.events = events;
+    }
+
+    void setSinks(Supplier<List<SinkChannel>> sinks) {
+        this.sinks = sinks;
+    }
+
+    /** How long the latest run of a startup phase took, e.g. building the engine or a settings panel. */
+    void startupPhase(String phase, long nanos) {
+        startupNanos.put(phase, nanos);
+    }
+
+    /** How late a periodic monitor task ran. Monitor thread only. */
+    void schedulerLag(long lagNanos) {
+        schedulerLagNanos = lagNanos;
+        if (lagNanos > maxSchedulerLagNanos) {
+            maxSchedulerLagNanos = lagNanos;
+        }
+    }
+
+    /** Renders every metric; aliases watched by more than one chart are merged. */
+    void write(StringBuilder out) {
+        long now = clock.millis();
+        Map<String, long[]> aliases = new TreeMap<>(); // events, last seen, timeout ms
+        long[] transitions = new long[MonitorState.Phase.values().length];
+        int running = 0;
+        int timedOut = 0;
+        int disconnected = 0;
+        for (FeedMonitor monitor : monitors) {
+            LivenessTracker liveness = monitor.liveness();
+            for (int slot = 0; slot < liveness.size(); slot++) {
+                long[] values = aliases.computeIfAbsent(liveness.aliasAt(slot), alias -> new long[] {0, 0, Long.MAX_VALUE});
+                values[0] += monitor.eventCount(slot);
+                values[1] = Math.max(values[1], liveness.lastSeen(slot));
+                values[2] = Math.min(values[2], monitor.timeoutMs(slot));
+            }
+            MonitorState state = monitor.state();
+            for (MonitorState.Phase phase : MonitorState.Phase.values()) {
+                transitions[phase.ordinal()] += state.entered(phase);
+            }
+            MonitorState.Phase phase = state.phase();
+            if (phase != MonitorState.Phase.STOPPED) running++;
+            if (phase == MonitorState.Phase.TIMED_OUT) timedOut++;
+            if (monitor.isDisconnected()) disconnected++;
+        }
+
+        header(out, "events_total", "counter", "Depth and trade updates received per alias.");
+        for (Map.Entry<String, long[]> alias : aliases.entrySet()) {
+            sample(out, "events_total", alias.getValue()[0], "alias", alias.getKey());
+        }
+        header(out, "last_seen_age_seconds", "gauge", "Seconds since the last update per alias.");
+        int silent = 0;
+        for (Map.Entry<String, long[]> alias : aliases.entrySet()) {
+            long lastSeen = alias.getValue()[1];
+            if (lastSeen == LivenessTracker.NEVER) {
+                continue;
+            }
+            long ageMs = Math.max(0, now - lastSeen);
+            if (ageMs >= alias.getValue()[2]) silent++;
+            sample(out, "last_seen_age_seconds", ageMs / 1000.0, "alias", alias.getKey());
+        }
+        header(out, "timeout_seconds", "gauge", "Silence timeout in effect per alias, learned or configured.");
+        for (Map.Entry<String, long[]> alias : aliases.entrySet()) {
+            sample(out, "timeout_seconds", alias.getValue()[2] / 1000.0, "alias", alias.getKey());
+        }
+        header(out, "silent_aliases", "gauge", "Aliases with no update for longer than the timeout.");
+        sample(out, "silent_aliases", silent);
+
+        FeedEvents ring = events;
+        long dropped = ring != null ? ring.droppedCount() : 0;
+        long backlog = ring != null ? ring.depth() : 0;
+        header(out, "events_dropped_total", "counter", "Data events dropped because the event ring was full.");
+        sample(out, "events_dropped_total", dropped);
+        header(out, "event_backlog", "gauge", "Data events published and not yet handled, over all charts.");
+        sample(out, "event_backlog", backlog);
+
+        header(out, "monitors_running", "gauge", "Charts whose monitoring is started.");
+        sample(out, "monitors_running", running);
+        header(out, "monitors_timed_out", "gauge", "Charts with an open outage.");
+        sample(out, "monitors_timed_out", timedOut);
+        header(out, "monitors_disconnected", "gauge", "Charts whose provider reports the connection lost or the login failed.");
+        sample(out, "monitors_disconnected", disconnected);
+        header(out, "state_transitions_total", "counter", "Timeout state transitions, by the phase entered.");
+        for (MonitorState.Phase phase : MonitorState.Phase.values()) {
+            sample(out, "state_transitions_total", transitions[phase.ordinal()], "to", phase.name().toLowerCase());
+        }
+
+        List<SinkChannel> channels = sinks.get();
+        header(out, "alerts_queued_total", "counter", "Alerts accepted by a sink's queue.");
+        for (SinkChannel channel : channels) {
+            sample(out, "alerts_queued_total", channel.queuedCount(), "sink", channel.name());
+        }
+        header(out, "alerts_sent_total", "counter", "Alerts delivered by a sink.");
+        for (SinkChannel channel : channels) {
+            sample(out, "alerts_sent_total", channel.sentCount(), "sink", channel.name());
+        }
+        header(out, "alerts_failed_total", "counter", "Alerts a sink failed to deliver.");
+        for (SinkChannel channel : channels) {
+            sample(out, "alerts_failed_total", channel.failedCount(), "sink", channel.name());
+        }
+        header(out, "alerts_dropped_total", "counter", "Alerts dropped undelivered: evicted from a full queue, expired, or raised after a sink stopped.");
+        for (SinkChannel channel : channels) {
+            sample(out, "alerts_dropped_total", channel.droppedCount(), "sink", channel.name());
+        }
+        header(out, "alert_queue_depth", "gauge", "Alerts waiting in a sink's queue.");
+        for (SinkChannel channel : channels) {
+            sample(out, "alert_queue_depth", channel.queueDepth(), "sink", channel.name());
+        }
+        header(out, "sink_circuit_state", "gauge", "Circuit breaker per sink: 0 closed, 1 open, 2 half-open.");
+        for (SinkChannel channel : channels) {
+            sample(out, "sink_circuit_state", channel.breakerState().ordinal(), "sink", channel.name());
+        }
+
+        header(out, "send_latency_seconds", "histogram", "Time a sink took to deliver one alert, retries included.");
+        for (SinkChannel channel : channels) {
+            Histogram latency = channel.latency();
+            long cumulative = 0;
+            for (int i = 0; i < latency.buckets.length; i++) {
+                cumulative += latency.buckets[i].sum();
+                String bound = i < LATENCY_BOUNDS.length ? String.valueOf(LATENCY_BOUNDS[i]) : "+Inf";
+                sample(out, "send_latency_seconds_bucket", cumulative, "sink", channel.name(), "le", bound);
+            }
+            sample(out, "send_latency_seconds_sum", latency.sumMicros.sum() / 1e6, "sink", channel.name());
+            sample(out, "send_latency_seconds_count", cumulative, "sink", channel.name());
+        }
+
+        header(out, "startup_seconds", "gauge", "Duration of the latest run of each startup phase.");
+        for (Map.Entry<String, Long> phase : startupNanos.entrySet()) {
+            sample(out, "startup_seconds", phase.getValue() / 1e9, "phase", phase.getKey());
+        }
+
+        header(out, "scheduler_lag_seconds", "gauge", "How late the last periodic monitor task ran.");
+        sample(out, "scheduler_lag_seconds", schedulerLagNanos / 1e9);
+        header(out, "scheduler_lag_max_seconds", "gauge", "Largest scheduler lag since startup.");
+        sample(out, "scheduler_lag_max_seconds", maxSchedulerLagNanos / 1e9);
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    /** One sample; {@code labels} are name, value pairs. */
+    private static void sample(StringBuilder out, String name, double value, String... labels) {
+        out.append(PREFIX).append(name);
+        for (int l = 0; l < labels.length; l += 2) {
+            out.append(l == 0 ? '{' : ',').append(labels[l]).append("=\"");
+            String labelValue = labels[l + 1];
+            for (int i = 0; i < labelValue.length(); i++) {
+                char c = labelValue.charAt(i);
+                switch (c) {
+                    case '\\' -> out.append("\\\\");
+                    case '"' -> out.append("\\\"");
+                    case '\n' -> out.append("\\n");
+                    default -> out.append(c);
+                }
+            }
+            out.append('"');
+        }
+        out.append(labels.length > 0 ? "} " : " ");
+        appendValue(out, value).append('\n');
+    }
+
+    private static StringBuilder appendValue(StringBuilder out, double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return out.append((long) value);
+        }
+        return out.append(value);
+    }
+}
@@ -0,0 +1,85 @@
+package com.bookmap.rithmicmonitor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves {@link Metrics} at {@code http://127.0.0.1:<port>/metrics} for a
+ * Prometheus scraper on the same box.
+ *
+ * The JDK's built-in server runs on one daemon thread and only binds the
+ * loopback address; each scrape renders into a fresh buffer, so the
+ * monitor is never blocked by a slow client.
+ */
+final class MetricsServer implements AutoCloseable {
+
+    private static final AsyncLog log = AsyncLog.get();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private MetricsServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /** Starts serving on {@code port}; returns null if the port could not be bound. */
+    static MetricsServer start(int port, Metrics metrics) {
+        HttpServer server;
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            log.error("❌ Metrics endpoint could not bind port {}: {}", port, e.getMessage());
+            return null;
+        }
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "SimpleTelegramNotifier-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/metrics", exchange -> serve(exchange, metrics));
+        server.start();
+        log.info("📊 Metrics endpoint at http://127.0.0.1:{}/metrics", port);
+        return new MetricsServer(server, executor);
+    }
+
+    private static void serve(HttpExchange exchange, Metrics metrics) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET") && !exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            StringBuilder text = new StringBuilder(4096);
+            metrics.write(text);
+            byte[] body = text.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            if (exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,85 @@
+package com.bookmap.rithmicmonitor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The monitor's timeout state machine, packed into one atomic word.
+ *
+ * <pre>
+ *   STOPPED --start--> WATCHING --timedOut--> TIMED_OUT
+ *      ^                  |  ^                    |
+ *      +------stop--------+  +-----recovered------+
+ *      +------------------stop--------------------+
+ * </pre>
+ *
+ * The low two bits hold the phase and the rest hold the time the current
+ * outage began, so a reader always sees a phase and its start time together.
+ * Start and stop may come from any thread; the outage transitions are made by
+ * the monitor thread only, which also owns every task and alert they trigger.
+ * The market-data thread never touches this state; it only marks aliases as
+ * seen in the {@link LivenessTracker}. Each successful transition is counted
+ * by the phase it enters, for the metrics endpoint.
+ */
+final class MonitorState {
+
+    enum Phase { STOPPED, WATCHING, TIMED_OUT }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final long PHASE_MASK = 3;
+
+    private final AtomicLong word = new AtomicLong(pack(Phase.STOPPED, 0));
+    private final AtomicLongArray entered = new AtomicLongArray(PHASES.length);
+
+    Phase phase() {
+        return PHASES[(int) (word.get() & PHASE_MASK)];
+    }
+
+    boolean isRunning() {
+        return (word.get() & PHASE_MASK) != Phase.STOPPED.ordinal();
+    }
+
+    /** Epoch millis the current outage began, or 0 outside {@link Phase#TIMED_OUT}. */
+    long timedOutSince() {
+        long current = word.get();
+        return (current & PHASE_MASK) == Phase.TIMED_OUT.ordinal() ? current >>> 2 : 0;
+    }
+
+    /** Number of transitions into {@code phase} so far. */
+    long entered(Phase phase) {
+        return entered.get(phase.ordinal());
+    }
+
+    /** STOPPED to WATCHING; false if monitoring was already running. */
+    boolean start() {
+        return count(word.compareAndSet(pack(Phase.STOPPED, 0), pack(Phase.WATCHING, 0)), Phase.WATCHING);
+    }
+
+    /** Any phase to STOPPED; false if monitoring was already stopped. */
+    boolean stop() {
+        return count((word.getAndSet(pack(Phase.STOPPED, 0)) & PHASE_MASK) != Phase.STOPPED.ordinal(), Phase.STOPPED);
+    }
+
+    /** WATCHING to TIMED_OUT at {@code now}; false if not watching. Monitor thread only. */
+    boolean timedOut(long now) {
+        return count(word.compareAndSet(pack(Phase.WATCHING, 0), pack(Phase.TIMED_OUT, now)), Phase.TIMED_OUT);
+    }
+
+    /** TIMED_OUT to WATCHING; false if no outage was open. Monitor thread only. */
+    boolean recovered() {
+        long current = word.get();
+        return count((current & PHASE_MASK) == Phase.TIMED_OUT.ordinal()
+                && word.compareAndSet(current, pack(Phase.WATCHING, 0)), Phase.WATCHING);
+    }
+
+    private boolean count(boolean changed, Phase to) {
+        if (changed) {
+            entered.incrementAndGet(to.ordinal());
+        }
+        return changed;
+    }
+
+    private static long pack(Phase phase, long sinceMillis) {
+        return sinceMillis << 2 | phase.ordinal();
+    }
+}
@@ -0,0 +1,44 @@
+package com.bookmap.rithmicmonitor;
+
+import java.io.IOException;
+
+/**
+ * A destination for alert texts: Telegram, a webhook, a file drop or
+ * Bookmap's own alert popup.
+ *
+ * Each sink is driven by its own {@link SinkChannel}, which calls
+ * {@link #deliver(String)} from a thread of its own, so an implementation may
+ * block; the channel interrupts a call still running after
+ * {@link #timeoutMs()}, and it should give up once interrupted.
+ */
+interface NotificationSink extends AutoCloseable {
+
+    /** The sink got the alert and refused it; delivering it again would not help. */
+    final class Rejected extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        Rejected(String message) {
+            super(message);
+        }
+    }
+
+    String name();
+
+    /** How long one delivery, retries included, may take before it counts as failed. */
+    long timeoutMs();
+
+    /** Whether alerts not yet delivered should be kept on disk across a restart. */
+    default boolean durable() {
+        return false;
+    }
+
+    /**
+     * Delivers one alert. Throws {@link Rejected} if the alert can never be
+     * delivered, or another {@link IOException} to have it retried later.
+     */
+    void deliver(String text) throws IOException, InterruptedException;
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,144 @@
+package com.bookmap.rithmicmonitor;
+
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Fans every alert out to the configured sinks in parallel.
+ *
+ * The {@code sinks} setting lists them by name: {@code telegram},
+ * {@code webhook} (to {@code webhookUrl}), {@code file} (into
+ * {@code fileDropDirectory}) and {@code bookmap} (the in-app alert). Each one
+ * gets its own {@link SinkChannel}, so publishing only offers the text to
+ * every channel's outbox and returns. Durable sinks get an outbox file under
+ * {@link #defaultOutboxDirectory()} that lasts as long as this object, so alerts
+ * not yet delivered survive both a restart and a rebuild of the channels. The
+ * channels are rebuilt when the list or a sink's target changes; retired
+ * channels drain in the background.
+ */
+final class Notifications implements AutoCloseable {
+
+    static final int MEMORY_OUTBOX_BYTES = 64 * 1024;
+    static final int DISK_OUTBOX_BYTES = 1024 * 1024;
+
+    private static final AsyncLog log = AsyncLog.get();
+
+    private final Supplier<NotifierConfig> config;
+    private final CallbackSink inApp;
+    private final SinkChannel.Listener listener;
+    private final File outboxDirectory;
+    private final Map<String, AlertOutbox> outboxes = new HashMap<>();
+    private volatile List<SinkChannel> channels = List.of();
+    private String layout;
+
+    Notifications(Supplier<NotifierConfig> config, CallbackSink inApp, SinkChannel.Listener listener,
+            File outboxDirectory) {
+        this.config = config;
+        this.inApp = inApp;
+        this.listener = listener;
+        this.outboxDirectory = outboxDirectory;
+    }
+
+    static File defaultOutboxDirectory() {
+        return new File(System.getProperty("user.home"), "SimpleTelegramNotifier-outbox");
+    }
+
+    List<SinkChannel> channels() {
+        return channels;
+    }
+
+    /** Rebuilds the channels if the sink settings of {@code next} differ from the current ones. */
+    synchronized void configure(NotifierConfig next) {
+        String nextLayout = next.sinks() + "|" + next.webhookUrl() + "|" + next.fileDropDirectory();
+        if (nextLayout.equals(layout)) {
+            return;
+        }
+        layout = nextLayout;
+
+        List<SinkChannel> built = new ArrayList<>();
+        for (String name : next.sinks().split(",")) {
+            NotificationSink sink = create(name.trim().toLowerCase(), next);
+            if (sink != null) {
+                built.add(new SinkChannel(sink, outboxFor(sink), listener));
+            }
+        }
+        List<SinkChannel> old = channels;
+        channels = List.copyOf(built);
+        for (SinkChannel channel : old) {
+            channel.retire();
+        }
+        log.info("Notification sinks: {}", built.isEmpty() ? "none" : String.join(", ", built.stream().map(SinkChannel::name).toList()));
+    }
+
+    private NotificationSink create(String name, NotifierConfig next) {
+        switch (name) {
+            case "":
+                return null;
+            case "telegram":
+                return new TelegramSender(config);
+            case "webhook":
+                if (next.webhookUrl().isBlank()) {
+                    log.warn("⚠️ webhook sink needs webhookUrl");
+                    return null;
+                }
+                try {
+                    return new WebhookSink(URI.create(next.webhookUrl().trim()), 5_000);
+                } catch (IllegalArgumentException e) {
+                    log.error("❌ Invalid webhookUrl: {}", e.getMessage());
+                    return null;
+                }
+            case "file":
+                if (next.fileDropDirectory().isBlank()) {
+                    log.warn("⚠️ file sink needs fileDropDirectory");
+                    return null;
+                }
+                return new FileDropSink(new File(next.fileDropDirectory().trim()));
+            case "bookmap":
+                return inApp;
+            default:
+                log.warn("⚠️ Unknown notification sink: {}", name);
+                return null;
+        }
+    }
+
+    private AlertOutbox outboxFor(NotificationSink sink) {
+        if (!sink.durable()) {
+            return AlertOutbox.inMemory(MEMORY_OUTBOX_BYTES);
+        }
+        return outboxes.computeIfAbsent(sink.name(), name -> {
+            AlertOutbox outbox = AlertOutbox.open(new File(outboxDirectory, name + AlertOutbox.SUFFIX), DISK_OUTBOX_BYTES);
+            if (outbox.size() > 0) {
+                log.info("📬 {} undelivered alerts for {} from the last session", outbox.size(), name);
+            }
+            return outbox;
+        });
+    }
+
+    /** Offers {@code text} with its {@code repeatKey}, or null, to every sink; returns how many accepted it. */
+    int publish(String text, String repeatKey) {
+        int accepted = 0;
+        for (SinkChannel channel : channels) {
+            if (channel.offer(text, repeatKey)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (SinkChannel channel : channels) {
+            channel.close();
+        }
+        channels = List.of();
+        for (AlertOutbox outbox : outboxes.values()) {
+            outbox.close();
+        }
+        outboxes.clear();
+    }
+}
@@ -0,0 +1,430 @@
+package com.bookmap.rithmicmonitor;
+
+import java.time.DayOfWeek;
+import java.util.Properties;
+
+/**
+ * One immutable snapshot of every notifier setting.
+ *
+ * The notifier publishes a whole snapshot through a single volatile field, so
+ * the monitor thread never sees a token from one save and a chat id or time
+ * range from another. Changes are made by building a new snapshot with
+ * {@link #toBuilder()}, or {@link #withPanel} for the panel's settings, and
+ * publishing it. Every snapshot is validated when it is built.
+ */
+record NotifierConfig(
+        String botToken,
+        String chatId,
+        int timeoutSeconds,
+        boolean adaptiveTimeout,
+        int minTimeoutSeconds,
+        int maxTimeoutSeconds,
+        int periodicSeconds,
+        long alertWindowMs,
+        int rateDropPercent,
+        int maxSpreadTicks,
+        int volumeBurstMultiple,
+        int volumeDroughtPercent,
+        String eventWait,
+        AsyncLog.Level logLevel,
+        boolean timeRangeEnabled,
+        DayOfWeek startDayOfWeek,
+        DayOfWeek endDayOfWeek,
+        String startTime,
+        String endTime,
+        String timeZone,
+        String extraWindows,
+        String holidays,
+        String earlyCloses,
+        int metricsPort,
+        String sinks,
+        String webhookUrl,
+        String fileDropDirectory) {
+
+    private static final AsyncLog log = AsyncLog.get();
+
+    /**
+     * Rejects settings no part of the notifier can work with. A bot token
+     * needs a chat to send to; the unconfigured default has neither.
+     */
+    NotifierConfig {
+        if (timeoutSeconds <= 0) {
+            throw new IllegalArgumentException("timeoutSeconds must be positive: " + timeoutSeconds);
+        }
+        if (minTimeoutSeconds <= 0 || maxTimeoutSeconds < minTimeoutSeconds) {
+            throw new IllegalArgumentException("Adaptive timeout bounds must satisfy 0 < min <= max: "
+                    + minTimeoutSeconds + ", " + maxTimeoutSeconds);
+        }
+        if (periodicSeconds < 0 || alertWindowMs < 0 || maxSpreadTicks < 0 || volumeBurstMultiple < 0) {
+            throw new IllegalArgumentException("periodicSeconds, alertWindowMs, maxSpreadTicks and "
+                    + "volumeBurstMultiple must not be negative");
+        }
+        if (rateDropPercent < 0 || rateDropPercent > 100 || volumeDroughtPercent < 0 || volumeDroughtPercent > 100) {
+            throw new IllegalArgumentException("rateDropPercent and volumeDroughtPercent must be between 0 and 100");
+        }
+        if (metricsPort < 0 || metricsPort > 65535) {
+            throw new IllegalArgumentException("metricsPort out of range: " + metricsPort);
+        }
+        if (!botToken.isBlank() && chatId.isBlank()) {
+            throw new IllegalArgumentException("A bot token needs a chat ID");
+        }
+    }
+
+    static NotifierConfig defaults() {
+        return new Builder().build();
+    }
+
+    /** A builder holding this snapshot's settings, to change some of them. */
+    Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /**
+     * Reads a snapshot, using the default for every missing key. A malformed
+     * or out of range value only costs its own setting, which falls back to
+     * its default with a warning; every other setting in the file is kept.
+     */
+    static NotifierConfig fromProperties(Properties props) {
+        NotifierConfig d = defaults();
+        String botToken = props.getProperty("botToken", d.botToken);
+        String chatId = props.getProperty("chatId", d.chatId);
+        if (!botToken.isBlank() && chatId.isBlank()) {
+            log.warn("⚠️ Ignoring botToken without a chatId in the configuration, Telegram stays off");
+            botToken = d.botToken;
+        }
+        int minTimeoutSeconds = intSetting(props, "minTimeoutSeconds", d.minTimeoutSeconds, 1, Integer.MAX_VALUE);
+        int maxTimeoutSeconds = intSetting(props, "maxTimeoutSeconds", d.maxTimeoutSeconds, 1, Integer.MAX_VALUE);
+        if (maxTimeoutSeconds < minTimeoutSeconds) {
+            log.warn("⚠️ Ignoring adaptive timeout bounds {}, using the defaults",
+                    minTimeoutSeconds + "-" + maxTimeoutSeconds);
+            minTimeoutSeconds = d.minTimeoutSeconds;
+            maxTimeoutSeconds = d.maxTimeoutSeconds;
+        }
+        AsyncLog.Level logLevel = d.logLevel;
+        String level = props.getProperty("logLevel");
+        if (level != null) {
+            try {
+                logLevel = AsyncLog.Level.valueOf(level.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                ignored("logLevel", level);
+            }
+        }
+        return new Builder()
+                .botToken(botToken)
+                .chatId(chatId)
+                .timeoutSeconds(intSetting(props, "timeoutSeconds", d.timeoutSeconds, 1, Integer.MAX_VALUE))
+                .adaptiveTimeout(Boolean.parseBoolean(props.getProperty("adaptiveTimeout", "false").trim()))
+                .minTimeoutSeconds(minTimeoutSeconds)
+                .maxTimeoutSeconds(maxTimeoutSeconds)
+                .periodicSeconds(intSetting(props, "periodicSeconds", d.periodicSeconds, 0, Integer.MAX_VALUE))
+                .alertWindowMs(longSetting(props, "alertWindowMs", d.alertWindowMs))
+                .rateDropPercent(intSetting(props, "rateDropPercent", d.rateDropPercent, 0, 100))
+                .maxSpreadTicks(intSetting(props, "maxSpreadTicks", d.maxSpreadTicks, 0, Integer.MAX_VALUE))
+                .volumeBurstMultiple(intSetting(props, "volumeBurstMultiple", d.volumeBurstMultiple, 0, Integer.MAX_VALUE))
+                .volumeDroughtPercent(intSetting(props, "volumeDroughtPercent", d.volumeDroughtPercent, 0, 100))
+                .eventWait(props.getProperty("eventWait", d.eventWait).trim())
+                .logLevel(logLevel)
+                .timeRangeEnabled(Boolean.parseBoolean(props.getProperty("timeRangeEnabled", "false").trim()))
+                .startDayOfWeek(DayOfWeek.of(intSetting(props, "startDayOfWeek", d.startDayOfWeek.getValue(), 1, 7)))
+                .endDayOfWeek(DayOfWeek.of(intSetting(props, "endDayOfWeek", d.endDayOfWeek.getValue(), 1, 7)))
+                .startTime(props.getProperty("startTime", d.startTime).trim())
+                .endTime(props.getProperty("endTime", d.endTime).trim())
+                .timeZone(props.getProperty("timeZone", d.timeZone))
+                .extraWindows(props.getProperty("extraWindows", d.extraWindows))
+                .holidays(props.getProperty("holidays", d.holidays))
+                .earlyCloses(props.getProperty("earlyCloses", d.earlyCloses))
+                .metricsPort(intSetting(props, "metricsPort", d.metricsPort, 0, 65535))
+                .sinks(props.getProperty("sinks", d.sinks))
+                .webhookUrl(props.getProperty("webhookUrl", d.webhookUrl))
+                .fileDropDirectory(props.getProperty("fileDropDirectory", d.fileDropDirectory))
+                .build();
+    }
+
+    private static int intSetting(Properties props, String key, int fallback, int min, int max) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed >= min && parsed <= max) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        ignored(key, value);
+        return fallback;
+    }
+
+    private static long longSetting(Properties props, String key, long fallback) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed >= 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        ignored(key, value);
+        return fallback;
+    }
+
+    private static void ignored(String key, String value) {
+        log.warn("⚠️ Ignoring invalid {} in the configuration: {}, using the default", key, value);
+    }
+
+    Properties toProperties() {
+        Properties props = new Properties();
+        props.setProperty("botToken", botToken);
+        props.setProperty("chatId", chatId);
+        props.setProperty("timeoutSeconds", String.valueOf(timeoutSeconds));
+        props.setProperty("adaptiveTimeout", String.valueOf(adaptiveTimeout));
+        props.setProperty("minTimeoutSeconds", String.valueOf(minTimeoutSeconds));
+        props.setProperty("maxTimeoutSeconds", String.valueOf(maxTimeoutSeconds));
+        props.setProperty("periodicSeconds", String.valueOf(periodicSeconds));
+        props.setProperty("alertWindowMs", String.valueOf(alertWindowMs));
+        props.setProperty("rateDropPercent", String.valueOf(rateDropPercent));
+        props.setProperty("maxSpreadTicks", String.valueOf(maxSpreadTicks));
+        props.setProperty("volumeBurstMultiple", String.valueOf(volumeBurstMultiple));
+        props.setProperty("volumeDroughtPercent", String.valueOf(volumeDroughtPercent));
+        props.setProperty("eventWait", eventWait);
+        props.setProperty("logLevel", logLevel.name());
+        props.setProperty("timeRangeEnabled", String.valueOf(timeRangeEnabled));
+        props.setProperty("startTime", startTime);
+        props.setProperty("endTime", endTime);
+        props.setProperty("startDayOfWeek", String.valueOf(startDayOfWeek.getValue()));
+        props.setProperty("endDayOfWeek", String.valueOf(endDayOfWeek.getValue()));
+        props.setProperty("timeZone", timeZone);
+        props.setProperty("extraWindows", extraWindows);
+        props.setProperty("holidays", holidays);
+        props.setProperty("earlyCloses", earlyCloses);
+        props.setProperty("metricsPort", String.valueOf(metricsPort));
+        props.setProperty("sinks", sinks);
+        props.setProperty("webhookUrl", webhookUrl);
+        props.setProperty("fileDropDirectory", fileDropDirectory);
+        return props;
+    }
+
+    /** The settings edited in the panel; everything else is kept from this snapshot. */
+    NotifierConfig withPanel(String botToken, String chatId, int timeoutSeconds, int periodicSeconds,
+                             int rateDropPercent, boolean timeRangeEnabled, DayOfWeek startDayOfWeek,
+                             DayOfWeek endDayOfWeek, String startTime, String endTime) {
+        return toBuilder().botToken(botToken).chatId(chatId).timeoutSeconds(timeoutSeconds)
+                .periodicSeconds(periodicSeconds).rateDropPercent(rateDropPercent).timeRangeEnabled(timeRangeEnabled)
+                .startDayOfWeek(startDayOfWeek).endDayOfWeek(endDayOfWeek).startTime(startTime).endTime(endTime)
+                .build();
+    }
+
+    /** Mutable counterpart of a snapshot; starts from the defaults. */
+    static final class Builder {
+        private String botToken = "";
+        private String chatId = "";
+        private int timeoutSeconds = 30;
+        private boolean adaptiveTimeout;
+        private int minTimeoutSeconds = 5;
+        private int maxTimeoutSeconds = 600;
+        private int periodicSeconds;
+        private long alertWindowMs = 2000;
+        private int rateDropPercent;
+        private int maxSpreadTicks;
+        private int volumeBurstMultiple;
+        private int volumeDroughtPercent;
+        private String eventWait = "park";
+        private AsyncLog.Level logLevel = AsyncLog.Level.INFO;
+        private boolean timeRangeEnabled;
+        private DayOfWeek startDayOfWeek = DayOfWeek.MONDAY;
+        private DayOfWeek endDayOfWeek = DayOfWeek.FRIDAY;
+        private String startTime = "09:00";
+        private String endTime = "17:00";
+        private String timeZone = "";
+        private String extraWindows = "";
+        private String holidays = "";
+        private String earlyCloses = "";
+        private int metricsPort;
+        private String sinks = "telegram";
+        private String webhookUrl = "";
+        private String fileDropDirectory = "";
+
+        Builder() {
+        }
+
+        private Builder(NotifierConfig from) {
+            botToken = from.botToken;
+            chatId = from.chatId;
+            timeoutSeconds = from.timeoutSeconds;
+            adaptiveTimeout = from.adaptiveTimeout;
+            minTimeoutSeconds = from.minTimeoutSeconds;
+            maxTimeoutSeconds = from.maxTimeoutSeconds;
+            periodicSeconds = from.periodicSeconds;
+            alertWindowMs = from.alertWindowMs;
+            rateDropPercent = from.rateDropPercent;
+            maxSpreadTicks = from.maxSpreadTicks;
+            volumeBurstMultiple = from.volumeBurstMultiple;
+            volumeDroughtPercent = from.volumeDroughtPercent;
+            eventWait = from.eventWait;
+            logLevel = from.logLevel;
+            timeRangeEnabled = from.timeRangeEnabled;
+            startDayOfWeek = from.startDayOfWeek;
+            endDayOfWeek = from.endDayOfWeek;
+            startTime = from.startTime;
+            endTime = from.endTime;
+            timeZone = from.timeZone;
+            extraWindows = from.extraWindows;
+            holidays = from.holidays;
+            earlyCloses = from.earlyCloses;
+            metricsPort = from.metricsPort;
+            sinks = from.sinks;
+            webhookUrl = from.webhookUrl;
+            fileDropDirectory = from.fileDropDirectory;
+        }
+
+        Builder botToken(String botToken) {
+            this.botToken = botToken;
+            return this;
+        }
+
+        Builder chatId(String chatId) {
+            this.chatId = chatId;
+            return this;
+        }
+
+        Builder timeoutSeconds(int timeoutSeconds) {
+            this.timeoutSeconds = timeoutSeconds;
+            return this;
+        }
+
+        Builder adaptiveTimeout(boolean adaptiveTimeout) {
+            this.adaptiveTimeout = adaptiveTimeout;
+            return this;
+        }
+
+        Builder minTimeoutSeconds(int minTimeoutSeconds) {
+            this.minTimeoutSeconds = minTimeoutSeconds;
+            return this;
+        }
+
+        Builder maxTimeoutSeconds(int maxTimeoutSeconds) {
+            this.maxTimeoutSeconds = maxTimeoutSeconds;
+            return this;
+        }
+
+        Builder periodicSeconds(int periodicSeconds) {
+            this.periodicSeconds = periodicSeconds;
+            return this;
+        }
+
+        Builder alertWindowMs(long alertWindowMs) {
+            this.alertWindowMs = alertWindowMs;
+            return this;
+        }
+
+        Builder rateDropPercent(int rateDropPercent) {
+            this.rateDropPercent = rateDropPercent;
+            return this;
+        }
+
+        Builder maxSpreadTicks(int maxSpreadTicks) {
+            this.maxSpreadTicks = maxSpreadTicks;
+            return this;
+        }
+
+        Builder volumeBurstMultiple(int volumeBurstMultiple) {
+            this.volumeBurstMultiple = volumeBurstMultiple;
+            return this;
+        }
+
+        Builder volumeDroughtPercent(int volumeDroughtPercent) {
+            this.volumeDroughtPercent = volumeDroughtPercent;
+            return this;
+        }
+
+        Builder eventWait(String eventWait) {
+            this.eventWait = eventWait;
+            return this;
+        }
+
+        Builder logLevel(AsyncLog.Level logLevel) {
+            this.logLevel = logLevel;
+            return this;
+        }
+
+        Builder timeRangeEnabled(boolean timeRangeEnabled) {
+            this.timeRangeEnabled = timeRangeEnabled;
+            return this;
+        }
+
+        Builder startDayOfWeek(DayOfWeek startDayOfWeek) {
+            this.startDayOfWeek = startDayOfWeek;
+            return this;
+        }
+
+        Builder endDayOfWeek(DayOfWeek endDayOfWeek) {
+            this.endDayOfWeek = endDayOfWeek;
+            return this;
+        }
+
+        Builder startTime(String startTime) {
+            this.startTime = startTime;
+            return this;
+        }
+
+        Builder endTime(String endTime) {
+            this.endTime = endTime;
+            return this;
+        }
+
+        Builder timeZone(String timeZone) {
+            this.timeZone = timeZone;
+            return this;
+        }
+
+        Builder extraWindows(String extraWindows) {
+            this.extraWindows = extraWindows;
+            return this;
+        }
+
+        Builder holidays(String holidays) {
+            this.holidays = holidays;
+            return this;
+        }
+
+        Builder earlyCloses(String earlyCloses) {
+            this.earlyCloses = earlyCloses;
+            return this;
+        }
+
+        Builder metricsPort(int metricsPort) {
+            this.metricsPort = metricsPort;
+            return this;
+        }
+
+        Builder sinks(String sinks) {
+            this.sinks = sinks;
+            return this;
+        }
+
+        Builder webhookUrl(String webhookUrl) {
+            this.webhookUrl = webhookUrl;
+            return this;
+        }
+
+        Builder fileDropDirectory(String fileDropDirectory) {
+            this.fileDropDirectory = fileDropDirectory;
+            return this;
+        }
+
+        /** @throws IllegalArgumentException if a setting is out of range */
+        NotifierConfig build() {
+            return new NotifierConfig(botToken, chatId, timeoutSeconds, adaptiveTimeout, minTimeoutSeconds,
+                    maxTimeoutSeconds, periodicSeconds, alertWindowMs, rateDropPercent, maxSpreadTicks,
+                    volumeBurstMultiple, volumeDroughtPercent, eventWait, logLevel, timeRangeEnabled, startDayOfWeek,
+                    endDayOfWeek, startTime, endTime, timeZone, extraWindows, holidays, earlyCloses, metricsPort,
+                    sinks, webhookUrl, fileDropDirectory);
+        }
+    }
+}
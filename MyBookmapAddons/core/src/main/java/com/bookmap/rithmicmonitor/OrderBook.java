@@ -0,0 +1,232 @@
+package com.bookmap.rithmicmonitor;
+
+import java.util.Arrays;
+
+/**
+ * Sizes by price level for one alias, kept just well enough to know the best
+ * bid and ask.
+ *
+ * Each side is an int array indexed by price minus a shared base, covering
+ * {@link #LEVELS} levels around the market; updates further out are ignored,
+ * so an instrument costs 16 KB however deep its book is. The best level of
+ * each side is tracked incrementally: a new level can only improve it, and
+ * only removing the best level scans for the next one, which is normally a
+ * tick or two away. When the market walks towards the edge of the window the
+ * arrays are shifted to centre it again. Once the arrays exist nothing is
+ * allocated.
+ *
+ * Only the alias' data thread updates the book. The best bid and ask, the
+ * time the top last changed and the number of trades printed outside it since
+ * are published for the monitor thread, and only written when they change.
+ */
+final class OrderBook {
+
+    static final int LEVELS = 2048;
+    /** Best price of an empty side. */
+    static final int NONE = Integer.MIN_VALUE;
+
+    // data thread only
+    private int[] bids;
+    private int[] asks;
+    private int base;
+    private int bidLevels;
+    private int askLevels;
+    // index of the best level, or -1
+    private int bid = -1;
+    private int ask = -1;
+    private int publishedBid = NONE;
+    private int publishedAsk = NONE;
+    private int through;
+
+    private volatile boolean clearRequested;
+    private volatile int bestBid = NONE;
+    private volatile int bestAsk = NONE;
+    private volatile long topChangedAt;
+    private volatile int tradesThrough;
+
+    /** Sets the size at {@code price}; 0 removes the level. Data thread only. */
+    void onDepth(boolean isBid, int price, int size, long now) {
+        if (clearRequested) {
+            clear();
+        }
+        if (bids == null) {
+            bids = new int[LEVELS];
+            asks = new int[LEVELS];
+            base = price - LEVELS / 2;
+        }
+        int i = price - base;
+        if (i < 0 || i >= LEVELS) {
+            if (!recentre(price)) {
+                return;
+            }
+            i = price - base;
+        }
+        if (size < 0) {
+            size = 0;
+        }
+        if (isBid) {
+            int old = bids[i];
+            bids[i] = size;
+            if (old == 0 && size > 0) {
+                bidLevels++;
+            } else if (old > 0 && size == 0) {
+                bidLevels--;
+            }
+            if (size > 0 && i > bid) {
+                bid = i;
+            } else if (size == 0 && i == bid) {
+                bid = bidLevels == 0 ? -1 : bestBelow(i - 1);
+            }
+        } else {
+            int old = asks[i];
+            asks[i] = size;
+            if (old == 0 && size > 0) {
+                askLevels++;
+            } else if (old > 0 && size == 0) {
+                askLevels--;
+            }
+            if (size > 0 && (ask < 0 || i < ask)) {
+                ask = i;
+            } else if (size == 0 && i == ask) {
+                ask = askLevels == 0 ? -1 : bestAbove(i + 1);
+            }
+        }
+        publish(now);
+    }
+
+    /** Counts a trade that printed outside the current top of book. Data thread only. */
+    void onTrade(double price) {
+        int b = publishedBid;
+        int a = publishedAsk;
+        if (b == NONE || a == NONE) {
+            return;
+        }
+        long p = Math.round(price);
+        if (p > a || p < b) {
+            tradesThrough = ++through;
+        }
+    }
+
+    /** Empties the book before its next update, e.g. after a resubscribe. Any thread. */
+    void requestClear() {
+        clearRequested = true;
+    }
+
+    int bestBid() {
+        return bestBid;
+    }
+
+    int bestAsk() {
+        return bestAsk;
+    }
+
+    /** When the best bid or ask last changed. */
+    long topChangedAt() {
+        return topChangedAt;
+    }
+
+    /** Trades printed above the best ask or below the best bid since the top last changed. */
+    int tradesThrough() {
+        return tradesThrough;
+    }
+
+    private void publish(long now) {
+        int b = bid < 0 ? NONE : base + bid;
+        int a = ask < 0 ? NONE : base + ask;
+        if (b == publishedBid && a == publishedAsk) {
+            return;
+        }
+        publishedBid = b;
+        publishedAsk = a;
+        through = 0;
+        tradesThrough = 0;
+        bestBid = b;
+        bestAsk = a;
+        topChangedAt = now;
+    }
+
+    private int bestBelow(int from) {
+        for (int j = from; j >= 0; j--) {
+            if (bids[j] > 0) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    private int bestAbove(int from) {
+        for (int j = from; j < LEVELS; j++) {
+            if (asks[j] > 0) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Moves the window so {@code price} falls inside it, centred on the
+     * market. Returns false if {@code price} is too far from the market to
+     * keep, and the update is ignored.
+     */
+    private boolean recentre(int price) {
+        int reference;
+        if (bid >= 0 && ask >= 0) {
+            reference = base + (bid + ask) / 2;
+        } else if (bid >= 0) {
+            reference = base + bid;
+        } else if (ask >= 0) {
+            reference = base + ask;
+        } else {
+            Arrays.fill(bids, 0);
+            Arrays.fill(asks, 0);
+            bidLevels = 0;
+            askLevels = 0;
+            base = price - LEVELS / 2;
+            return true;
+        }
+        if (Math.abs((long) price - reference) >= LEVELS / 2) {
+            return false;
+        }
+        int shift = reference - LEVELS / 2 - base;
+        shift(bids, shift);
+        shift(asks, shift);
+        base += shift;
+        bidLevels = count(bids);
+        askLevels = count(asks);
+        bid = bidLevels == 0 ? -1 : bestBelow(LEVELS - 1);
+        ask = askLevels == 0 ? -1 : bestAbove(0);
+        return true;
+    }
+
+    private static void shift(int[] side, int shift) {
+        if (shift > 0) {
+            System.arraycopy(side, shift, side, 0, LEVELS - shift);
+            Arrays.fill(side, LEVELS - shift, LEVELS, 0);
+        } else if (shift < 0) {
+            System.arraycopy(side, 0, side, -shift, LEVELS + shift);
+            Arrays.fill(side, 0, -shift, 0);
+        }
+    }
+
+    private static int count(int[] side) {
+        int levels = 0;
+        for (int size : side) {
+            if (size > 0) {
+                levels++;
+            }
+        }
+        return levels;
+    }
+
+    private void clear() {
+        clearRequested = false;
+        if (bids != null) {
+            Arrays.fill(bids, 0);
+            Arrays.fill(asks, 0);
+        }
+        bidLevels = 0;
+        askLevels = 0;
+        bid = -1;
+        ask = -1;
+    }
+}
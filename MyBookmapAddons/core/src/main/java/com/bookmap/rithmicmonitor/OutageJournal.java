@@ -0,0 +1,223 @@
+package com.bookmap.rithmicmonitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Append-only journal of outages and alerts in memory-mapped segment files.
+ *
+ * Every entry is a fixed {@link #RECORD_BYTES}-byte record: timestamp, type,
+ * alias slot, two numeric fields and up to {@link #TEXT_BYTES} bytes of text
+ * (the alias, or the start of an alert). Appending copies primitives into the
+ * current mapped segment, so it makes no system call and allocates nothing;
+ * the OS writes the pages back, and they survive a crash of Bookmap itself.
+ * A full segment is forced and a new one mapped, keeping the newest
+ * {@link #KEEP_SEGMENTS}. Each segment starts with a header record, and
+ * unused space is zero, so a reader stops at the first record of type 0.
+ * Nothing touches the disk until {@link #open()}, or the first append.
+ * See {@link JournalExport} for reading them back.
+ */
+final class OutageJournal implements AutoCloseable {
+
+    static final int RECORD_BYTES = 64;
+    static final int TEXT_BYTES = 31;
+    static final int MAGIC = 0x53544e4a; // "STNJ"
+    static final int VERSION = 1;
+    static final String SUFFIX = ".journal";
+
+    // record layout
+    static final int TIME = 0;
+    static final int TYPE = 8;
+    static final int SLOT = 12;
+    static final int A = 16;
+    static final int B = 24;
+    static final int TEXT = 32; // one length byte, then the text
+
+    // record types
+    static final int HEADER = 1;
+    static final int MONITOR_START = 2;
+    static final int MONITOR_STOP = 3;
+    /** a = last seen, b = timeout seconds */
+    static final int GAP_START = 4;
+    /** a = silent for ms */
+    static final int GAP_END = 5;
+    /** A silence outside the trading schedule; a = last seen, b = timeout seconds */
+    static final int GAP_SUPPRESSED = 6;
+    /** a = seconds of silence reported, b = silent aliases */
+    static final int PERIODIC_ALERT = 7;
+    /** a = rate x 1000, b = baseline x 1000 */
+    static final int RATE_DEGRADED = 8;
+    static final int RATE_RECOVERED = 9;
+    /** b = latency from queueing in microseconds; text = sink, then the alert */
+    static final int ALERT_SENT = 10;
+    /** text = sink, then the alert */
+    static final int ALERT_FAILED = 11;
+    static final int ALERT_DROPPED = 12;
+    /** Reported by the provider; text = reason and message */
+    static final int CONNECTION_LOST = 13;
+    static final int CONNECTION_RESTORED = 14;
+    static final int LOGIN_FAILED = 15;
+    /** text = symbol */
+    static final int INSTRUMENT_NOT_FOUND = 16;
+    static final int INSTRUMENT_REMOVED = 17;
+    /** a = best bid, b = best ask, in ticks */
+    static final int BOOK_CROSSED = 18;
+    /** a = ms since the top of book changed, b = trades printed outside it */
+    static final int BOOK_FROZEN = 19;
+    /** a = best bid, b = best ask, in ticks */
+    static final int BOOK_WIDE = 20;
+    static final int BOOK_OK = 21;
+    /** a = volume per second x 1000, b = baseline x 1000 */
+    static final int VOLUME_BURST = 22;
+    static final int VOLUME_DROUGHT = 23;
+    static final int VOLUME_NORMAL = 24;
+
+    static final long DEFAULT_SEGMENT_BYTES = 4L * 1024 * 1024;
+    static final int KEEP_SEGMENTS = 16;
+
+    private static final AsyncLog log = AsyncLog.get();
+
+    private final File directory;
+    private final long segmentBytes;
+    private MappedByteBuffer segment;
+    private int position;
+    private long sequence;
+    private boolean opened;
+
+    OutageJournal(File directory, long segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes - segmentBytes % RECORD_BYTES;
+    }
+
+    OutageJournal(File directory) {
+        this(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    private OutageJournal() {
+        this.directory = null;
+        this.segmentBytes = 0;
+        this.opened = true;
+    }
+
+    /** A journal that records nothing. */
+    static OutageJournal disabled() {
+        return new OutageJournal();
+    }
+
+    static File defaultDirectory() {
+        return new File(System.getProperty("user.home"), "SimpleTelegramNotifier-journal");
+    }
+
+    /** Segment files in {@code directory}, oldest first. */
+    static File[] segments(File directory) {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null) {
+            return new File[0];
+        }
+        Arrays.sort(files);
+        return files;
+    }
+
+    private static long sequenceOf(File file) {
+        String name = file.getName();
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /** Maps a fresh segment after the newest existing one; does nothing if already open. */
+    synchronized void open() {
+        if (opened) {
+            return;
+        }
+        opened = true;
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Cannot create " + directory);
+            }
+            File[] existing = segments(directory);
+            sequence = existing.length == 0 ? 0 : sequenceOf(existing[existing.length - 1]);
+            roll(System.currentTimeMillis());
+        } catch (IOException e) {
+            log.warn("⚠️ Outage journal disabled: {}", e.getMessage());
+            segment = null;
+        }
+    }
+
+    void append(long time, int type, int slot, long a, long b) {
+        append(time, type, slot, a, b, null);
+    }
+
+    /** Appends one record; text longer than {@link #TEXT_BYTES} is truncated and non-ASCII becomes '?'. */
+    synchronized void append(long time, int type, int slot, long a, long b, String text) {
+        if (!opened) {
+            open();
+        }
+        if (segment == null) {
+            return;
+        }
+        if (position + RECORD_BYTES > segmentBytes) {
+            roll(time);
+            if (segment == null) {
+                return;
+            }
+        }
+        MappedByteBuffer buffer = segment;
+        int at = position;
+        buffer.putLong(at + TIME, time);
+        buffer.putInt(at + SLOT, slot);
+        buffer.putLong(at + A, a);
+        buffer.putLong(at + B, b);
+        int length = text == null ? 0 : Math.min(text.length(), TEXT_BYTES);
+        buffer.put(at + TEXT, (byte) length);
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            buffer.put(at + TEXT + 1 + i, c < 0x80 ? (byte) c : (byte) '?');
+        }
+        // Type last: a reader treats type 0 as the end of the segment
+        buffer.putInt(at + TYPE, type);
+        position = at + RECORD_BYTES;
+    }
+
+    private void roll(long time) {
+        if (segment != null) {
+            segment.force();
+        }
+        File file = new File(directory, String.format("%012d%s", ++sequence, SUFFIX));
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        } catch (IOException e) {
+            log.warn("⚠️ Outage journal disabled: {}", e.getMessage());
+            segment = null;
+            return;
+        }
+        segment.putLong(TIME, time);
+        segment.putLong(A, MAGIC);
+        segment.putLong(B, VERSION);
+        segment.putInt(TYPE, HEADER);
+        position = RECORD_BYTES;
+
+        File[] all = segments(directory);
+        for (int i = 0; i < all.length - KEEP_SEGMENTS; i++) {
+            if (!all[i].delete()) {
+                log.warn("⚠️ Could not delete old journal segment {}", all[i]);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        opened = true;
+        if (segment != null) {
+            segment.force();
+            segment = null;
+        }
+    }
+}
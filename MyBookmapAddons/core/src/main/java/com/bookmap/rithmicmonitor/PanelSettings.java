@@ -0,0 +1,70 @@
+package com.bookmap.rithmicmonitor;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * The settings an addon's panel edits, taken from one {@link NotifierConfig}
+ * snapshot. Everything else in the config file is kept as it is when these
+ * are saved; {@link ChartMonitor#saveSettings(PanelSettings)} validates them.
+ */
+public record PanelSettings(
+        String botToken,
+        String chatId,
+        int timeoutSeconds,
+        int periodicSeconds,
+        int rateDropPercent,
+        boolean timeRangeEnabled,
+        DayOfWeek startDayOfWeek,
+        DayOfWeek endDayOfWeek,
+        String startTime,
+        String endTime) {
+
+    static PanelSettings of(NotifierConfig config) {
+        return new PanelSettings(config.botToken(), config.chatId(), config.timeoutSeconds(),
+                config.periodicSeconds(), config.rateDropPercent(), config.timeRangeEnabled(),
+                config.startDayOfWeek(), config.endDayOfWeek(), config.startTime(), config.endTime());
+    }
+
+    /** {@code config} with these settings in place of its own. */
+    NotifierConfig applyTo(NotifierConfig config) {
+        return config.withPanel(botToken, chatId, timeoutSeconds, periodicSeconds, rateDropPercent,
+                timeRangeEnabled, startDayOfWeek, endDayOfWeek, startTime, endTime);
+    }
+
+    /** True if {@code time} is in the {@code HH:mm} form the time range uses. */
+    public static boolean isValidTime(String time) {
+        try {
+            LocalTime.parse(time, WeeklySchedule.TIME);
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    public PanelSettings withTelegram(String botToken, String chatId) {
+        return new PanelSettings(botToken, chatId, timeoutSeconds, periodicSeconds, rateDropPercent,
+                timeRangeEnabled, startDayOfWeek, endDayOfWeek, startTime, endTime);
+    }
+
+    public PanelSettings withTimeoutSeconds(int timeoutSeconds) {
+        return new PanelSettings(botToken, chatId, timeoutSeconds, periodicSeconds, rateDropPercent,
+                timeRangeEnabled, startDayOfWeek, endDayOfWeek, startTime, endTime);
+    }
+
+    public PanelSettings withTimeRangeEnabled(boolean timeRangeEnabled) {
+        return new PanelSettings(botToken, chatId, timeoutSeconds, periodicSeconds, rateDropPercent,
+                timeRangeEnabled, startDayOfWeek, endDayOfWeek, startTime, endTime);
+    }
+
+    public PanelSettings withDays(DayOfWeek startDayOfWeek, DayOfWeek endDayOfWeek) {
+        return new PanelSettings(botToken, chatId, timeoutSeconds, periodicSeconds, rateDropPercent,
+                timeRangeEnabled, startDayOfWeek, endDayOfWeek, startTime, endTime);
+    }
+
+    public PanelSettings withTimes(String startTime, String endTime) {
+        return new PanelSettings(botToken, chatId, timeoutSeconds, periodicSeconds, rateDropPercent,
+                timeRangeEnabled, startDayOfWeek, endDayOfWeek, startTime, endTime);
+    }
+}
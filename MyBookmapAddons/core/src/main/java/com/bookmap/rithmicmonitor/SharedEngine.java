@@ -0,0 +1,498 @@
+package com.bookmap.rithmicmonitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Process-wide services shared by every notifier in the Bookmap JVM.
+ *
+ * Bookmap creates one notifier per layers chain, so a workspace with a dozen
+ * charts used to run a dozen scheduler threads, clocks, HTTP clients, config
+ * watchers and time range timers. Each chart's {@link ChartMonitor} now
+ * {@link #acquire()}s the engine and {@link #release()}s it when the notifier
+ * finishes; the first acquire builds it and the last release shuts it down.
+ * The engine owns the one
+ * monitor thread, the clock, the alert digest and notification sinks, the config
+ * snapshot with its file, the compiled trading schedule, and the metrics
+ * with their optional localhost endpoint.
+ *
+ * Every notifier's monitor tasks run on the same single-threaded scheduler, so
+ * state that is "monitor thread only" stays confined to one thread. Likewise
+ * every notifier's data callbacks publish into the one {@link FeedEvents}
+ * ring, whose two consumer threads serve all charts.
+ *
+ * Acquiring is cheap so that a workspace with many charts loads quickly: the
+ * config file, the journal and the outboxes are opened on a short-lived
+ * startup thread and {@link #ready()} completes once that is done, while the
+ * notifiers start with the defaults and are told when the loaded config is
+ * published. Loading the addon runs the log writer, that startup thread, the
+ * config file watcher and one delivery thread per configured sink, and
+ * nothing else. The scheduler only starts its thread when a task is first
+ * scheduled, i.e. when monitoring, the time range or the metrics endpoint
+ * need it. The clock thread and the event ring with its two consumers are
+ * started by {@link #startFeed()} when the first chart starts monitoring;
+ * until then the clock reads the system time and no chart publishes events.
+ */
+final class SharedEngine implements FeedMonitor.Host {
+
+    interface Listener {
+        /** Called after a new config snapshot has been published. */
+        void onConfigChanged(NotifierConfig config);
+
+        /** Called when the schedule switches in or out of range. */
+        void onTimeRangeChanged(boolean inRange);
+    }
+
+    private static final AsyncLog log = AsyncLog.get();
+    private static final long LAG_PROBE_MS = 1000;
+
+    private static SharedEngine instance;
+    private static int references;
+
+    private final ScheduledExecutorService scheduler;
+    // Runs settings changes from the panels; its thread exits when idle
+    private final ExecutorService settingsThread;
+    private final CoarseClock clock = CoarseClock.onDemand(10);
+    private final OutageJournal journal = new OutageJournal(OutageJournal.defaultDirectory());
+    private final Metrics metrics = new Metrics(clock);
+    private final CallbackSink inAppAlerts = new CallbackSink("bookmap", 1_000);
+    private final Notifications notifications;
+    private final AlertAggregator alerts;
+    private final ConfigStore configStore;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final CompletableFuture<NotifierConfig> ready = new CompletableFuture<>();
+
+    // Every setting, published as one immutable snapshot; read it once per decision
+    private volatile NotifierConfig config = NotifierConfig.defaults();
+
+    // Time range state, compiled from the config
+    private volatile WeeklySchedule schedule;
+    private volatile boolean isInTimeRange = false;
+    private ScheduledFuture<?> timeRangeTask;
+
+    private MetricsServer metricsServer;
+    private FeedEvents events;
+    private boolean lagProbeStarted;
+    // When the lag probe is next due; monitor thread only after the probe starts
+    private long nextProbeNanos;
+
+    static synchronized SharedEngine acquire() {
+        if (instance == null) {
+            long started = System.nanoTime();
+            log.start();
+            instance = new SharedEngine(new File(System.getProperty("user.home"), "SimpleTelegramNotifier.properties"));
+            instance.start(started);
+            instance.metrics.startupPhase("engine", System.nanoTime() - started);
+        }
+        references++;
+        return instance;
+    }
+
+    /**
+     * Drops one reference; the last one shuts the engine down. The shutdown runs
+     * under the same lock as {@link #acquire()}, so a new engine is only built
+     * once this one has closed the outbox and journal files it maps.
+     */
+    void release() {
+        synchronized (SharedEngine.class) {
+            if (instance != this || --references > 0) {
+                return;
+            }
+            instance = null;
+            shutdown();
+        }
+    }
+
+    private SharedEngine(File configFile) {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "SimpleTelegramNotifier-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ThreadPoolExecutor settings = new ThreadPoolExecutor(1, 1, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "SimpleTelegramNotifier-settings");
+            thread.setDaemon(true);
+            return thread;
+        });
+        settings.allowCoreThreadTimeOut(true);
+        this.settingsThread = settings;
+        this.alerts = new AlertAggregator(scheduler, this::send, 2000);
+        this.configStore = new ConfigStore(configFile, this::onConfigReloaded);
+        this.notifications = new Notifications(this::config, inAppAlerts, new SinkChannel.Listener() {
+            @Override
+            public void onSent(String sink, String text, long latencyNanos) {
+                journal.append(clock.millis(), OutageJournal.ALERT_SENT, -1, 0, latencyNanos / 1000, sink + ": " + text);
+            }
+
+            @Override
+            public void onFailed(String sink, String text, String error) {
+                journal.append(clock.millis(), OutageJournal.ALERT_FAILED, -1, 0, 0, sink + ": " + text);
+            }
+
+            @Override
+            public void onDropped(String sink, String text) {
+                journal.append(clock.millis(), OutageJournal.ALERT_DROPPED, -1, 0, 0, sink + ": " + text);
+            }
+        }, Notifications.defaultOutboxDirectory());
+        this.metrics.setSinks(notifications::channels);
+    }
+
+    private void start(long startedNanos) {
+        Thread loader = new Thread(() -> load(startedNanos), "SimpleTelegramNotifier-startup");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /** Startup thread: everything that touches the disk, then {@link #ready} completes. */
+    private void load(long startedNanos) {
+        try {
+            journal.open();
+            NotifierConfig loaded = configStore.load();
+            if (loaded != null) {
+                applyConfig(loaded);
+                log.info("✅ Configuration loaded from: {}", configStore.path());
+                log.info("Bot: {}...", loaded.botToken().substring(0, Math.min(10, loaded.botToken().length())));
+                logSettings(loaded);
+            } else {
+                notifications.configure(config);
+                checkTimeRange();
+            }
+            configStore.watch(); // Pick up hand edits of the properties file
+        } catch (RuntimeException e) {
+            log.error("❌ Startup failed, running with defaults: {}", e.toString());
+        } finally {
+            long tookNanos = System.nanoTime() - startedNanos;
+            metrics.startupPhase("config", tookNanos);
+            log.info("⏱️ Ready in {} ms", TimeUnit.NANOSECONDS.toMillis(tookNanos));
+            ready.complete(config);
+        }
+    }
+
+    /** Completes with the loaded config once startup has read the properties file. */
+    CompletableFuture<NotifierConfig> ready() {
+        return ready;
+    }
+
+    private synchronized void startLagProbe() {
+        if (lagProbeStarted) {
+            return;
+        }
+        lagProbeStarted = true;
+        nextProbeNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(LAG_PROBE_MS);
+        scheduler.scheduleAtFixedRate(this::probeSchedulerLag, LAG_PROBE_MS, LAG_PROBE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /** A fixed-rate task that measures how late it runs, i.e. how far behind the monitor thread is. */
+    private void probeSchedulerLag() {
+        metrics.schedulerLag(Math.max(0, System.nanoTime() - nextProbeNanos));
+        nextProbeNanos += TimeUnit.MILLISECONDS.toNanos(LAG_PROBE_MS);
+    }
+
+    ScheduledExecutorService scheduler() {
+        return scheduler;
+    }
+
+    CoarseClock clock() {
+        return clock;
+    }
+
+    AlertAggregator alerts() {
+        return alerts;
+    }
+
+    OutageJournal journal() {
+        return journal;
+    }
+
+    /** Starts the clock thread and returns the event ring, for a chart that starts monitoring. */
+    FeedEvents startFeed() {
+        clock.start();
+        return events();
+    }
+
+    /** The event ring every chart publishes into; built on the first call. */
+    synchronized FeedEvents events() {
+        if (events == null) {
+            events = new FeedEvents(EventRing.WaitStrategy.parse(config.eventWait()));
+            metrics.setEvents(events);
+        }
+        return events;
+    }
+
+    Metrics metrics() {
+        return metrics;
+    }
+
+    /** Registers a target for the {@code bookmap} sink; the first registered one shows each alert. */
+    void addInAppAlertTarget(Consumer<String> target) {
+        inAppAlerts.addTarget(target);
+    }
+
+    void removeInAppAlertTarget(Consumer<String> target) {
+        inAppAlerts.removeTarget(target);
+    }
+
+    @Override
+    public NotifierConfig config() {
+        return config;
+    }
+
+    WeeklySchedule schedule() {
+        return schedule;
+    }
+
+    boolean isInTimeRange() {
+        return isInTimeRange;
+    }
+
+    @Override
+    public boolean isWithinTimeRange() {
+        if (!config.timeRangeEnabled()) {
+            return true; // If time range is disabled, always consider it "within range"
+        }
+        return isInTimeRange;
+    }
+
+    void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Runs a settings change on the engine's settings thread, one at a time
+     * and in order. Publishing a config waits for startup and reconfigures the
+     * sinks, outboxes and metrics endpoint, which a UI thread must not wait for.
+     */
+    CompletableFuture<Void> changeConfig(Runnable change) {
+        return CompletableFuture.runAsync(change, settingsThread);
+    }
+
+    /** Applies a change to the current snapshot without saving it. */
+    void updateConfig(UnaryOperator<NotifierConfig> change) {
+        ready.join(); // Changes apply on top of the loaded file, never under it
+        synchronized (this) {
+            NotifierConfig next = change.apply(config);
+            if (!next.equals(config)) {
+                applyConfig(next);
+            }
+        }
+    }
+
+    /** Publishes {@code next} and writes it to the properties file. */
+    void saveConfig(NotifierConfig next) {
+        ready.join();
+        // Publish first so monitoring never waits on the disk
+        applyConfig(next);
+        try {
+            configStore.save(next);
+            log.info("✅ Configuration saved to: {}", configStore.path());
+        } catch (IOException e) {
+            log.error("❌ Error saving configuration: {}", e.getMessage());
+        }
+        log.info("Config saved - Bot: {}...", next.botToken().substring(0, Math.min(10, next.botToken().length())));
+        logSettings(next);
+    }
+
+    private void onConfigReloaded(NotifierConfig reloaded) {
+        applyConfig(reloaded);
+        logSettings(reloaded);
+    }
+
+    /**
+     * Publishes {@code next} as the current snapshot, pushes it into the
+     * components that cache settings, and tells every notifier.
+     */
+    private synchronized void applyConfig(NotifierConfig next) {
+        config = next;
+        alerts.setWindowMs(next.alertWindowMs());
+        log.setLevel(next.logLevel());
+        updateMetricsServer(next.metricsPort());
+        notifications.configure(next);
+        if (events != null) {
+            events.setWaitStrategy(EventRing.WaitStrategy.parse(next.eventWait()));
+        }
+        checkTimeRange();
+        for (Listener listener : listeners) {
+            listener.onConfigChanged(next);
+        }
+    }
+
+    /** Starts, moves or stops the metrics endpoint to match {@code port}; 0 turns it off. */
+    private synchronized void updateMetricsServer(int port) {
+        if (metricsServer != null && metricsServer.port() == port) {
+            return;
+        }
+        if (metricsServer != null) {
+            metricsServer.close();
+            metricsServer = null;
+        }
+        if (port > 0) {
+            metricsServer = MetricsServer.start(port, metrics);
+            if (metricsServer != null) {
+                startLagProbe(); // Only worth a timer while someone can scrape it
+            }
+        }
+    }
+
+    private static void logSettings(NotifierConfig current) {
+        log.info("Chat ID: {}", current.chatId());
+        log.info("Timeout: {} seconds", current.timeoutSeconds());
+        if (current.adaptiveTimeout()) {
+            log.info("Adaptive timeout: {}", current.minTimeoutSeconds() + "-" + current.maxTimeoutSeconds() + " seconds");
+        }
+        log.info("Periodic: {} seconds", current.periodicSeconds());
+        log.info("Rate Drop: {}", current.rateDropPercent() > 0 ? current.rateDropPercent() + "%" : "Off");
+        log.info("Volume: {}", (current.volumeBurstMultiple() > 0 ? "burst over " + current.volumeBurstMultiple() + "x" : "burst off")
+                + (current.volumeDroughtPercent() > 0 ? ", drought under " + current.volumeDroughtPercent() + "%" : ", drought off"));
+        log.info("Time Range: {}", current.timeRangeEnabled() ? "Enabled (" + current.startDayOfWeek() + " to " +
+                current.endDayOfWeek() + ", Time: " + current.startTime() + " - " + current.endTime() + ")" : "Disabled");
+        log.info("Log Level: {}", current.logLevel());
+        log.info("Event Wait: {}", EventRing.WaitStrategy.parse(current.eventWait()));
+        log.info("Sinks: {} (on {} threads)", current.sinks(), SinkThreads.preferred().isVirtual() ? "virtual" : "platform");
+        log.info("Metrics: {}", current.metricsPort() > 0 ? "http://127.0.0.1:" + current.metricsPort() + "/metrics" : "Off");
+    }
+
+    /**
+     * Recompiles the weekly schedule from the current settings, then evaluates
+     * it and arms a one-shot task for the next transition.
+     */
+    private synchronized void checkTimeRange() {
+        NotifierConfig current = config;
+        if (!current.timeRangeEnabled()) {
+            schedule = null;
+            cancelTimeRangeTask();
+            setInTimeRange(false);
+            return;
+        }
+
+        try {
+            List<WeeklySchedule.Window> windows = new ArrayList<>();
+            windows.add(new WeeklySchedule.Window(current.startDayOfWeek(), LocalTime.parse(current.startTime(), WeeklySchedule.TIME),
+                    current.endDayOfWeek(), LocalTime.parse(current.endTime(), WeeklySchedule.TIME)));
+            windows.addAll(WeeklySchedule.parseWindows(current.extraWindows()));
+            schedule = new WeeklySchedule(windows, WeeklySchedule.parseZone(current.timeZone()),
+                    WeeklySchedule.parseHolidays(current.holidays()), WeeklySchedule.parseEarlyCloses(current.earlyCloses()));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            log.error("❌ Invalid time range: {}", e.getMessage());
+            schedule = null;
+            cancelTimeRangeTask();
+            setInTimeRange(false);
+            return;
+        }
+        evaluateTimeRange();
+    }
+
+    private synchronized void evaluateTimeRange() {
+        cancelTimeRangeTask();
+        WeeklySchedule current = schedule;
+        if (current == null) {
+            return;
+        }
+
+        long now = clock.millis();
+        boolean inRange = current.isActive(now);
+        if (inRange != isInTimeRange) {
+            if (inRange) {
+                log.info("✅ Entered time range: {}", describeSchedule(current));
+            } else {
+                log.info("❌ Exited time range: {}", describeSchedule(current));
+            }
+        }
+        setInTimeRange(inRange);
+
+        long next = current.nextTransition(now);
+        if (next != Long.MAX_VALUE && !scheduler.isShutdown()) {
+            // Re-check at least hourly so wall-clock jumps and system sleep get corrected
+            long delay = Math.min(next - now, TimeUnit.HOURS.toMillis(1));
+            timeRangeTask = scheduler.schedule(this::evaluateTimeRange, Math.max(0, delay), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void setInTimeRange(boolean inRange) {
+        isInTimeRange = inRange;
+        for (Listener listener : listeners) {
+            listener.onTimeRangeChanged(inRange);
+        }
+    }
+
+    private synchronized void cancelTimeRangeTask() {
+        if (timeRangeTask != null && !timeRangeTask.isCancelled()) {
+            timeRangeTask.cancel(false);
+            timeRangeTask = null;
+        }
+    }
+
+    static String describeSchedule(WeeklySchedule schedule) {
+        StringBuilder description = new StringBuilder();
+        for (WeeklySchedule.Window window : schedule.windows()) {
+            if (description.length() > 0) description.append("; ");
+            description.append(window);
+        }
+        return description.append(" (").append(schedule.zone()).append(")").toString();
+    }
+
+    /** Hands {@code message} to every configured sink. */
+    void send(String message) {
+        send(message, null);
+    }
+
+    /** Hands {@code message} to every sink, replacing a pending alert with the same {@code repeatKey}. */
+    void send(String message, String repeatKey) {
+        if (notifications.channels().isEmpty()) {
+            log.warn("No notification sinks configured, message not sent: {}", message);
+            return;
+        }
+        notifications.publish(message, repeatKey);
+    }
+
+    private void shutdown() {
+        ready.join();
+        settingsThread.shutdown(); // Saves already asked for still reach the file
+        try {
+            settingsThread.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        configStore.close();
+        updateMetricsServer(0);
+        cancelTimeRangeTask();
+        synchronized (this) {
+            if (events != null) {
+                events.close();
+            }
+        }
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        alerts.flush();
+        notifications.close();
+        journal.close();
+        clock.close();
+        log.info("Simple Telegram Notifier stopped");
+        log.stop();
+    }
+}
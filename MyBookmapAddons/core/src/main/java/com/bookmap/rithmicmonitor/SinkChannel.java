@@ -0,0 +1,311 @@
+package com.bookmap.rithmicmonitor;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous delivery stage for one {@link NotificationSink}.
+ *
+ * Callers only append an alert to the channel's {@link AlertOutbox}; the
+ * channel's own daemon thread hands the oldest one to the sink and removes it
+ * once it is delivered or refused ({@link NotificationSink.Rejected}). Each
+ * delivery runs on a thread of its own and the channel waits for it at most
+ * {@link NotificationSink#timeoutMs()}; a sink that throws anything else or
+ * overruns counts a failure on the channel's {@link CircuitBreaker} and the
+ * alert stays at the front of the outbox. An overrunning call is interrupted
+ * and, until it returns, every later attempt fails straight away, so a sink
+ * is never called twice at once. While the breaker is open the thread waits
+ * and new alerts queue up behind it. An alert that is still undelivered after
+ * {@link #MAX_AGE_MS} is dropped. Since every sink has its own outbox and
+ * thread, a hung sink never delays the others. The thread comes from
+ * {@link SinkThreads}, so it is a virtual one on Java 21.
+ */
+final class SinkChannel implements AutoCloseable {
+
+    /** Outcome of each alert, called on the channel thread (or the caller's, for drops). */
+    interface Listener {
+        Listener NONE = new Listener() {
+        };
+
+        /** {@code latencyNanos} runs from queueing the alert to its delivery. */
+        default void onSent(String sink, String text, long latencyNanos) {
+        }
+
+        default void onFailed(String sink, String text, String error) {
+        }
+
+        default void onDropped(String sink, String text) {
+        }
+    }
+
+    static final long MAX_AGE_MS = 24 * 3_600_000L;
+    /** Alerts delivered this late say when they were raised. */
+    static final long DELAY_NOTE_MS = 60_000;
+
+    private static final AsyncLog log = AsyncLog.get();
+    private static final DateTimeFormatter HELD_SINCE = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final NotificationSink sink;
+    private final AlertOutbox outbox;
+    private final CircuitBreaker breaker;
+    private final Listener listener;
+    private final SinkThreads threads;
+    private final Thread worker;
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    // How long each successful sink.deliver() call took
+    private final Metrics.Histogram latency = new Metrics.Histogram();
+    private volatile boolean closed;
+    // Set when a durable outbox is passed on to the channel that replaces this one
+    private volatile boolean handedOff;
+    // The latest sink.deliver() call; channel thread only
+    private Thread call;
+
+    SinkChannel(NotificationSink sink, AlertOutbox outbox, CircuitBreaker breaker, Listener listener,
+                SinkThreads threads) {
+        this.sink = sink;
+        this.outbox = outbox;
+        this.breaker = breaker;
+        this.listener = listener;
+        this.threads = threads;
+        this.worker = threads.start("SimpleTelegramNotifier-sink-" + sink.name(), this::run);
+    }
+
+    SinkChannel(NotificationSink sink, AlertOutbox outbox, CircuitBreaker breaker, Listener listener) {
+        this(sink, outbox, breaker, listener, SinkThreads.preferred());
+    }
+
+    SinkChannel(NotificationSink sink, AlertOutbox outbox, Listener listener) {
+        this(sink, outbox, new CircuitBreaker(3, 5_000, 60_000), listener);
+    }
+
+    String name() {
+        return sink.name();
+    }
+
+    /** Queues an alert for delivery; returns false if the channel is stopped. */
+    boolean offer(String text) {
+        return offer(text, null);
+    }
+
+    /** Queues an alert that replaces a pending one with the same {@code repeatKey}, if any. */
+    boolean offer(String text, String repeatKey) {
+        if (closed) {
+            dropped.increment();
+            log.error("❌ {} stopped, message dropped: {}", sink.name(), text);
+            listener.onDropped(sink.name(), text);
+            return false;
+        }
+        int evicted = outbox.append(text, repeatKey, System.currentTimeMillis());
+        queued.increment();
+        if (evicted > 0) {
+            dropped.add(evicted);
+            log.error("❌ {} outbox full, dropped the {} oldest alerts", sink.name(), evicted);
+            listener.onDropped(sink.name(), evicted + " oldest alerts");
+        }
+        return true;
+    }
+
+    private void run() {
+        try {
+            while (!handedOff && (!closed || outbox.size() > 0)) {
+                long waitMs = breaker.waitMs(System.currentTimeMillis());
+                if (waitMs > 0) {
+                    if (closed) {
+                        break; // A failing sink is not retried once stopped
+                    }
+                    Thread.sleep(Math.min(waitMs, 1000));
+                    continue;
+                }
+                AlertOutbox.Pending next = outbox.poll();
+                if (next == null) {
+                    outbox.await(200);
+                } else if (!deliver(next)) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            // Closing; whatever is left stays in the outbox
+        }
+        if (call != null) {
+            call.interrupt();
+        }
+        sink.close();
+    }
+
+    /** Returns false only if the channel thread was interrupted. */
+    private boolean deliver(AlertOutbox.Pending next) {
+        long now = System.currentTimeMillis();
+        if (now - next.time() > MAX_AGE_MS) {
+            outbox.ack(next.position());
+            dropped.increment();
+            log.warn("⚠️ {} alert expired undelivered: {}", sink.name(), next.text());
+            listener.onDropped(sink.name(), next.text());
+            return true;
+        }
+        try {
+            long start = System.nanoTime();
+            call(annotate(next, now));
+            latency.record(System.nanoTime() - start);
+            outbox.ack(next.position());
+            long latencyNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - next.time());
+            sent.increment();
+            listener.onSent(sink.name(), next.text(), latencyNanos);
+            breaker.onSuccess();
+        } catch (TimeoutException e) {
+            outbox.release(next.position());
+            failed.increment();
+            log.error("❌ {} delivery timed out, will retry: {}", sink.name(), e.getMessage());
+            listener.onFailed(sink.name(), next.text(), e.getMessage());
+            tripOnFailure();
+        } catch (NotificationSink.Rejected e) {
+            // Retrying would not help; the sink itself answered, so the breaker stays as it is
+            outbox.ack(next.position());
+            failed.increment();
+            log.error("❌ {} refused alert: {}", sink.name(), e.getMessage());
+            listener.onFailed(sink.name(), next.text(), String.valueOf(e.getMessage()));
+        } catch (IOException | RuntimeException e) {
+            // A sink that breaks, by I/O or by a bug of its own, keeps the alert for a later attempt
+            String error = e instanceof IOException ? String.valueOf(e.getMessage()) : e.toString();
+            outbox.release(next.position());
+            failed.increment();
+            log.error("❌ {} delivery failed, will retry: {}", sink.name(), error);
+            listener.onFailed(sink.name(), next.text(), error);
+            tripOnFailure();
+        } catch (InterruptedException e) {
+            outbox.release(next.position());
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Runs {@code sink.deliver(text)} on a thread of its own and waits for it
+     * at most the sink's timeout, interrupting the call if it overruns.
+     */
+    private void call(String text) throws IOException, InterruptedException, TimeoutException {
+        if (call != null && call.isAlive()) {
+            throw new TimeoutException("previous delivery still running");
+        }
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        call = threads.start("SimpleTelegramNotifier-deliver-" + sink.name(), () -> {
+            try {
+                sink.deliver(text);
+                done.complete(null);
+            } catch (Throwable e) {
+                done.completeExceptionally(e);
+            }
+        });
+        try {
+            done.get(sink.timeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            call.interrupt();
+            throw new TimeoutException("no answer within " + sink.timeoutMs() + " ms");
+        } catch (InterruptedException e) {
+            call.interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            // Only an interrupt this channel did not send; try again later
+            throw new IOException(String.valueOf(cause), cause);
+        }
+    }
+
+    /** Notes replaced repeats and, for a late alert, when it was raised. */
+    static String annotate(AlertOutbox.Pending alert, long now) {
+        boolean late = now - alert.time() >= DELAY_NOTE_MS;
+        if (alert.repeats() == 0 && !late) {
+            return alert.text();
+        }
+        StringBuilder text = new StringBuilder(alert.text());
+        if (alert.repeats() > 0) {
+            text.append("\n(replaces ").append(alert.repeats())
+                    .append(alert.repeats() == 1 ? " earlier update" : " earlier updates").append(" not yet sent)");
+        }
+        if (late) {
+            text.append("\n(held since ")
+                    .append(HELD_SINCE.format(Instant.ofEpochMilli(alert.time()).atZone(ZoneId.systemDefault())))
+                    .append(")");
+        }
+        return text.toString();
+    }
+
+    private void tripOnFailure() {
+        long openMs = breaker.onFailure(System.currentTimeMillis());
+        if (openMs > 0) {
+            log.warn("⚠️ {} circuit open, next attempt in {} ms", sink.name(), openMs);
+        }
+    }
+
+    long queuedCount() {
+        return queued.sum();
+    }
+
+    long sentCount() {
+        return sent.sum();
+    }
+
+    long failedCount() {
+        return failed.sum();
+    }
+
+    long droppedCount() {
+        return dropped.sum();
+    }
+
+    int queueDepth() {
+        return outbox.size();
+    }
+
+    CircuitBreaker.State breakerState() {
+        return breaker.state();
+    }
+
+    Metrics.Histogram latency() {
+        return latency;
+    }
+
+    /**
+     * Stops accepting alerts. A durable outbox is left to the channel that
+     * replaces this one; otherwise the thread drains it, then closes the sink.
+     */
+    void retire() {
+        closed = true;
+        handedOff = outbox.durable();
+    }
+
+    /**
+     * Stops accepting alerts and gives the thread a short grace period to drain
+     * the outbox. What a durable outbox still holds goes out on the next start.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            worker.join(2000);
+            worker.interrupt();
+            worker.join(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.bookmap.rithmicmonitor;
+
+import java.net.http.HttpClient;
+
+/**
+ * The threads alert delivery blocks on: each {@link SinkChannel}'s worker,
+ * which also sleeps through retry backoff, and the executor of the sinks'
+ * HTTP clients.
+ *
+ * This is the Java 17 variant: a daemon platform thread per channel and the
+ * HTTP client's default pool. The jar carries a Java 21 variant under
+ * {@code META-INF/versions/21} whose {@link #preferred()} runs both on
+ * virtual threads instead.
+ */
+final class SinkThreads {
+
+    private static final SinkThreads PLATFORM = new SinkThreads();
+
+    private SinkThreads() {
+    }
+
+    /** Platform threads, on any runtime. */
+    static SinkThreads platform() {
+        return PLATFORM;
+    }
+
+    /** The cheapest threads this runtime has for blocking I/O. */
+    static SinkThreads preferred() {
+        return PLATFORM;
+    }
+
+    boolean isVirtual() {
+        return false;
+    }
+
+    /** Starts {@code task} on a new daemon thread. */
+    Thread start(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    HttpClient.Builder httpClient() {
+        return HttpClient.newBuilder();
+    }
+}
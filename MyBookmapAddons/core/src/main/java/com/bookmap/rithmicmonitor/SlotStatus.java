@@ -0,0 +1,64 @@
+package com.bookmap.rithmicmonitor;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-slot facts the dashboard shows beyond the tracker's own counters: the
+ * last alert raised for an alias and whether it was unsubscribed. Alerts are
+ * identified by their {@link OutageJournal} record type.
+ *
+ * Only the monitor thread writes, so growing the array needs no lock; the EDT
+ * reads at its frame rate and at worst sees a value one frame late.
+ */
+final class SlotStatus {
+
+    private static final long REMOVED = 1L << 32;
+    private static final long TYPE_MASK = 0xffffffffL;
+
+    // time of the last alert, then the removed flag and its type, per slot
+    private volatile AtomicLongArray slots = new AtomicLongArray(2 * 64);
+
+    /** Monitor thread only. */
+    void alerted(int slot, int type, long time) {
+        AtomicLongArray current = writable(slot);
+        current.set(2 * slot, time);
+        current.set(2 * slot + 1, (current.get(2 * slot + 1) & REMOVED) | type);
+    }
+
+    /** Monitor thread only. */
+    void setRemoved(int slot, boolean removed) {
+        AtomicLongArray current = writable(slot);
+        long flags = current.get(2 * slot + 1);
+        current.set(2 * slot + 1, removed ? flags | REMOVED : flags & ~REMOVED);
+    }
+
+    /** Time of the last alert for {@code slot}, or 0 if there was none. */
+    long alertTime(int slot) {
+        AtomicLongArray current = slots;
+        return 2 * slot < current.length() ? current.get(2 * slot) : 0;
+    }
+
+    /** Journal type of the last alert for {@code slot}, or 0 if there was none. */
+    int alertType(int slot) {
+        AtomicLongArray current = slots;
+        return 2 * slot + 1 < current.length() ? (int) (current.get(2 * slot + 1) & TYPE_MASK) : 0;
+    }
+
+    boolean isRemoved(int slot) {
+        AtomicLongArray current = slots;
+        return 2 * slot + 1 < current.length() && (current.get(2 * slot + 1) & REMOVED) != 0;
+    }
+
+    private AtomicLongArray writable(int slot) {
+        AtomicLongArray current = slots;
+        if (2 * slot + 1 < current.length()) {
+            return current;
+        }
+        AtomicLongArray grown = new AtomicLongArray(Math.max(2 * slot + 2, current.length() * 2));
+        for (int i = 0; i < current.length(); i++) {
+            grown.set(i, current.get(i));
+        }
+        slots = grown;
+        return grown;
+    }
+}
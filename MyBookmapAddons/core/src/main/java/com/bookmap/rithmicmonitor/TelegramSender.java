@@ -0,0 +1,153 @@
+package com.bookmap.rithmicmonitor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Telegram delivery, as one {@link NotificationSink}.
+ *
+ * Messages are posted through a shared keep-alive {@link HttpClient} to the
+ * chat in the current config. Transient failures (I/O errors and 5xx) are
+ * retried with exponential backoff, and a 429 reply waits for the
+ * {@code retry_after} Telegram asks for, all within the sink's timeout.
+ * Every attempt first takes a token from its chat's bucket, keeping each chat
+ * under Telegram's per-chat limits. Queueing, the circuit breaker and
+ * delivery callbacks are the {@link SinkChannel}'s job.
+ */
+final class TelegramSender implements NotificationSink {
+
+    static final String TELEGRAM_API = "https://api.telegram.org";
+
+    private static final AsyncLog log = AsyncLog.get();
+    private static final Pattern RETRY_AFTER = Pattern.compile("\"retry_after\"\\s*:\\s*(\\d+)");
+
+    private final String baseUrl;
+    private final Supplier<NotifierConfig> config;
+    private final HttpClient client;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long timeoutMs;
+    private final int burst;
+    private final int perMinute;
+    // only touched by the channel thread
+    private final Map<String, TokenBucket> buckets = new HashMap<>();
+
+    TelegramSender(String baseUrl, Supplier<NotifierConfig> config, int maxAttempts, long initialBackoffMs,
+                   long maxBackoffMs, long timeoutMs, int burst, int perMinute) {
+        this.baseUrl = baseUrl;
+        this.config = config;
+        this.client = SinkThreads.preferred().httpClient()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.timeoutMs = timeoutMs;
+        this.burst = burst;
+        this.perMinute = perMinute;
+    }
+
+    TelegramSender(Supplier<NotifierConfig> config) {
+        this(TELEGRAM_API, config, 4, 500, 30_000, 60_000, 3, 20);
+    }
+
+    @Override
+    public String name() {
+        return "telegram";
+    }
+
+    @Override
+    public long timeoutMs() {
+        return timeoutMs;
+    }
+
+    @Override
+    public boolean durable() {
+        return true;
+    }
+
+    @Override
+    public void deliver(String text) throws IOException, InterruptedException {
+        NotifierConfig current = config.get();
+        if (current.botToken().isEmpty() || current.chatId().isEmpty()) {
+            throw new IOException("Telegram not configured. Use setTelegramConfig(botToken, chatId) first.");
+        }
+        HttpRequest request = buildRequest(baseUrl, current.botToken(), current.chatId(), text);
+
+        TokenBucket bucket = buckets.computeIfAbsent(current.chatId(),
+                chat -> new TokenBucket(burst, perMinute, System.nanoTime()));
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        long backoffMs = initialBackoffMs;
+        String lastError = "no attempt";
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            long waitMs;
+            long throttleNanos = bucket.reserve(System.nanoTime());
+            if (throttleNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(throttleNanos);
+            }
+            HttpResponse<String> response;
+            try {
+                response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                response = null;
+                lastError = e.getMessage();
+                log.warn("⚠️ Telegram send attempt {} failed: {}", attempt, e.getMessage());
+            }
+            if (response == null) {
+                waitMs = backoffMs;
+            } else {
+                int status = response.statusCode();
+                if (status == 200) {
+                    log.info("✅ Telegram message sent: {}", text);
+                    return;
+                }
+                if (status != 429 && status < 500) {
+                    throw new Rejected("Failed to send Telegram message. Status: " + status);
+                }
+                lastError = "status " + status;
+                waitMs = status == 429 ? retryAfterMs(response.body(), backoffMs) : backoffMs;
+                log.warn("⚠️ Telegram send attempt {} failed with status {}", attempt, status);
+            }
+
+            if (attempt < maxAttempts) {
+                if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMs) > deadline) {
+                    throw new IOException("Telegram timeout after " + attempt + " attempts: " + lastError);
+                }
+                Thread.sleep(waitMs);
+                backoffMs = Math.min(backoffMs * 2, maxBackoffMs);
+            }
+        }
+        throw new IOException("Error sending Telegram message after " + maxAttempts + " attempts: " + lastError);
+    }
+
+    static HttpRequest buildRequest(String baseUrl, String botToken, String chatId, String text) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/bot" + botToken + "/sendMessage"))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(formBody(chatId, text)))
+                .build();
+    }
+
+    static String formBody(String chatId, String text) {
+        return "chat_id=" + URLEncoder.encode(chatId, StandardCharsets.UTF_8)
+                + "&text=" + URLEncoder.encode(text, StandardCharsets.UTF_8);
+    }
+
+    private static long retryAfterMs(String body, long fallbackMs) {
+        Matcher matcher = RETRY_AFTER.matcher(body);
+        return matcher.find() ? TimeUnit.SECONDS.toMillis(Long.parseLong(matcher.group(1))) : fallbackMs;
+    }
+}
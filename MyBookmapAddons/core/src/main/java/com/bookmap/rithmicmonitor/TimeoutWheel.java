@@ -0,0 +1,220 @@
+package com.bookmap.rithmicmonitor;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Per-alias silence detection driven by a hashed timing wheel.
+ *
+ * Every alias known to the {@link LivenessTracker} owns exactly one entry in
+ * the wheel, scheduled for {@code lastSeen + timeout}, where the timeout is
+ * the alias' own from {@link #setTimeouts} or else the default passed to
+ * {@link #advance}. The data thread never
+ * touches the wheel: it only stores timestamps in the tracker. When an entry's
+ * bucket comes due, the wheel compares the deadline with the alias' current
+ * last-seen time and either re-arms it (data arrived in the meantime) or
+ * declares the alias silent. Silent aliases are re-checked every
+ * {@code recheckMs} until data returns.
+ *
+ * Deadlines beyond one wheel revolution simply stay in their bucket until the
+ * revolution that reaches them, so cost is O(1) per due entry and no pass ever
+ * walks every alias. Aliases whose instrument was removed are retired: their
+ * entry is dropped when it next comes due and they are not armed again until
+ * {@link #rearm} is called. Not thread-safe: all calls must come from the
+ * monitor thread.
+ */
+final class TimeoutWheel {
+
+    interface Listener {
+        void onSilent(int slot, long lastSeen, long now);
+
+        void onRecovered(int slot, long silentForMs, long now);
+    }
+
+    private static final int NONE = -1;
+    private static final byte UNARMED = 0;
+    private static final byte ARMED = 1;
+    private static final byte SILENT = 2;
+
+    private final LivenessTracker tracker;
+    private final Listener listener;
+    private final long tickMs;
+    private final long recheckMs;
+    private final int[] buckets;
+    private final int mask;
+
+    private long[] deadline = new long[0];
+    private long[] silentSince = new long[0];
+    private int[] next = new int[0];
+    private byte[] state = new byte[0];
+    private final BitSet retired = new BitSet();
+    private long[] timeouts = new long[0];
+    private int known;
+    private int silentCount;
+    private long currentTick = -1;
+
+    TimeoutWheel(LivenessTracker tracker, Listener listener, long tickMs, int wheelSize, long recheckMs) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two: " + wheelSize);
+        }
+        this.tracker = tracker;
+        this.listener = listener;
+        this.tickMs = tickMs;
+        this.recheckMs = recheckMs;
+        this.buckets = new int[wheelSize];
+        this.mask = wheelSize - 1;
+        Arrays.fill(buckets, NONE);
+    }
+
+    /** Forgets all entries; aliases are re-armed from their last-seen time on the next advance. */
+    void reset() {
+        Arrays.fill(buckets, NONE);
+        Arrays.fill(state, UNARMED);
+        known = 0;
+        silentCount = 0;
+        currentTick = -1;
+    }
+
+    /** Arms newly registered aliases and processes every bucket that is due at {@code now}. */
+    void advance(long now, long timeoutMs) {
+        long targetTick = now / tickMs;
+        if (currentTick < 0) {
+            currentTick = targetTick;
+        }
+        armNewAliases(now, timeoutMs);
+
+        if (targetTick - currentTick >= buckets.length) {
+            // Fell behind by a full revolution (e.g. system sleep): every bucket is due once
+            currentTick = targetTick;
+            for (int b = 0; b < buckets.length; b++) {
+                expire(b, now, timeoutMs);
+            }
+            currentTick++;
+            return;
+        }
+        while (currentTick <= targetTick) {
+            expire((int) (currentTick & mask), now, timeoutMs);
+            currentTick++;
+        }
+    }
+
+    /** Per-slot timeouts in ms; 0, or a slot past the end, uses the default. */
+    void setTimeouts(long[] timeouts) {
+        this.timeouts = timeouts;
+    }
+
+    long timeoutOf(int slot, long defaultMs) {
+        long[] current = timeouts;
+        return slot < current.length && current[slot] > 0 ? current[slot] : defaultMs;
+    }
+
+    /** Stops watching {@code slot}; its pending entry is dropped when it comes due. */
+    void retire(int slot) {
+        retired.set(slot);
+        if (slot < known) {
+            if (state[slot] == SILENT) {
+                silentCount--;
+            }
+            state[slot] = UNARMED;
+        }
+    }
+
+    /** Watches a retired {@code slot} again, from its last-seen time. */
+    void rearm(int slot, long now, long timeoutMs) {
+        if (!retired.get(slot)) {
+            return;
+        }
+        retired.clear(slot);
+        if (slot < known && state[slot] == UNARMED) {
+            state[slot] = ARMED;
+            if (deadline[slot] < 0) {
+                long seen = tracker.lastSeen(slot);
+                schedule(slot, (seen == LivenessTracker.NEVER ? now : seen) + timeoutOf(slot, timeoutMs));
+            }
+            // otherwise the old entry is still linked and re-arms itself when due
+        }
+    }
+
+    int silentCount() {
+        return silentCount;
+    }
+
+    boolean isSilent(int slot) {
+        return slot < known && state[slot] == SILENT;
+    }
+
+    private void armNewAliases(long now, long timeoutMs) {
+        int size = tracker.size();
+        if (size <= known) {
+            return;
+        }
+        if (size > state.length) {
+            int capacity = Math.max(size, state.length * 2);
+            deadline = Arrays.copyOf(deadline, capacity);
+            silentSince = Arrays.copyOf(silentSince, capacity);
+            next = Arrays.copyOf(next, capacity);
+            state = Arrays.copyOf(state, capacity);
+        }
+        for (int slot = known; slot < size; slot++) {
+            if (retired.get(slot)) {
+                state[slot] = UNARMED;
+                deadline[slot] = -1;
+                continue;
+            }
+            long seen = tracker.lastSeen(slot);
+            state[slot] = ARMED;
+            schedule(slot, (seen == LivenessTracker.NEVER ? now : seen) + timeoutOf(slot, timeoutMs));
+        }
+        known = size;
+    }
+
+    private void expire(int bucket, long now, long timeoutMs) {
+        int slot = buckets[bucket];
+        buckets[bucket] = NONE;
+        while (slot != NONE) {
+            int following = next[slot];
+            if (deadline[slot] > now) {
+                schedule(slot, deadline[slot]);
+            } else {
+                fire(slot, now, timeoutMs);
+            }
+            slot = following;
+        }
+    }
+
+    private void fire(int slot, long now, long defaultMs) {
+        long timeoutMs = timeoutOf(slot, defaultMs);
+        long seen = tracker.lastSeen(slot);
+        if (state[slot] == ARMED) {
+            if (seen + timeoutMs > now) {
+                schedule(slot, seen + timeoutMs);
+            } else {
+                state[slot] = SILENT;
+                silentSince[slot] = now;
+                silentCount++;
+                schedule(slot, now + recheckMs);
+                listener.onSilent(slot, seen, now);
+            }
+        } else if (state[slot] == SILENT) {
+            if (seen >= silentSince[slot]) {
+                state[slot] = ARMED;
+                silentCount--;
+                schedule(slot, seen + timeoutMs);
+                listener.onRecovered(slot, now - silentSince[slot], now);
+            } else {
+                schedule(slot, now + recheckMs);
+            }
+        } else {
+            deadline[slot] = -1; // retired: unlinked until rearmed
+        }
+    }
+
+    private void schedule(int slot, long at) {
+        deadline[slot] = at;
+        // never insert into the bucket currently being drained
+        long tick = Math.max(at / tickMs, currentTick + 1);
+        int bucket = (int) (tick & mask);
+        next[slot] = buckets[bucket];
+        buckets[bucket] = slot;
+    }
+}
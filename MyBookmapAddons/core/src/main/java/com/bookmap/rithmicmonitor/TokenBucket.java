@@ -0,0 +1,31 @@
+package com.bookmap.rithmicmonitor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservation-style token bucket. {@link #reserve(long)} always takes a token
+ * and returns how long the caller must wait before using it, so a single
+ * sender thread can pace itself without polling. Not thread-safe.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(int burst, int perMinute, long nowNanos) {
+        this.capacity = burst;
+        this.tokensPerNano = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.tokens = burst;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /** Takes one token and returns the nanoseconds to wait until it is actually available. */
+    long reserve(long nowNanos) {
+        tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = nowNanos;
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+}
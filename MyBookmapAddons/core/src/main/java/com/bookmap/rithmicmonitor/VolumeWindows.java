@@ -0,0 +1,215 @@
+package com.bookmap.rithmicmonitor;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-alias traded volume over rolling windows, used to spot bursts and
+ * droughts of trading against a ten-minute baseline.
+ *
+ * The data thread only adds each trade's size to a running total, one ordered
+ * store into a padded per-slot block, as in {@link EventRateStats}. Once a
+ * second the monitor thread turns the total's delta into a one-second bucket
+ * in a ring of {@link #SECONDS} buckets per slot, and keeps the sums of the
+ * {@link #SHORT_SECONDS}, {@link #DROUGHT_SECONDS} and full windows by adding
+ * the new bucket and subtracting the one that left each window, so a sample
+ * costs the same whatever the window lengths.
+ *
+ * A burst is a short-window rate over {@code burstMultiple} times the
+ * baseline, and ends below half of that. A drought is a drought-window rate
+ * under {@code droughtFraction} of the baseline, and ends above twice that.
+ * Either exit is kept strictly between its threshold and the baseline, so a
+ * rate back at the baseline always ends it: see {@link #burstExitMultiple}
+ * and {@link EventRateStats#recoveryFraction}. Neither starts until a slot has a full baseline of at least
+ * {@link #MIN_BASELINE} contracts per second.
+ */
+final class VolumeWindows {
+
+    interface Listener {
+        void onVolumeBurst(int slot, double rate, double baseline);
+
+        void onVolumeDrought(int slot, double rate, double baseline);
+
+        /** A burst or drought ended; {@code rate} is over the window that reported it. */
+        void onVolumeNormal(int slot, double rate, double baseline);
+    }
+
+    static final int SECONDS = 600;
+    static final int SHORT_SECONDS = 10;
+    static final int DROUGHT_SECONDS = 60;
+    static final double MIN_BASELINE = 1.0;
+
+    private static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    // the running total, alone on its cache line
+    private static final int STRIDE = 8;
+
+    private static final int NORMAL = 0;
+    private static final int BURST = 1;
+    private static final int DROUGHT = 2;
+
+    private final Listener listener;
+    private volatile double burstMultiple;
+    private volatile double droughtFraction;
+    private volatile AtomicLongArray[] chunks = new AtomicLongArray[0];
+
+    // monitor thread only
+    private int at;
+    private int[][] buckets = new int[0][];
+    private long[] lastVolume = new long[0];
+    private long[] samples = new long[0];
+    private long[] totalSum = new long[0];
+    private long[] shortSum = new long[0];
+    private long[] droughtSum = new long[0];
+    private int[] state = new int[0];
+
+    /**
+     * @param burstMultiple    burst above this multiple of the baseline; 0 disables it
+     * @param droughtFraction  drought below this fraction of the baseline; 0 disables it
+     */
+    VolumeWindows(Listener listener, double burstMultiple, double droughtFraction) {
+        this.listener = listener;
+        this.burstMultiple = burstMultiple;
+        this.droughtFraction = droughtFraction;
+    }
+
+    void setThresholds(double burstMultiple, double droughtFraction) {
+        this.burstMultiple = burstMultiple;
+        this.droughtFraction = droughtFraction;
+    }
+
+    /** Adds a trade of {@code size} to {@code slot}. Allocation-free once the slot's chunk exists. */
+    void record(int slot, long size) {
+        AtomicLongArray[] current = chunks;
+        int chunk = slot >>> CHUNK_SHIFT;
+        AtomicLongArray block = chunk < current.length ? current[chunk] : grow(chunk);
+        int base = (slot & CHUNK_MASK) * STRIDE;
+        block.lazySet(base, block.get(base) + size);
+    }
+
+    private synchronized AtomicLongArray grow(int chunk) {
+        AtomicLongArray[] current = chunks;
+        if (chunk < current.length) {
+            return current[chunk];
+        }
+        AtomicLongArray[] grown = Arrays.copyOf(current, chunk + 1);
+        for (int i = current.length; i <= chunk; i++) {
+            grown[i] = new AtomicLongArray(CHUNK_SIZE * STRIDE);
+        }
+        chunks = grown;
+        return grown[chunk];
+    }
+
+    /** Total traded volume of {@code slot}; safe to call from any thread. */
+    long volume(int slot) {
+        AtomicLongArray[] current = chunks;
+        int chunk = slot >>> CHUNK_SHIFT;
+        return chunk < current.length ? current[chunk].get((slot & CHUNK_MASK) * STRIDE) : 0;
+    }
+
+    /** Volume per second over the last {@link #SHORT_SECONDS}, as of the last sample. Monitor thread only. */
+    double shortRate(int slot) {
+        return slot < shortSum.length ? shortSum[slot] / (double) SHORT_SECONDS : 0;
+    }
+
+    /** Volume per second over the last {@link #SECONDS}. Monitor thread only. */
+    double baseline(int slot) {
+        return slot < totalSum.length ? totalSum[slot] / (double) SECONDS : 0;
+    }
+
+    /** Empties every window and forgets bursts and droughts; totals keep running. Monitor thread only. */
+    void resetWindows() {
+        for (int[] ring : buckets) {
+            Arrays.fill(ring, 0);
+        }
+        Arrays.fill(samples, 0);
+        Arrays.fill(totalSum, 0);
+        Arrays.fill(shortSum, 0);
+        Arrays.fill(droughtSum, 0);
+        Arrays.fill(state, NORMAL);
+    }
+
+    /** Closes the current one-second bucket of {@code aliases} slots. Monitor thread only, once a second. */
+    void sample(int aliases) {
+        ensureCapacity(aliases);
+        int now = at;
+        at = (at + 1) % SECONDS;
+        int leftShort = (now - SHORT_SECONDS + SECONDS) % SECONDS;
+        int leftDrought = (now - DROUGHT_SECONDS + SECONDS) % SECONDS;
+        double multiple = burstMultiple;
+        double fraction = droughtFraction;
+
+        for (int slot = 0; slot < aliases; slot++) {
+            long volume = volume(slot);
+            long delta = volume - lastVolume[slot];
+            lastVolume[slot] = volume;
+            int[] ring = buckets[slot];
+            // the first sample of a slot only primes its total
+            int bucket = samples[slot]++ == 0 ? 0 : (int) Math.min(Integer.MAX_VALUE, delta);
+            totalSum[slot] += bucket - ring[now];
+            shortSum[slot] += bucket - ring[leftShort];
+            droughtSum[slot] += bucket - ring[leftDrought];
+            ring[now] = bucket;
+
+            if (samples[slot] <= SECONDS) {
+                continue;
+            }
+            double baseline = totalSum[slot] / (double) SECONDS;
+            double shortRate = shortSum[slot] / (double) SHORT_SECONDS;
+            double droughtRate = droughtSum[slot] / (double) DROUGHT_SECONDS;
+            switch (state[slot]) {
+                case BURST:
+                    if (multiple <= 0 || shortRate <= burstExitMultiple(multiple) * baseline) {
+                        state[slot] = NORMAL;
+                        listener.onVolumeNormal(slot, shortRate, baseline);
+                    }
+                    break;
+                case DROUGHT:
+                    if (fraction <= 0 || droughtRate >= EventRateStats.recoveryFraction(fraction) * baseline) {
+                        state[slot] = NORMAL;
+                        listener.onVolumeNormal(slot, droughtRate, baseline);
+                    }
+                    break;
+                default:
+                    if (baseline < MIN_BASELINE) {
+                        break;
+                    }
+                    if (multiple > 0 && shortRate > multiple * baseline) {
+                        state[slot] = BURST;
+                        listener.onVolumeBurst(slot, shortRate, baseline);
+                    } else if (fraction > 0 && droughtRate < fraction * baseline) {
+                        state[slot] = DROUGHT;
+                        listener.onVolumeDrought(slot, droughtRate, baseline);
+                    }
+            }
+        }
+    }
+
+    /**
+     * Multiple of the baseline a burst ends under: half of {@code multiple},
+     * or, where that would be at or below the baseline, halfway between the
+     * baseline and {@code multiple}.
+     */
+    static double burstExitMultiple(double multiple) {
+        return multiple > 2 ? multiple / 2 : (1 + multiple) / 2;
+    }
+
+    private void ensureCapacity(int aliases) {
+        if (aliases <= lastVolume.length) {
+            return;
+        }
+        int capacity = Math.max(aliases, lastVolume.length * 2);
+        int old = buckets.length;
+        buckets = Arrays.copyOf(buckets, capacity);
+        for (int slot = old; slot < capacity; slot++) {
+            buckets[slot] = new int[SECONDS];
+        }
+        lastVolume = Arrays.copyOf(lastVolume, capacity);
+        samples = Arrays.copyOf(samples, capacity);
+        totalSum = Arrays.copyOf(totalSum, capacity);
+        shortSum = Arrays.copyOf(shortSum, capacity);
+        droughtSum = Arrays.copyOf(droughtSum, capacity);
+        state = Arrays.copyOf(state, capacity);
+    }
+}
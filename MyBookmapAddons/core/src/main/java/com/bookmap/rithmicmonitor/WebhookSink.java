@@ -0,0 +1,86 @@
+package com.bookmap.rithmicmonitor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Posts each alert as {@code {"text": "..."}} to a local webhook, e.g. an
+ * ops bot or a chat relay. Any 2xx reply counts as delivered and a 4xx reply
+ * as refused; there are no retries here, the channel retries from its
+ * outbox and its circuit breaker covers an endpoint that is down.
+ */
+final class WebhookSink implements NotificationSink {
+
+    private final URI uri;
+    private final long timeoutMs;
+    private final HttpClient client;
+
+    WebhookSink(URI uri, long timeoutMs, SinkThreads threads) {
+        this.uri = uri;
+        this.timeoutMs = timeoutMs;
+        this.client = threads.httpClient()
+                .connectTimeout(Duration.ofMillis(timeoutMs))
+                .build();
+    }
+
+    WebhookSink(URI uri, long timeoutMs) {
+        this(uri, timeoutMs, SinkThreads.preferred());
+    }
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public long timeoutMs() {
+        return timeoutMs;
+    }
+
+    @Override
+    public boolean durable() {
+        return true;
+    }
+
+    @Override
+    public void deliver(String text) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header("Content-Type", "application/json; charset=utf-8")
+                .POST(HttpRequest.BodyPublishers.ofString(json(text)))
+                .build();
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status / 100 == 4) {
+            throw new Rejected("Webhook " + uri + " replied " + status);
+        }
+        if (status / 100 != 2) {
+            throw new IOException("Webhook " + uri + " replied " + status);
+        }
+    }
+
+    static String json(String text) {
+        StringBuilder out = new StringBuilder(text.length() + 16).append("{\"text\":\"");
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        return out.append("\"}").toString();
+    }
+}
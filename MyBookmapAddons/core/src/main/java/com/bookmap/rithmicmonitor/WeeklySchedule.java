@@ -0,0 +1,243 @@
+package com.bookmap.rithmicmonitor;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Weekly monitoring schedule compiled into a bitmap with one bit per minute
+ * of the week, evaluated in an explicit exchange time zone.
+ *
+ * Windows are half-open ({@code [start, end)}) and may wrap around the end of
+ * the week, e.g. CME's {@code SUN 17:00-FRI 16:00}. Holidays switch a whole
+ * calendar day off and early closes end a day's session at the given time.
+ * Checking whether the schedule is active is a bit test; the next transition
+ * is found by scanning bitmap words, so callers can schedule it exactly
+ * instead of polling.
+ */
+final class WeeklySchedule {
+
+    static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+    static final int MINUTES_PER_WEEK = 7 * 24 * 60;
+
+    private static final int WORDS = (MINUTES_PER_WEEK + 63) >>> 6;
+    private static final long LAST_WORD_MASK = -1L >>> (WORDS * 64 - MINUTES_PER_WEEK);
+
+    record Window(DayOfWeek startDay, LocalTime start, DayOfWeek endDay, LocalTime end) {
+
+        /** Parses {@code "MON 09:00-FRI 17:00"}; day names may be abbreviated. */
+        static Window parse(String spec) {
+            String[] range = spec.trim().split("\\s*-\\s*");
+            if (range.length != 2) {
+                throw new IllegalArgumentException("Expected DAY HH:mm-DAY HH:mm but got: " + spec);
+            }
+            String[] from = range[0].trim().split("\\s+");
+            String[] to = range[1].trim().split("\\s+");
+            if (from.length != 2 || to.length != 2) {
+                throw new IllegalArgumentException("Expected DAY HH:mm-DAY HH:mm but got: " + spec);
+            }
+            return new Window(day(from[0]), LocalTime.parse(from[1], TIME), day(to[0]), LocalTime.parse(to[1], TIME));
+        }
+
+        @Override
+        public String toString() {
+            return shortName(startDay) + " " + TIME.format(start) + "-" + shortName(endDay) + " " + TIME.format(end);
+        }
+    }
+
+    private final long[] bits = new long[WORDS];
+    private final ZoneId zone;
+    private final List<Window> windows;
+    private final Set<LocalDate> holidays;
+    private final Map<LocalDate, LocalTime> earlyCloses;
+
+    WeeklySchedule(List<Window> windows, ZoneId zone, Set<LocalDate> holidays, Map<LocalDate, LocalTime> earlyCloses) {
+        this.zone = zone;
+        this.windows = Collections.unmodifiableList(new ArrayList<>(windows));
+        this.holidays = Collections.unmodifiableSet(new HashSet<>(holidays));
+        this.earlyCloses = Collections.unmodifiableMap(new HashMap<>(earlyCloses));
+        for (Window window : windows) {
+            int start = minuteOfWeek(window.startDay(), window.start());
+            int end = minuteOfWeek(window.endDay(), window.end());
+            if (start < end) {
+                set(start, end);
+            } else if (start > end) {
+                set(start, MINUTES_PER_WEEK);
+                set(0, end);
+            }
+        }
+    }
+
+    ZoneId zone() {
+        return zone;
+    }
+
+    List<Window> windows() {
+        return windows;
+    }
+
+    boolean isActive(long epochMillis) {
+        return isActive(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone));
+    }
+
+    boolean isActive(LocalDateTime local) {
+        if (!bit(minuteOfWeek(local.getDayOfWeek(), local.toLocalTime()))) {
+            return false;
+        }
+        LocalDate date = local.toLocalDate();
+        if (holidays.contains(date)) {
+            return false;
+        }
+        LocalTime close = earlyCloses.get(date);
+        return close == null || local.toLocalTime().isBefore(close);
+    }
+
+    /** Epoch millis of the next change of {@link #isActive}, or {@link Long#MAX_VALUE} if it never changes. */
+    long nextTransition(long epochMillis) {
+        LocalDateTime now = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone);
+        boolean state = isActive(now);
+        LocalDateTime t = now.truncatedTo(ChronoUnit.MINUTES);
+        boolean calendar = !holidays.isEmpty() || !earlyCloses.isEmpty();
+
+        // A week of daily boundaries plus the bitmap edges between them is always enough
+        for (int guard = 0; guard < 64; guard++) {
+            LocalDateTime candidate = null;
+            int ahead = minutesUntilChange(minuteOfWeek(t.getDayOfWeek(), t.toLocalTime()));
+            if (ahead > 0) {
+                candidate = t.plusMinutes(ahead);
+            }
+            if (calendar) {
+                LocalDateTime midnight = t.toLocalDate().plusDays(1).atStartOfDay();
+                if (candidate == null || midnight.isBefore(candidate)) {
+                    candidate = midnight;
+                }
+                LocalTime close = earlyCloses.get(t.toLocalDate());
+                if (close != null && close.isAfter(t.toLocalTime())) {
+                    LocalDateTime closing = t.toLocalDate().atTime(close);
+                    if (closing.isBefore(candidate)) {
+                        candidate = closing;
+                    }
+                }
+            }
+            if (candidate == null) {
+                return Long.MAX_VALUE;
+            }
+            if (isActive(candidate) != state) {
+                return candidate.atZone(zone).toInstant().toEpochMilli();
+            }
+            t = candidate;
+        }
+        return t.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    /** Minutes from {@code minute} to the next minute whose bit differs, or -1 if all bits are equal. */
+    private int minutesUntilChange(int minute) {
+        boolean state = bit(minute);
+        int step = 1;
+        while (step < MINUTES_PER_WEEK) {
+            int j = (minute + step) % MINUTES_PER_WEEK;
+            int word = j >>> 6;
+            int offset = j & 63;
+            long differing = (state ? ~bits[word] : bits[word]) & (-1L << offset);
+            if (word == WORDS - 1) {
+                differing &= LAST_WORD_MASK;
+            }
+            if (differing != 0) {
+                int found = step + (word * 64 + Long.numberOfTrailingZeros(differing) - j);
+                return found < MINUTES_PER_WEEK ? found : -1;
+            }
+            step += (word == WORDS - 1 ? MINUTES_PER_WEEK : (word + 1) * 64) - j;
+        }
+        return -1;
+    }
+
+    private boolean bit(int minute) {
+        return (bits[minute >>> 6] & (1L << minute)) != 0;
+    }
+
+    private void set(int from, int to) {
+        for (int m = from; m < to; m++) {
+            bits[m >>> 6] |= 1L << m;
+        }
+    }
+
+    static int minuteOfWeek(DayOfWeek day, LocalTime time) {
+        return (day.getValue() - 1) * 24 * 60 + time.getHour() * 60 + time.getMinute();
+    }
+
+    /** Parses windows separated by {@code ;}, e.g. {@code "SUN 17:00-FRI 16:00; SAT 10:00-SAT 12:00"}. */
+    static List<Window> parseWindows(String spec) {
+        List<Window> result = new ArrayList<>();
+        for (String part : spec.split(";")) {
+            if (!part.isBlank()) {
+                result.add(Window.parse(part));
+            }
+        }
+        return result;
+    }
+
+    /** Parses {@code yyyy-MM-dd} dates separated by commas. */
+    static Set<LocalDate> parseHolidays(String spec) {
+        Set<LocalDate> result = new HashSet<>();
+        for (String part : spec.split(",")) {
+            if (!part.isBlank()) {
+                result.add(LocalDate.parse(part.trim()));
+            }
+        }
+        return result;
+    }
+
+    /** Parses {@code yyyy-MM-dd HH:mm} entries separated by commas. */
+    static Map<LocalDate, LocalTime> parseEarlyCloses(String spec) {
+        Map<LocalDate, LocalTime> result = new HashMap<>();
+        for (String part : spec.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            String[] fields = part.trim().split("\\s+");
+            if (fields.length != 2) {
+                throw new IllegalArgumentException("Expected yyyy-MM-dd HH:mm but got: " + part.trim());
+            }
+            result.put(LocalDate.parse(fields[0]), LocalTime.parse(fields[1], TIME));
+        }
+        return result;
+    }
+
+    static ZoneId parseZone(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return ZoneId.systemDefault();
+        }
+        try {
+            return ZoneId.of(spec.trim());
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Unknown time zone: " + spec, e);
+        }
+    }
+
+    private static DayOfWeek day(String name) {
+        String upper = name.trim().toUpperCase();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (upper.length() >= 3 && day.name().startsWith(upper)) {
+                return day;
+            }
+        }
+        throw new IllegalArgumentException("Unknown day of week: " + name);
+    }
+
+    private static String shortName(DayOfWeek day) {
+        return day.name().substring(0, 3);
+    }
+}
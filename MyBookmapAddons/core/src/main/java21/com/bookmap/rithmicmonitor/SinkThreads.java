@@ -0,0 +1,56 @@
+package com.bookmap.rithmicmonitor;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The threads alert delivery blocks on: each {@link SinkChannel}'s worker,
+ * which also sleeps through retry backoff, and the executor of the sinks'
+ * HTTP clients.
+ *
+ * This is the Java 21 variant, loaded from {@code META-INF/versions/21}:
+ * {@link #preferred()} gives every channel a virtual thread and the HTTP
+ * clients a thread per task, so a slow endpoint or a long backoff parks a
+ * virtual thread instead of holding a platform one.
+ */
+final class SinkThreads {
+
+    private static final SinkThreads PLATFORM = new SinkThreads(false);
+    private static final SinkThreads VIRTUAL = new SinkThreads(true);
+    // Starts no thread until a request needs one, so one for the process is enough
+    private static final ExecutorService HTTP_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final boolean virtual;
+
+    private SinkThreads(boolean virtual) {
+        this.virtual = virtual;
+    }
+
+    /** Platform threads, on any runtime. */
+    static SinkThreads platform() {
+        return PLATFORM;
+    }
+
+    /** The cheapest threads this runtime has for blocking I/O. */
+    static SinkThreads preferred() {
+        return VIRTUAL;
+    }
+
+    boolean isVirtual() {
+        return virtual;
+    }
+
+    /** Starts {@code task} on a new daemon thread. */
+    Thread start(String name, Runnable task) {
+        if (virtual) {
+            return Thread.ofVirtual().name(name).start(task);
+        }
+        return Thread.ofPlatform().name(name).daemon().start(task);
+    }
+
+    HttpClient.Builder httpClient() {
+        HttpClient.Builder builder = HttpClient.newBuilder();
+        return virtual ? builder.executor(HTTP_EXECUTOR) : builder;
+    }
+}
@@ -0,0 +1,356 @@
+package com.bookmap.rithmicmonitor;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the monitoring engine outside Bookmap, on real threads and time, fed
+ * from a recorded file or a local socket, for load tests and profiling.
+ *
+ * Events go through the same {@link FeedPipeline} and {@link FeedEvents} ring
+ * as the addon's callbacks, so the publish path, the ring and both consumer
+ * stages are what gets measured. A file is parsed into memory first and then
+ * replayed, as fast as possible or at its recorded pace, any number of times;
+ * a socket accepts one connection at a time, since like a chart the runner
+ * publishes from a single thread. By default the engine runs standalone,
+ * with settings from {@code --config} and alerts printed instead of sent.
+ * With {@code --engine} it uses the shared engine and the user's own
+ * settings, sinks, journal and metrics endpoint, exactly as a chart in
+ * Bookmap would.
+ *
+ * Lines are {@code epochMillis,alias[,depth,bid|ask,price,size]},
+ * {@code epochMillis,alias,trade,price,size} or {@code epochMillis,alias,mode},
+ * prices in ticks. The replay harness's {@code epochMillis,alias[,depth|trade|mode]}
+ * is accepted too; its bare depth and trade lines count as updates without
+ * touching the book.
+ *
+ * <pre>
+ * gradle headless -PheadlessArgs="--file feed.csv --repeat 100"
+ * gradle headless -PheadlessArgs="--file feed.csv --realtime --engine"
+ * gradle headless -PheadlessArgs="--listen 9100"     # then e.g. nc 127.0.0.1 9100 &lt; feed.csv
+ * </pre>
+ */
+final class HeadlessRunner {
+
+    static final long STATS_SECONDS = 10;
+
+    private static final byte DEPTH = 1;
+    private static final byte TRADE = 2;
+    private static final byte MODE = 3;
+    private static final DateTimeFormatter TIME =
+            DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    /** Parsed events, held in primitive arrays so a replay measures the engine rather than the parser. */
+    static final class Recording {
+        final Map<String, Integer> index = new HashMap<>();
+        String[] aliases = new String[16];
+        long[] time = new long[1024];
+        int[] alias = new int[1024];
+        byte[] kind = new byte[1024];
+        boolean[] bid = new boolean[1024];
+        double[] price = new double[1024];
+        int[] size = new int[1024];
+        int count;
+
+        /** Adds one line; returns false for a header or malformed line. */
+        boolean add(String line) {
+            String[] fields = line.split(",");
+            if (fields.length < 2 || fields[0].isEmpty() || !Character.isDigit(fields[0].charAt(0))) {
+                return false;
+            }
+            if (count == time.length) {
+                int capacity = count * 2;
+                time = Arrays.copyOf(time, capacity);
+                alias = Arrays.copyOf(alias, capacity);
+                kind = Arrays.copyOf(kind, capacity);
+                bid = Arrays.copyOf(bid, capacity);
+                price = Arrays.copyOf(price, capacity);
+                size = Arrays.copyOf(size, capacity);
+            }
+            try {
+                int i = count;
+                time[i] = Long.parseLong(fields[0].trim());
+                String type = fields.length > 2 ? fields[2].trim() : "depth";
+                bid[i] = false;
+                price[i] = 0;
+                size[i] = 0;
+                if (type.equals("mode")) {
+                    kind[i] = MODE;
+                } else if (type.equals("trade")) {
+                    kind[i] = TRADE;
+                    if (fields.length >= 5) {
+                        price[i] = Double.parseDouble(fields[3].trim());
+                        size[i] = Integer.parseInt(fields[4].trim());
+                    }
+                } else if (type.equals("depth")) {
+                    kind[i] = DEPTH;
+                    if (fields.length >= 6) {
+                        bid[i] = fields[3].trim().equals("bid");
+                        price[i] = Integer.parseInt(fields[4].trim());
+                        size[i] = Integer.parseInt(fields[5].trim());
+                    }
+                } else {
+                    return false;
+                }
+                alias[i] = aliasIndex(fields[1].trim());
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            count++;
+            return true;
+        }
+
+        private int aliasIndex(String name) {
+            Integer known = index.get(name);
+            if (known != null) {
+                return known;
+            }
+            int next = index.size();
+            if (next == aliases.length) {
+                aliases = Arrays.copyOf(aliases, next * 2);
+            }
+            aliases[next] = name;
+            index.put(name, next);
+            return next;
+        }
+
+        void clear() {
+            count = 0;
+        }
+    }
+
+    private final FeedMonitor monitor;
+    private final FeedPipeline pipeline;
+    private final Metrics metrics;
+    private final Runnable shutdown;
+    private final ScheduledExecutorService stats;
+    // Written by the feeding thread only
+    private volatile long events;
+
+    private HeadlessRunner(FeedMonitor monitor, CoarseClock clock, FeedEvents events, NotifierConfig config,
+                           Metrics metrics, Runnable shutdown) {
+        this.monitor = monitor;
+        this.pipeline = new FeedPipeline(monitor, clock, events);
+        this.metrics = metrics;
+        this.shutdown = shutdown;
+        this.stats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "headless-stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+        monitor.setDropFraction(config.rateDropPercent() / 100.0);
+        monitor.setVolumeThresholds(config.volumeBurstMultiple(), config.volumeDroughtPercent() / 100.0);
+        if (metrics != null) {
+            metrics.register(monitor);
+        }
+    }
+
+    /** A monitor of its own, with alerts printed to standard output. */
+    static HeadlessRunner standalone(NotifierConfig config) {
+        AsyncLog.get().start();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "headless-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CoarseClock clock = new CoarseClock(1);
+        AlertAggregator alerts = new AlertAggregator(scheduler,
+                (text, repeatKey) -> System.out.println(TIME.format(Instant.now()) + "  ALERT  " + text.replace("\n", " | ")),
+                config.alertWindowMs());
+        FeedMonitor monitor = new FeedMonitor(scheduler, clock, alerts, OutageJournal.disabled(), new FeedMonitor.Host() {
+            @Override
+            public NotifierConfig config() {
+                return config;
+            }
+
+            @Override
+            public boolean isWithinTimeRange() {
+                return true;
+            }
+        });
+        FeedEvents events = new FeedEvents(EventRing.WaitStrategy.parse(config.eventWait()));
+        return new HeadlessRunner(monitor, clock, events, config, null, () -> {
+            events.close();
+            scheduler.shutdown();
+            clock.close();
+            AsyncLog.get().stop();
+        });
+    }
+
+    /** A chart on the shared engine, exactly as in Bookmap. */
+    static HeadlessRunner onEngine() {
+        SharedEngine engine = SharedEngine.acquire();
+        NotifierConfig config = engine.ready().join();
+        FeedMonitor monitor = new FeedMonitor(engine.scheduler(), engine.clock(), engine.alerts(), engine.journal(), engine);
+        return new HeadlessRunner(monitor, engine.clock(), engine.startFeed(), config, engine.metrics(), engine::release);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = null;
+        int port = 0;
+        int repeat = 1;
+        boolean realtime = false;
+        boolean engine = false;
+        File configFile = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--file" -> file = Path.of(args[++i]);
+                case "--listen" -> port = Integer.parseInt(args[++i]);
+                case "--repeat" -> repeat = Integer.parseInt(args[++i]);
+                case "--realtime" -> realtime = true;
+                case "--engine" -> engine = true;
+                case "--config" -> configFile = new File(args[++i]);
+                default -> {
+                    usage();
+                    return;
+                }
+            }
+        }
+        if ((file == null) == (port == 0)) {
+            usage();
+            return;
+        }
+
+        NotifierConfig config = null;
+        if (configFile != null) {
+            config = new ConfigStore(configFile, c -> {
+            }).load();
+        }
+        HeadlessRunner runner = engine ? onEngine() : standalone(config != null ? config : NotifierConfig.defaults());
+        runner.start();
+        try {
+            if (file != null) {
+                runner.replay(file, repeat, realtime);
+            } else {
+                runner.listen(port);
+            }
+        } finally {
+            runner.close();
+        }
+    }
+
+    private static void usage() {
+        System.out.println("Usage: HeadlessRunner (--file feed.csv [--repeat N] [--realtime] | --listen port)"
+                + " [--engine | --config notifier.properties]");
+    }
+
+    private void start() {
+        monitor.start();
+        long[] last = {0, System.nanoTime()};
+        stats.scheduleAtFixedRate(() -> {
+            long count = events;
+            long now = System.nanoTime();
+            double seconds = (now - last[1]) / 1e9;
+            System.out.printf("%,12d events  %,10.0f events/s  backlog %,d  dropped %,d%n", count,
+                    (count - last[0]) / seconds, pipeline.depth(), pipeline.droppedCount());
+            last[0] = count;
+            last[1] = now;
+        }, STATS_SECONDS, STATS_SECONDS, TimeUnit.SECONDS);
+    }
+
+    void replay(Path file, int repeat, boolean realtime) throws IOException {
+        Recording recording = new Recording();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                recording.add(line);
+            }
+        }
+        if (recording.count == 0) {
+            System.out.println("No events in " + file);
+            return;
+        }
+        long span = recording.time[recording.count - 1] - recording.time[0];
+        System.out.printf("%,d events over %.0fs for %d aliases, replayed %d times%s%n", recording.count, span / 1000.0,
+                recording.index.size(), repeat, realtime ? " at recorded pace" : "");
+
+        long started = System.nanoTime();
+        long startedEvents = events;
+        long startedDropped = pipeline.droppedCount();
+        for (int pass = 0; pass < repeat; pass++) {
+            feed(recording, realtime ? System.nanoTime() : 0);
+        }
+        report(started, startedEvents, startedDropped);
+    }
+
+    void listen(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 1, InetAddress.getLoopbackAddress())) {
+            System.out.println("Listening on 127.0.0.1:" + port + ", one connection at a time");
+            Recording batch = new Recording();
+            while (true) {
+                try (Socket socket = server.accept();
+                     BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                    System.out.println("Connection from " + socket.getRemoteSocketAddress());
+                    long started = System.nanoTime();
+                    long startedEvents = events;
+        long startedDropped = pipeline.droppedCount();
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        batch.clear();
+                        if (batch.add(line)) {
+                            feed(batch, 0);
+                        }
+                    }
+                    report(started, startedEvents, startedDropped);
+                }
+            }
+        }
+    }
+
+    /** Publishes every event of {@code recording}; paced from {@code paceFromNanos} unless it is 0. */
+    private void feed(Recording recording, long paceFromNanos) {
+        long first = recording.time[0];
+        String[] aliases = recording.aliases;
+        for (int i = 0; i < recording.count; i++) {
+            if (paceFromNanos != 0) {
+                long due = paceFromNanos + TimeUnit.MILLISECONDS.toNanos(recording.time[i] - first);
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            String alias = aliases[recording.alias[i]];
+            switch (recording.kind[i]) {
+                case DEPTH -> pipeline.onDepth(alias, recording.bid[i], (int) recording.price[i], recording.size[i]);
+                case TRADE -> pipeline.onTrade(alias, recording.price[i], recording.size[i]);
+                default -> pipeline.onMarketMode(alias);
+            }
+            events++;
+        }
+    }
+
+    private void report(long startedNanos, long startedEvents, long startedDropped) {
+        double seconds = (System.nanoTime() - startedNanos) / 1e9;
+        long count = events - startedEvents;
+        System.out.printf("%,d events in %.2fs, %,.0f events/s, %,d dropped%n", count, seconds, count / seconds,
+                pipeline.droppedCount() - startedDropped);
+    }
+
+    private void close() {
+        pipeline.close();
+        monitor.stop();
+        stats.shutdownNow();
+        if (metrics != null) {
+            metrics.unregister(monitor);
+        }
+        shutdown.run();
+    }
+}
@@ -0,0 +1,178 @@
+package com.bookmap.rithmicmonitor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link AlertOutbox} in memory and mapped from a file. The small rings hold
+ * four 64-byte records, one per 40-character alert.
+ */
+class AlertOutboxTest {
+
+    private static final int SMALL = 256;
+
+    @TempDir
+    Path directory;
+
+    /** A 40-character alert, so its record takes exactly 64 bytes. */
+    private static String alert(int n) {
+        return String.format("No data for ES after %5d seconds .....", n);
+    }
+
+    /** Polls and acks the oldest alert. */
+    private static String take(AlertOutbox outbox) {
+        AlertOutbox.Pending pending = outbox.poll();
+        outbox.ack(pending.position());
+        return pending.text();
+    }
+
+    @Test
+    void handsOutAlertsInOrderAndRetriesAReleasedOne() {
+        AlertOutbox outbox = AlertOutbox.inMemory(SMALL);
+        outbox.append("first", null, 1);
+        outbox.append("second", null, 2);
+
+        AlertOutbox.Pending first = outbox.poll();
+        assertEquals("first", first.text());
+        assertEquals(1, first.time());
+        assertNull(outbox.poll());
+
+        outbox.release(first.position());
+        assertEquals("first", take(outbox));
+        assertEquals("second", take(outbox));
+        assertNull(outbox.poll());
+        assertEquals(0, outbox.size());
+    }
+
+    @Test
+    void wrapsAroundTheEndOfTheRing() {
+        AlertOutbox outbox = AlertOutbox.inMemory(SMALL);
+        for (int n = 0; n < 20; n++) {
+            assertEquals(0, outbox.append(alert(n), null, n));
+            assertEquals(0, outbox.append(alert(n + 1000), null, n));
+            assertEquals(alert(n), take(outbox));
+            assertEquals(alert(n + 1000), take(outbox));
+        }
+        assertEquals(0, outbox.size());
+    }
+
+    @Test
+    void wrapsARecordThatDoesNotFitBeforeTheEnd() {
+        AlertOutbox outbox = AlertOutbox.inMemory(SMALL);
+        outbox.append(alert(1), null, 1);
+        outbox.append(alert(2), null, 2);
+        outbox.append(alert(3), null, 3);
+        take(outbox);
+        take(outbox);
+
+        // 64 bytes are left before the end of the ring, so the longer record starts over at the front
+        String longer = alert(4) + alert(4);
+        assertEquals(0, outbox.append(longer, null, 4));
+        assertEquals(alert(3), take(outbox));
+        assertEquals(longer, take(outbox));
+    }
+
+    @Test
+    void dropsTheOldestAlertsWhenFull() {
+        AlertOutbox outbox = AlertOutbox.inMemory(SMALL);
+        for (int n = 1; n <= 4; n++) {
+            assertEquals(0, outbox.append(alert(n), null, n));
+        }
+
+        assertEquals(1, outbox.append(alert(5), null, 5));
+        assertEquals(4, outbox.size());
+        assertEquals(alert(2), take(outbox));
+    }
+
+    @Test
+    void supersedesAPendingAlertWithTheSameKey() {
+        AlertOutbox outbox = AlertOutbox.inMemory(SMALL);
+        outbox.append("No data for ES after 90 seconds", "ES", 1);
+        outbox.append("Connection lost", null, 2);
+        outbox.append("No data for ES after 120 seconds", "ES", 3);
+
+        assertEquals(2, outbox.size());
+        assertEquals("Connection lost", take(outbox));
+        AlertOutbox.Pending latest = outbox.poll();
+        assertEquals("No data for ES after 120 seconds", latest.text());
+        assertEquals(1, latest.repeats());
+    }
+
+    @Test
+    void neverSupersedesTheAlertInFlight() {
+        AlertOutbox outbox = AlertOutbox.inMemory(SMALL);
+        outbox.append("No data for ES after 90 seconds", "ES", 1);
+        AlertOutbox.Pending sending = outbox.poll();
+
+        outbox.append("No data for ES after 120 seconds", "ES", 2);
+        assertEquals(2, outbox.size());
+        outbox.ack(sending.position());
+        assertEquals("No data for ES after 120 seconds", take(outbox));
+    }
+
+    @Test
+    void recoversPendingAlertsAndTheirKeysFromTheFile() {
+        File file = directory.resolve("telegram" + AlertOutbox.SUFFIX).toFile();
+        try (AlertOutbox outbox = AlertOutbox.open(file, SMALL)) {
+            assertTrue(outbox.durable());
+            outbox.append("delivered", null, 1);
+            outbox.append("No data for ES after 90 seconds", "ES", 2);
+            take(outbox);
+        }
+
+        try (AlertOutbox outbox = AlertOutbox.open(file, SMALL)) {
+            assertEquals(1, outbox.size());
+            outbox.append("No data for ES after 120 seconds", "ES", 3);
+            assertEquals(1, outbox.size());
+            assertEquals("No data for ES after 120 seconds", take(outbox));
+        }
+    }
+
+    @Test
+    void ignoresARecordTornBeforeTheTailWasWritten() throws Exception {
+        File file = directory.resolve("telegram" + AlertOutbox.SUFFIX).toFile();
+        try (AlertOutbox outbox = AlertOutbox.open(file, SMALL)) {
+            outbox.append(alert(1), null, 1);
+        }
+        // A crash while copying the next record: its bytes are there, the tail in the header is not
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(AlertOutbox.HEADER_BYTES + 64);
+            raw.writeInt(40);
+            raw.write("No data for".getBytes());
+        }
+
+        try (AlertOutbox outbox = AlertOutbox.open(file, SMALL)) {
+            assertEquals(1, outbox.size());
+            outbox.append(alert(2), null, 2);
+            assertEquals(alert(1), take(outbox));
+            assertEquals(alert(2), take(outbox));
+            assertNull(outbox.poll());
+        }
+    }
+
+    @Test
+    void resetsAFileWhoseRecordsDoNotMatchItsHeader() throws Exception {
+        File file = directory.resolve("telegram" + AlertOutbox.SUFFIX).toFile();
+        try (AlertOutbox outbox = AlertOutbox.open(file, SMALL)) {
+            outbox.append(alert(1), null, 1);
+        }
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(AlertOutbox.HEADER_BYTES);
+            raw.writeInt(1_000_000);
+        }
+
+        try (AlertOutbox outbox = AlertOutbox.open(file, SMALL)) {
+            assertEquals(0, outbox.size());
+            outbox.append(alert(2), null, 2);
+            assertEquals(alert(2), take(outbox));
+        }
+    }
+}
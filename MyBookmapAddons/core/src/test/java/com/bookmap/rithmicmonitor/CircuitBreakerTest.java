@@ -0,0 +1,55 @@
+package com.bookmap.rithmicmonitor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** {@link CircuitBreaker} opening, probing and backing off on given times. */
+class CircuitBreakerTest {
+
+    @Test
+    void opensAfterTheThresholdOfFailuresInARow() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 1_000, 8_000);
+
+        assertEquals(0, breaker.onFailure(0));
+        breaker.onSuccess();
+        assertEquals(0, breaker.onFailure(1));
+        assertEquals(0, breaker.onFailure(2));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        assertEquals(1_000, breaker.onFailure(3));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(400, breaker.waitMs(603));
+    }
+
+    @Test
+    void letsOneProbeThroughOnceTheWaitIsOver() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 1_000, 8_000);
+        breaker.onFailure(0);
+
+        assertEquals(0, breaker.waitMs(1_000));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(0, breaker.waitMs(1_001));
+    }
+
+    @Test
+    void doublesTheWaitAfterEachFailedProbeUpToTheMaximum() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 1_000, 3_000);
+        long now = 0;
+        assertEquals(1_000, breaker.onFailure(now));
+
+        long[] expected = {2_000, 3_000, 3_000};
+        for (long openMs : expected) {
+            now += breaker.waitMs(now);
+            assertEquals(0, breaker.waitMs(now));
+            assertEquals(openMs, breaker.onFailure(now));
+        }
+
+        now += breaker.waitMs(now);
+        breaker.waitMs(now);
+        breaker.onSuccess();
+        assertEquals(1_000, breaker.onFailure(now));
+    }
+}
@@ -0,0 +1,153 @@
+package com.bookmap.rithmicmonitor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** {@link EventRing} with recording consumers, full and with several publishers at once. */
+class EventRingTest {
+
+    private EventRing ring;
+
+    /** Records each event as text, a trade as {@code source:slot:price}; only its consumer thread writes. */
+    private static class Recorder implements EventRing.Handler {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onDepth(int source, int slot, boolean isBid, int price, int size, long time) {
+            events.add("depth " + source + ":" + slot + ":" + price + (isBid ? " bid" : " ask") + " x" + size);
+        }
+
+        @Override
+        public void onTrade(int source, int slot, double price, int size, long time) {
+            events.add(source + ":" + slot + ":" + (long) price);
+        }
+
+        @Override
+        public void onMarketMode(int source, int slot, long time) {
+            events.add("mode " + source + ":" + slot + " at " + time);
+        }
+    }
+
+    @AfterEach
+    void closeRing() {
+        ring.close(1_000);
+    }
+
+    @Test
+    void deliversEveryEventToEachConsumerInOrder() {
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+        ring = new EventRing(2048, EventRing.WaitStrategy.PARK, "test", first, second);
+
+        List<String> expected = new ArrayList<>();
+        for (int n = 0; n < 1_000; n++) {
+            assertTrue(ring.publishTrade(1, 2, n, 1, n));
+            expected.add("1:2:" + n);
+        }
+        ring.publishDepth(3, 4, true, 5_000, 7, 1_000);
+        ring.publishMarketMode(3, 4, 1_001);
+        expected.add("depth 3:4:5000 bid x7");
+        expected.add("mode 3:4 at 1001");
+
+        assertTrue(ring.awaitHandled(ring.claimed(), 5_000));
+        assertEquals(expected, first.events);
+        assertEquals(expected, second.events);
+        assertEquals(0, ring.depth());
+    }
+
+    @Test
+    void dropsAndCountsEventsWhileTheSlowestConsumerIsAFullRingBehind() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Recorder recorder = new Recorder() {
+            @Override
+            public void onTrade(int source, int slot, double price, int size, long time) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.onTrade(source, slot, price, size, time);
+            }
+        };
+        ring = new EventRing(8, EventRing.WaitStrategy.PARK, "test", new Recorder(), recorder);
+        assertTrue(ring.publishTrade(0, 0, 0, 1, 0));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        for (int n = 1; n < ring.capacity(); n++) {
+            assertTrue(ring.publishTrade(0, 0, n, 1, n));
+        }
+        assertFalse(ring.publishTrade(0, 0, 99, 1, 99));
+        assertEquals(1, ring.droppedCount());
+        assertEquals(ring.capacity(), ring.depth());
+
+        release.countDown();
+        assertTrue(ring.awaitHandled(ring.claimed(), 5_000));
+        assertTrue(ring.publishTrade(0, 0, 8, 1, 8));
+        assertTrue(ring.awaitHandled(ring.claimed(), 5_000));
+        assertEquals(List.of("0:0:0", "0:0:1", "0:0:2", "0:0:3", "0:0:4", "0:0:5", "0:0:6", "0:0:7", "0:0:8"),
+                recorder.events);
+    }
+
+    @Test
+    void keepsEachPublishersOrderWithSeveralPublishing() throws Exception {
+        Recorder recorder = new Recorder();
+        ring = new EventRing(1024, EventRing.WaitStrategy.YIELD, "test", recorder);
+        int publishers = 4;
+        int count = 50_000;
+        long[] accepted = new long[publishers];
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < publishers; p++) {
+            int source = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int n = 0; n < count; n++) {
+                    if (ring.publishTrade(source, source, n, 1, n)) {
+                        accepted[source]++;
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        go.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(ring.awaitHandled(ring.claimed(), 5_000));
+
+        long total = 0;
+        long[] last = {-1, -1, -1, -1};
+        long[] seen = new long[publishers];
+        for (String trade : recorder.events) {
+            String[] fields = trade.split(":");
+            int source = Integer.parseInt(fields[0]);
+            long price = Long.parseLong(fields[2]);
+            assertEquals(fields[0], fields[1]);
+            assertTrue(price > last[source], "out of order for publisher " + source + ": " + price);
+            last[source] = price;
+            seen[source]++;
+        }
+        for (int p = 0; p < publishers; p++) {
+            assertEquals(accepted[p], seen[p]);
+            total += accepted[p];
+        }
+        assertEquals(publishers * (long) count, total + ring.droppedCount());
+        assertEquals(total, ring.claimed());
+    }
+}
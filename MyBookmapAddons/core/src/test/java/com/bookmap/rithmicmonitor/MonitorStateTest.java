@@ -0,0 +1,52 @@
+package com.bookmap.rithmicmonitor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** {@link MonitorState} transitions, including the ones that must be refused. */
+class MonitorStateTest {
+
+    private final MonitorState state = new MonitorState();
+
+    @Test
+    void timesOutOnlyWhileWatching() {
+        assertFalse(state.timedOut(1_000));
+        assertTrue(state.start());
+        assertFalse(state.start());
+
+        assertTrue(state.timedOut(1_700_000_000_123L));
+        assertFalse(state.timedOut(1_700_000_000_999L));
+        assertEquals(MonitorState.Phase.TIMED_OUT, state.phase());
+        assertEquals(1_700_000_000_123L, state.timedOutSince());
+        assertTrue(state.isRunning());
+    }
+
+    @Test
+    void recoversToWatchingAndForgetsTheOutage() {
+        state.start();
+        assertFalse(state.recovered());
+        state.timedOut(5_000);
+
+        assertTrue(state.recovered());
+        assertEquals(MonitorState.Phase.WATCHING, state.phase());
+        assertEquals(0, state.timedOutSince());
+        assertEquals(2, state.entered(MonitorState.Phase.WATCHING));
+        assertEquals(1, state.entered(MonitorState.Phase.TIMED_OUT));
+    }
+
+    @Test
+    void stopsFromAnyPhase() {
+        assertFalse(state.stop());
+        state.start();
+        state.timedOut(5_000);
+
+        assertTrue(state.stop());
+        assertFalse(state.isRunning());
+        assertEquals(0, state.timedOutSince());
+        assertFalse(state.recovered());
+        assertEquals(1, state.entered(MonitorState.Phase.STOPPED));
+    }
+}
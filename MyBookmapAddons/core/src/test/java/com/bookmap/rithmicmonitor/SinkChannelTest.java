@@ -0,0 +1,119 @@
+package com.bookmap.rithmicmonitor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * {@link SinkChannel} against a sink that fails each call with the next
+ * scripted exception, then delivers once the script runs out.
+ */
+class SinkChannelTest {
+
+    private final Deque<Exception> failures = new ArrayDeque<>();
+    private final List<String> delivered = new CopyOnWriteArrayList<>();
+    private SinkChannel channel;
+
+    private final NotificationSink sink = new NotificationSink() {
+        @Override
+        public String name() {
+            return "scripted";
+        }
+
+        @Override
+        public long timeoutMs() {
+            return 1_000;
+        }
+
+        @Override
+        public void deliver(String text) throws IOException {
+            Exception failure;
+            synchronized (failures) {
+                failure = failures.poll();
+            }
+            if (failure instanceof IOException io) {
+                throw io;
+            }
+            if (failure instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            delivered.add(text);
+        }
+    };
+
+    @AfterEach
+    void closeChannel() {
+        channel.close();
+    }
+
+    private void script(Exception... scripted) {
+        synchronized (failures) {
+            failures.addAll(List.of(scripted));
+        }
+    }
+
+    private SinkChannel channel(long openMs) {
+        channel = new SinkChannel(sink, AlertOutbox.inMemory(64 * 1024), new CircuitBreaker(1, openMs, openMs),
+                SinkChannel.Listener.NONE);
+        return channel;
+    }
+
+    private static void await(LongSupplier count, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (count.getAsLong() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, count.getAsLong());
+    }
+
+    @Test
+    void dropsARejectedAlertWithoutTrippingTheBreaker() throws Exception {
+        script(new NotificationSink.Rejected("chat not found"));
+        SinkChannel channel = channel(60_000);
+
+        channel.offer("alert");
+        await(channel::failedCount, 1);
+
+        assertEquals(0, channel.queueDepth());
+        assertEquals(CircuitBreaker.State.CLOSED, channel.breakerState());
+        channel.offer("next");
+        await(channel::sentCount, 1);
+        assertEquals(List.of("next"), delivered);
+    }
+
+    @Test
+    void keepsTheAlertAndTripsTheBreakerOnAnIoFailure() throws Exception {
+        script(new IOException("connection reset"));
+        SinkChannel channel = channel(60_000);
+
+        channel.offer("alert");
+        await(channel::failedCount, 1);
+
+        assertEquals(1, channel.queueDepth());
+        assertEquals(CircuitBreaker.State.OPEN, channel.breakerState());
+        assertEquals(0, channel.sentCount());
+    }
+
+    @Test
+    void retriesAfterASinkThrowsARuntimeException() throws Exception {
+        script(new UncheckedIOException(new IOException("webhook client closed")), new NullPointerException());
+        SinkChannel channel = channel(50);
+
+        channel.offer("alert");
+        await(channel::sentCount, 1);
+
+        assertEquals(2, channel.failedCount());
+        assertEquals(0, channel.queueDepth());
+        assertEquals(List.of("alert"), delivered);
+        assertEquals(0, channel.droppedCount());
+    }
+}
@@ -0,0 +1,140 @@
+package com.bookmap.rithmicmonitor;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link TelegramSender} against a local stub of the Bot API that answers
+ * each request with the next scripted status and body.
+ */
+class TelegramSenderTest {
+
+    record Reply(int status, String body) {
+    }
+
+    private final Deque<Reply> replies = new ArrayDeque<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            requests.add(exchange.getRequestURI().getPath() + "?" + URLDecoder.decode(body, StandardCharsets.UTF_8));
+            Reply reply;
+            synchronized (replies) {
+                reply = replies.isEmpty() ? new Reply(200, "{\"ok\":true}") : replies.poll();
+            }
+            byte[] bytes = reply.body().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(reply.status(), bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private void script(Reply... scripted) {
+        synchronized (replies) {
+            replies.addAll(List.of(scripted));
+        }
+    }
+
+    private TelegramSender sender(int maxAttempts, long timeoutMs) {
+        NotifierConfig config = NotifierConfig.defaults().toBuilder().botToken("123:ABC").chatId("-100200").build();
+        return new TelegramSender(baseUrl, () -> config, maxAttempts, 10, 100, timeoutMs, 100, 6000);
+    }
+
+    @Test
+    void postsTheTextToTheConfiguredChat() throws Exception {
+        sender(4, 10_000).deliver("No data for ES after 30 seconds");
+
+        assertEquals(1, requests.size());
+        assertEquals("/bot123:ABC/sendMessage?chat_id=-100200&text=No data for ES after 30 seconds", requests.get(0));
+    }
+
+    @Test
+    void waitsForRetryAfterOn429() throws Exception {
+        script(new Reply(429, "{\"ok\":false,\"error_code\":429,\"parameters\":{\"retry_after\":1}}"));
+
+        long start = System.nanoTime();
+        sender(4, 10_000).deliver("alert");
+        long tookMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(2, requests.size());
+        assertTrue(tookMs >= 1000, "retried after " + tookMs + " ms, before retry_after");
+    }
+
+    @Test
+    void retriesServerErrorsWithBackoff() throws Exception {
+        script(new Reply(502, "Bad Gateway"), new Reply(500, "Internal Server Error"));
+
+        sender(4, 10_000).deliver("alert");
+
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    void failsRetryablyOnceAttemptsRunOut() {
+        script(new Reply(503, ""), new Reply(503, ""), new Reply(503, ""));
+
+        IOException e = assertThrows(IOException.class, () -> sender(3, 10_000).deliver("alert"));
+
+        assertFalse(e instanceof NotificationSink.Rejected, "server errors must stay retryable");
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    void givesUpWithinTheTimeout() {
+        script(new Reply(429, "{\"parameters\":{\"retry_after\":30}}"));
+
+        IOException e = assertThrows(IOException.class, () -> sender(4, 2_000).deliver("alert"));
+
+        assertFalse(e instanceof NotificationSink.Rejected, "a timeout must stay retryable");
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    void rejectsClientErrorsWithoutRetrying() {
+        script(new Reply(400, "{\"ok\":false,\"description\":\"Bad Request: chat not found\"}"));
+
+        assertThrows(NotificationSink.Rejected.class, () -> sender(4, 10_000).deliver("alert"));
+
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    void refusesToSendWithoutChat() {
+        TelegramSender unconfigured = new TelegramSender(baseUrl, NotifierConfig::defaults, 4, 10, 100, 10_000, 100, 6000);
+
+        assertThrows(IOException.class, () -> unconfigured.deliver("alert"));
+
+        assertEquals(0, requests.size());
+    }
+}
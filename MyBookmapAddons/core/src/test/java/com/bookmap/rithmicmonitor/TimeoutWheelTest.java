@@ -0,0 +1,131 @@
+package com.bookmap.rithmicmonitor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link TimeoutWheel} on a manual clock, with a revolution of 800 ms and a
+ * 2 second timeout, so every deadline passes its bucket a few times first.
+ */
+class TimeoutWheelTest {
+
+    private static final long TICK_MS = 100;
+    private static final int WHEEL_SIZE = 8;
+    private static final long RECHECK_MS = 100;
+    private static final long TIMEOUT_MS = 2_000;
+
+    private final CoarseClock clock = CoarseClock.manual(1_000);
+    private final LivenessTracker tracker = new LivenessTracker(clock);
+    private final List<String> calls = new ArrayList<>();
+    private final TimeoutWheel wheel = new TimeoutWheel(tracker, new TimeoutWheel.Listener() {
+        @Override
+        public void onSilent(int slot, long lastSeen, long now) {
+            calls.add("silent " + tracker.aliasAt(slot) + " seen " + lastSeen + " at " + now);
+        }
+
+        @Override
+        public void onRecovered(int slot, long silentForMs, long now) {
+            calls.add("recovered " + tracker.aliasAt(slot) + " after " + silentForMs + " at " + now);
+        }
+    }, TICK_MS, WHEEL_SIZE, RECHECK_MS);
+
+    /** Advances the wheel tick by tick up to {@code to}, the way the monitor thread does. */
+    private void advanceTo(long to) {
+        for (long now = clock.millis() + TICK_MS; now <= to; now += TICK_MS) {
+            clock.set(now);
+            wheel.advance(now, TIMEOUT_MS);
+        }
+    }
+
+    @Test
+    void expiresADeadlineBeyondOneRevolution() {
+        int slot = tracker.touch("ES");
+        wheel.advance(1_000, TIMEOUT_MS);
+
+        advanceTo(2_900);
+        assertEquals(List.of(), calls);
+        assertFalse(wheel.isSilent(slot));
+
+        advanceTo(3_000);
+        assertEquals(List.of("silent ES seen 1000 at 3000"), calls);
+        assertTrue(wheel.isSilent(slot));
+        assertEquals(1, wheel.silentCount());
+    }
+
+    @Test
+    void rearmsFromTheLastSeenTimeWhenDataArrivedBeforeTheDeadline() {
+        tracker.touch("ES");
+        wheel.advance(1_000, TIMEOUT_MS);
+
+        advanceTo(2_500);
+        tracker.touch("ES");
+        advanceTo(4_400);
+        assertEquals(List.of(), calls);
+
+        advanceTo(4_500);
+        assertEquals(List.of("silent ES seen 2500 at 4500"), calls);
+    }
+
+    @Test
+    void reportsRecoveryOnTheRecheckAfterDataReturns() {
+        int slot = tracker.touch("ES");
+        wheel.advance(1_000, TIMEOUT_MS);
+        advanceTo(3_500);
+
+        tracker.touch("ES");
+        advanceTo(3_600);
+
+        assertEquals(List.of("silent ES seen 1000 at 3000", "recovered ES after 600 at 3600"), calls);
+        assertFalse(wheel.isSilent(slot));
+        assertEquals(0, wheel.silentCount());
+    }
+
+    @Test
+    void usesEachSlotsOwnTimeout() {
+        tracker.touch("ES");
+        tracker.touch("NQ");
+        wheel.setTimeouts(new long[] {0, 500});
+        wheel.advance(1_000, TIMEOUT_MS);
+
+        advanceTo(3_000);
+
+        assertEquals(List.of("silent NQ seen 1000 at 1500", "silent ES seen 1000 at 3000"), calls);
+    }
+
+    @Test
+    void firesOnceAfterFallingBehindAFullRevolution() {
+        tracker.touch("ES");
+        wheel.advance(1_000, TIMEOUT_MS);
+
+        clock.set(60_000);
+        wheel.advance(60_000, TIMEOUT_MS);
+
+        assertEquals(List.of("silent ES seen 1000 at 60000"), calls);
+    }
+
+    @Test
+    void stopsWatchingARetiredSlotUntilItIsRearmed() {
+        int slot = tracker.touch("ES");
+        wheel.advance(1_000, TIMEOUT_MS);
+        advanceTo(3_000);
+
+        wheel.retire(slot);
+        assertEquals(0, wheel.silentCount());
+        advanceTo(10_000);
+        assertEquals(1, calls.size());
+
+        // Subscribed again: the monitor touches the alias before re-arming it
+        tracker.touch("ES");
+        wheel.rearm(slot, 10_000, TIMEOUT_MS);
+        advanceTo(11_900);
+        assertEquals(1, calls.size());
+        advanceTo(12_000);
+        assertEquals("silent ES seen 10000 at 12000", calls.get(1));
+    }
+}
@@ -0,0 +1,120 @@
+package com.bookmap.rithmicmonitor;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** {@link WeeklySchedule} on CME's week, around a holiday and over daylight saving changes. */
+class WeeklyScheduleTest {
+
+    private static final ZoneId CHICAGO = ZoneId.of("America/Chicago");
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+    private static WeeklySchedule schedule(String windows, ZoneId zone) {
+        return schedule(windows, zone, "", "");
+    }
+
+    private static WeeklySchedule schedule(String windows, ZoneId zone, String holidays, String earlyCloses) {
+        return new WeeklySchedule(WeeklySchedule.parseWindows(windows), zone, WeeklySchedule.parseHolidays(holidays),
+                WeeklySchedule.parseEarlyCloses(earlyCloses));
+    }
+
+    private static LocalDateTime at(String local) {
+        return LocalDateTime.parse(local);
+    }
+
+    private static long millis(String instant) {
+        return Instant.parse(instant).toEpochMilli();
+    }
+
+    @Test
+    void coversAWindowRunningOvernightAcrossDays() {
+        WeeklySchedule cme = schedule("SUN 17:00-FRI 16:00", CHICAGO);
+
+        assertFalse(cme.isActive(at("2024-06-09T16:59")));
+        assertTrue(cme.isActive(at("2024-06-09T17:00")));
+        assertTrue(cme.isActive(at("2024-06-12T03:00")));
+        assertTrue(cme.isActive(at("2024-06-14T15:59")));
+        assertFalse(cme.isActive(at("2024-06-14T16:00")));
+        assertFalse(cme.isActive(at("2024-06-15T12:00")));
+    }
+
+    @Test
+    void wrapsAWindowAroundTheEndOfTheWeek() {
+        WeeklySchedule weekend = schedule("FRI 22:00-MON 02:00", CHICAGO);
+
+        assertTrue(weekend.isActive(at("2024-06-14T22:00")));
+        assertTrue(weekend.isActive(at("2024-06-16T12:00")));
+        assertTrue(weekend.isActive(at("2024-06-17T01:59")));
+        assertFalse(weekend.isActive(at("2024-06-17T02:00")));
+        assertFalse(weekend.isActive(at("2024-06-19T12:00")));
+    }
+
+    @Test
+    void followsTheExchangeClockOverDaylightSavingChanges() {
+        WeeklySchedule equities = schedule("MON 09:30-MON 16:00", NEW_YORK);
+
+        // 09:30 is 14:30 UTC in winter and 13:30 UTC from the second Sunday of March
+        assertFalse(equities.isActive(millis("2024-03-04T14:29:00Z")));
+        assertTrue(equities.isActive(millis("2024-03-04T14:30:00Z")));
+        assertFalse(equities.isActive(millis("2024-03-11T13:29:00Z")));
+        assertTrue(equities.isActive(millis("2024-03-11T13:30:00Z")));
+    }
+
+    @Test
+    void findsTheNextTransitionAcrossADaylightSavingChange() {
+        WeeklySchedule equities = schedule("MON 09:30-FRI 16:00", NEW_YORK);
+
+        assertEquals(millis("2024-03-11T13:30:00Z"), equities.nextTransition(millis("2024-03-09T17:00:00Z")));
+        assertEquals(millis("2024-11-04T14:30:00Z"), equities.nextTransition(millis("2024-11-02T16:00:00Z")));
+    }
+
+    @Test
+    void endsTheSessionAtAnEarlyClose() {
+        WeeklySchedule cme = schedule("SUN 17:00-FRI 16:00", CHICAGO, "", "2024-11-29 12:15");
+
+        assertTrue(cme.isActive(at("2024-11-29T12:14")));
+        assertFalse(cme.isActive(at("2024-11-29T12:15")));
+        assertTrue(cme.isActive(at("2024-11-28T12:15")));
+        assertEquals(at("2024-11-29T12:15").atZone(CHICAGO).toInstant().toEpochMilli(),
+                cme.nextTransition(at("2024-11-29T10:00").atZone(CHICAGO).toInstant().toEpochMilli()));
+    }
+
+    @Test
+    void switchesAHolidayOffFromMidnightToMidnight() {
+        WeeklySchedule cme = schedule("SUN 17:00-FRI 16:00", CHICAGO, "2024-11-28", "");
+
+        assertTrue(cme.isActive(at("2024-11-27T23:59")));
+        assertFalse(cme.isActive(at("2024-11-28T10:00")));
+        assertTrue(cme.isActive(at("2024-11-29T00:00")));
+        long evening = at("2024-11-27T20:00").atZone(CHICAGO).toInstant().toEpochMilli();
+        long midnight = at("2024-11-28T00:00").atZone(CHICAGO).toInstant().toEpochMilli();
+        assertEquals(midnight, cme.nextTransition(evening));
+        assertEquals(midnight + 24 * 3_600_000L, cme.nextTransition(midnight));
+    }
+
+    @Test
+    void neverChangesWithoutWindows() {
+        WeeklySchedule never = schedule("", CHICAGO);
+
+        assertFalse(never.isActive(at("2024-06-12T12:00")));
+        assertEquals(Long.MAX_VALUE, never.nextTransition(millis("2024-06-12T12:00:00Z")));
+    }
+
+    @Test
+    void rejectsMalformedWindows() {
+        assertThrows(IllegalArgumentException.class, () -> WeeklySchedule.parseWindows("SUN 17:00 FRI 16:00"));
+        assertThrows(IllegalArgumentException.class, () -> WeeklySchedule.parseWindows("XYZ 17:00-FRI 16:00"));
+        assertThrows(IllegalArgumentException.class, () -> WeeklySchedule.parseZone("Mars/Olympus"));
+        assertEquals("SUN 17:00-FRI 16:00", WeeklySchedule.Window.parse("sunday 17:00 - fri 16:00").toString());
+    }
+}